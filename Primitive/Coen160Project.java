@@ -55,7 +55,7 @@ public class Coen160Project {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1 || !(parameters.get(0) instanceof Type.Number)) 
         throw new Exceptionf("'gui-get-input didn't receive exactly 1 number arg: %s", Exceptionf.profileArgs(parameters));
-      currentScoreField.setText(String.valueOf((int)((Type.Number)parameters.get(0)).value));
+      currentScoreField.setText(String.valueOf((int)((Type.Number)parameters.get(0)).doubleValue()));
       String inputWord = null;
       boolean resetSession = false;
       while(inputWord == null && resetSession == false) {
@@ -64,7 +64,7 @@ public class Coen160Project {
       }
       fields.setResetSession(false);
       fields.setInputWord(null);
-      if(resetSession) return new Type.Boolean(false);
+      if(resetSession) return Type.Boolean.FALSE;
       return new Type.String(inputWord);
     }
   }
@@ -79,7 +79,7 @@ public class Coen160Project {
       usableLettersField.setText(((Type.String)parameters.get(0)).value);
       currentScoreField.setText("0");
       userWordInputField.setText("Enter your word here!");
-      return new Type.Void();
+      return Type.Void.VALUE;
     }
   }
 
@@ -135,7 +135,7 @@ public class Coen160Project {
       window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
       window.setVisible(true);
 
-      return new Type.Void();
+      return Type.Void.VALUE;
     }
   }
 
@@ -160,7 +160,7 @@ public class Coen160Project {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1 || !(parameters.get(0) instanceof Type.String)) 
         throw new Exceptionf("'dictionary-valid-word? didn't receive exactly 1 string arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(isWord(((Type.String)parameters.get(0)).value));
+      return Type.Boolean.valueOf(isWord(((Type.String)parameters.get(0)).value));
     }
   }
 }
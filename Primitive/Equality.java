@@ -17,8 +17,8 @@ public class Equality {
       if(n == 0) throw new Exceptionf("'eq? expects at least 1 argument: %s", Exceptionf.profileArgs(parameters));
       for(int i = 0; i < n-1; ++i)
         if(!parameters.get(i).eq(parameters.get(i+1)))
-          return new Type.Boolean(false);
-      return new Type.Boolean(true);
+          return Type.Boolean.FALSE;
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -31,8 +31,8 @@ public class Equality {
       if(n == 0) throw new Exceptionf("'equal? expects at least 1 argument: %s", Exceptionf.profileArgs(parameters));
       for(int i = 0; i < n-1; ++i)
         if(!parameters.get(i).equals(parameters.get(i+1)))
-          return new Type.Boolean(false);
-      return new Type.Boolean(true);
+          return Type.Boolean.FALSE;
+      return Type.Boolean.TRUE;
     }
   }
 }
\ No newline at end of file
@@ -22,7 +22,7 @@ public class Functional {
       Datum rootProcedure = parameters.get(parameters.size()-1);
       if(!(rootProcedure instanceof Type.Procedure)) 
         throw new Exceptionf("'compose received a non-procedure arg %s!", rootProcedure.profile());
-      Datum body = Type.Pair.List(new Type.Symbol("apply"),rootProcedure,new Type.Symbol("args"));
+      Datum body = Type.Pair.List(Type.Symbol.intern("apply"),rootProcedure,Type.Symbol.intern("args"));
       for(int i = parameters.size()-2; i >= 0; --i) {
         Datum procedure = parameters.get(i);
         if(!(procedure instanceof Type.Procedure)) 
@@ -38,10 +38,10 @@ public class Functional {
   // bind
   public static class Bind implements Type.Primitive {
     private static Datum convertArgsToList(ArrayList<Datum> parameters) {
-      Datum argsList = new Type.Nil();
+      Datum argsList = Type.Nil.VALUE;
       for(int i = parameters.size()-1; i >= 1; --i)
         argsList = new Type.Pair(parameters.get(i),argsList);
-      return new Type.Pair(new Type.Symbol("list"),argsList);
+      return new Type.Pair(Type.Symbol.intern("list"),argsList);
     }
 
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
@@ -50,7 +50,7 @@ public class Functional {
       ArrayList<String> params = new ArrayList<String>();
       params.add("args");
       Datum argsList = convertArgsToList(parameters);
-      Datum body = Type.Pair.List(new Type.Symbol("apply"),parameters.get(0),Type.Pair.List(new Type.Symbol("append"),argsList,new Type.Symbol("args")));
+      Datum body = Type.Pair.List(Type.Symbol.intern("apply"),parameters.get(0),Type.Pair.List(Type.Symbol.intern("append"),argsList,Type.Symbol.intern("args")));
       return new Type.CompoundProcedure(params,body,Util.Runtime.globalEnvironment,true);
     }
   }
@@ -73,7 +73,7 @@ public class Functional {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) 
         throw new Exceptionf("'procedure? expects exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(parameters.get(0) instanceof Type.Procedure);
+      return Type.Boolean.valueOf(parameters.get(0) instanceof Type.Procedure);
     }
   }
 }
\ No newline at end of file
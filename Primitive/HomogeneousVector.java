@@ -0,0 +1,553 @@
+// Author: Jordan Randleman - Primitive.HomogeneousVector
+// Purpose:
+//    Java primitives for homogeneous (f64, s64, & u8) vector procedures.
+//
+//    Each primitive is instantiated once per element type (given the type's tag), hence
+//    registering <f64vector-ref>, <s64vector-ref>, & <u8vector-ref> from the same class.
+//    Bulk operations (sum, dot, scale, & mapping the <+>, <->, <*>, & </> primitives) run
+//    as tight loops over the unboxed backing arrays, only boxing their final result.
+
+package Primitive;
+import Type.Datum;
+import Type.Environment;
+import Util.Exceptionf;
+import java.math.BigInteger;
+import java.util.ArrayList;
+
+public class HomogeneousVector {
+  ////////////////////////////////////////////////////////////////////////////
+  // Element Type Specialization
+  private static abstract class TypedPrimitive implements Type.Primitive {
+    protected final int tag;
+
+    protected TypedPrimitive(int tag) {
+      this.tag = tag;
+    }
+
+    protected java.lang.String vectorName() {
+      return Type.HomogeneousVector.prefix(tag)+"vector";
+    }
+
+    protected boolean isVector(Datum d) {
+      return d.tag == tag;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Arithmetic Primitive Recognition
+  private static final int ADD = 0;
+  private static final int SUBTRACT = 1;
+  private static final int MULTIPLY = 2;
+  private static final int DIVIDE = 3;
+
+  // Returns the operation of <procedure> if it's the <+>, <->, <*>, or </> primitive (hence
+  // mappable over unboxed elements), else <-1>
+  private static int getArithmeticOperation(Datum procedure) {
+    if(!(procedure instanceof Type.PrimitiveProcedure)) return -1;
+    Type.Primitive prm = ((Type.PrimitiveProcedure)procedure).primitive();
+    if(prm instanceof Number.Plus) return ADD;
+    if(prm instanceof Number.Minus) return SUBTRACT;
+    if(prm instanceof Number.Multiply) return MULTIPLY;
+    if(prm instanceof Number.Divide) return DIVIDE;
+    return -1;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Element Validation Helper
+  private static void validateElement(java.lang.String name, Type.HomogeneousVector v, Datum d) throws Exception {
+    if(!v.isValidElement(d))
+      throw new Exceptionf("'%s %s isn't a valid %s element!", name, d.profile(), v.type());
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector
+  public static class ConstructVector extends TypedPrimitive {
+    public ConstructVector(int tag) {
+      super(tag);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      Type.HomogeneousVector v = Type.HomogeneousVector.allocate(tag,parameters.size());
+      for(int i = 0, n = parameters.size(); i < n; ++i) {
+        validateElement(vectorName(),v,parameters.get(i));
+        v.set(i,parameters.get(i));
+      }
+      return v;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // make-<type>vector
+  public static class MakeVector extends TypedPrimitive {
+    public MakeVector(int tag) {
+      super(tag);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      java.lang.String name = "make-"+vectorName();
+      if(parameters.size() != 1 && parameters.size() != 2)
+        throw new Exceptionf("'%s didn't receive 1 or 2 args (length & optional fill): %s", name, Exceptionf.profileArgs(parameters));
+      Datum length = parameters.get(0);
+      if(!List.isValidSize(length) || ((Type.Number)length).doubleValue() > Integer.MAX_VALUE)
+        throw new Exceptionf("'%s 1st arg %s isn't a non-negative integer!", name, length.profile());
+      Type.HomogeneousVector v = Type.HomogeneousVector.allocate(tag,(int)((Type.Number)length).doubleValue());
+      if(parameters.size() == 2) { // vectors are already zero-filled by default
+        validateElement(name,v,parameters.get(1));
+        for(int i = 0; i < v.length; ++i)
+          v.set(i,parameters.get(1));
+      }
+      return v;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector-length
+  public static class VectorLength extends TypedPrimitive {
+    public VectorLength(int tag) {
+      super(tag);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1 || !isVector(parameters.get(0)))
+        throw new Exceptionf("'%s-length didn't receive exactly 1 %s: %s", vectorName(), vectorName(), Exceptionf.profileArgs(parameters));
+      return Type.Number.valueOf(((Type.HomogeneousVector)parameters.get(0)).length);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector-ref
+  public static class VectorRef extends TypedPrimitive {
+    public VectorRef(int tag) {
+      super(tag);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      java.lang.String name = vectorName()+"-ref";
+      if(parameters.size() != 2)
+        throw new Exceptionf("'%s didn't receive exactly 2 args (%s & index): %s", name, vectorName(), Exceptionf.profileArgs(parameters));
+      Datum vector = parameters.get(0);
+      Datum index = parameters.get(1);
+      if(!isVector(vector))
+        throw new Exceptionf("'%s 1st arg %s isn't a %s!", name, vector.profile(), vectorName());
+      Type.HomogeneousVector v = (Type.HomogeneousVector)vector;
+      int indexValue = Vector.getIndex(index,v.length);
+      if(indexValue == -1)
+        throw new Exceptionf("'%s 2nd arg %s isn't a valid index into %s", name, index.profile(), v.write());
+      return v.ref(indexValue);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector-set!
+  public static class VectorSetBang extends TypedPrimitive {
+    public VectorSetBang(int tag) {
+      super(tag);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      java.lang.String name = vectorName()+"-set!";
+      if(parameters.size() != 3)
+        throw new Exceptionf("'%s didn't receive exactly 3 args (%s, index, & value): %s", name, vectorName(), Exceptionf.profileArgs(parameters));
+      Datum vector = parameters.get(0);
+      Datum index = parameters.get(1);
+      if(!isVector(vector))
+        throw new Exceptionf("'%s 1st arg %s isn't a %s!", name, vector.profile(), vectorName());
+      Type.HomogeneousVector v = (Type.HomogeneousVector)vector;
+      int indexValue = Vector.getIndex(index,v.length);
+      if(indexValue == -1)
+        throw new Exceptionf("'%s 2nd arg %s isn't a valid index into %s", name, index.profile(), v.write());
+      validateElement(name,v,parameters.get(2));
+      v.set(indexValue,parameters.get(2));
+      return Type.Void.VALUE;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector-fill!
+  public static class VectorFillBang extends TypedPrimitive {
+    public VectorFillBang(int tag) {
+      super(tag);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      java.lang.String name = vectorName()+"-fill!";
+      if(parameters.size() != 2 || !isVector(parameters.get(0)))
+        throw new Exceptionf("'%s didn't receive exactly 2 args (%s & value): %s", name, vectorName(), Exceptionf.profileArgs(parameters));
+      Type.HomogeneousVector v = (Type.HomogeneousVector)parameters.get(0);
+      validateElement(name,v,parameters.get(1));
+      for(int i = 0; i < v.length; ++i)
+        v.set(i,parameters.get(1));
+      return Type.Void.VALUE;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector-copy & <type>vector-slice
+  // => Copies yield fresh storage, whereas slices are views sharing the sliced vector's
+  //    storage (hence mutating one mutates the other)
+  private static Type.HomogeneousVector getRange(java.lang.String name, java.lang.String vectorName, int tag, ArrayList<Datum> parameters) throws Exception {
+    int totalParameters = parameters.size();
+    if(totalParameters < 1 || totalParameters > 3)
+      throw new Exceptionf("'%s didn't receive 1-3 args (%s, optional start, & optional end): %s", name, vectorName, Exceptionf.profileArgs(parameters));
+    Datum vector = parameters.get(0);
+    if(vector.tag != tag)
+      throw new Exceptionf("'%s 1st arg %s isn't a %s!", name, vector.profile(), vectorName);
+    Type.HomogeneousVector v = (Type.HomogeneousVector)vector;
+    int start = 0, end = v.length;
+    if(totalParameters > 1) {
+      start = Vector.getIndex(parameters.get(1),v.length+1);
+      if(start == -1)
+        throw new Exceptionf("'%s 2nd arg %s isn't a valid start index into %s", name, parameters.get(1).profile(), v.write());
+    }
+    if(totalParameters > 2) {
+      end = Vector.getIndex(parameters.get(2),v.length+1);
+      if(end < start)
+        throw new Exceptionf("'%s 3rd arg %s isn't a valid end index into %s", name, parameters.get(2).profile(), v.write());
+    }
+    return v.slice(start,end);
+  }
+
+  public static class VectorCopy extends TypedPrimitive {
+    public VectorCopy(int tag) {
+      super(tag);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      return getRange(vectorName()+"-copy",vectorName(),tag,parameters).copy();
+    }
+  }
+
+  public static class VectorSlice extends TypedPrimitive {
+    public VectorSlice(int tag) {
+      super(tag);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      return getRange(vectorName()+"-slice",vectorName(),tag,parameters);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector->list
+  public static class VectorToList extends TypedPrimitive {
+    public VectorToList(int tag) {
+      super(tag);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1 || !isVector(parameters.get(0)))
+        throw new Exceptionf("'%s->list didn't receive exactly 1 %s: %s", vectorName(), vectorName(), Exceptionf.profileArgs(parameters));
+      Type.HomogeneousVector v = (Type.HomogeneousVector)parameters.get(0);
+      Datum lis = Type.Nil.VALUE;
+      for(int i = v.length-1; i >= 0; --i)
+        lis = new Type.Pair(v.ref(i),lis);
+      return lis;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // list-><type>vector
+  public static class ListToVector extends TypedPrimitive {
+    public ListToVector(int tag) {
+      super(tag);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      java.lang.String name = "list->"+vectorName();
+      if(parameters.size() != 1 || !Type.Pair.isList(parameters.get(0)))
+        throw new Exceptionf("'%s didn't receive exactly 1 list: %s", name, Exceptionf.profileArgs(parameters));
+      int length = 0;
+      for(Datum iterator = parameters.get(0); iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr)
+        ++length;
+      Type.HomogeneousVector v = Type.HomogeneousVector.allocate(tag,length);
+      int i = 0;
+      for(Datum iterator = parameters.get(0); iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr) {
+        validateElement(name,v,((Type.Pair)iterator).car);
+        v.set(i++,((Type.Pair)iterator).car);
+      }
+      return v;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector-sum
+  public static class VectorSum extends TypedPrimitive {
+    public VectorSum(int tag) {
+      super(tag);
+    }
+
+    private static Type.Number sumF64(Type.F64Vector v) {
+      double[] a = v.value;
+      double sum = 0.0;
+      for(int i = v.start, n = v.start+v.length; i < n; ++i)
+        sum += a[i];
+      return new Type.Flonum(sum);
+    }
+
+    private static Type.Number sumS64(Type.S64Vector v) {
+      long[] a = v.value;
+      try {
+        long sum = 0;
+        for(int i = v.start, n = v.start+v.length; i < n; ++i)
+          sum = Math.addExact(sum,a[i]);
+        return Type.Number.valueOf(sum);
+      } catch(ArithmeticException e) { // overflowed into a bignum
+        BigInteger sum = BigInteger.ZERO;
+        for(int i = v.start, n = v.start+v.length; i < n; ++i)
+          sum = sum.add(BigInteger.valueOf(a[i]));
+        return Type.Number.valueOf(sum);
+      }
+    }
+
+    private static Type.Number sumU8(Type.U8Vector v) {
+      byte[] a = v.value;
+      long sum = 0;
+      for(int i = v.start, n = v.start+v.length; i < n; ++i)
+        sum += a[i] & 0xff;
+      return Type.Number.valueOf(sum);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1 || !isVector(parameters.get(0)))
+        throw new Exceptionf("'%s-sum didn't receive exactly 1 %s: %s", vectorName(), vectorName(), Exceptionf.profileArgs(parameters));
+      switch(tag) {
+        case Datum.F64VECTOR: return sumF64((Type.F64Vector)parameters.get(0));
+        case Datum.S64VECTOR: return sumS64((Type.S64Vector)parameters.get(0));
+        default: return sumU8((Type.U8Vector)parameters.get(0));
+      }
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector-dot
+  public static class VectorDot extends TypedPrimitive {
+    public VectorDot(int tag) {
+      super(tag);
+    }
+
+    private static Type.Number dotF64(Type.F64Vector v, Type.F64Vector w) {
+      double[] a = v.value, b = w.value;
+      int offset = w.start-v.start;
+      double dot = 0.0;
+      for(int i = v.start, n = v.start+v.length; i < n; ++i)
+        dot += a[i]*b[i+offset];
+      return new Type.Flonum(dot);
+    }
+
+    private static Type.Number dotS64(Type.S64Vector v, Type.S64Vector w) {
+      long[] a = v.value, b = w.value;
+      int offset = w.start-v.start;
+      try {
+        long dot = 0;
+        for(int i = v.start, n = v.start+v.length; i < n; ++i)
+          dot = Math.addExact(dot,Math.multiplyExact(a[i],b[i+offset]));
+        return Type.Number.valueOf(dot);
+      } catch(ArithmeticException e) { // overflowed into a bignum
+        BigInteger dot = BigInteger.ZERO;
+        for(int i = v.start, n = v.start+v.length; i < n; ++i)
+          dot = dot.add(BigInteger.valueOf(a[i]).multiply(BigInteger.valueOf(b[i+offset])));
+        return Type.Number.valueOf(dot);
+      }
+    }
+
+    private static Type.Number dotU8(Type.U8Vector v, Type.U8Vector w) {
+      byte[] a = v.value, b = w.value;
+      int offset = w.start-v.start;
+      long dot = 0;
+      for(int i = v.start, n = v.start+v.length; i < n; ++i)
+        dot += (a[i] & 0xff)*(b[i+offset] & 0xff);
+      return Type.Number.valueOf(dot);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      java.lang.String name = vectorName()+"-dot";
+      if(parameters.size() != 2 || !isVector(parameters.get(0)) || !isVector(parameters.get(1)))
+        throw new Exceptionf("'%s didn't receive exactly 2 %ss: %s", name, vectorName(), Exceptionf.profileArgs(parameters));
+      Type.HomogeneousVector v = (Type.HomogeneousVector)parameters.get(0);
+      Type.HomogeneousVector w = (Type.HomogeneousVector)parameters.get(1);
+      if(v.length != w.length)
+        throw new Exceptionf("'%s %ss %s & %s don't have the same length!", name, vectorName(), v.write(), w.write());
+      switch(tag) {
+        case Datum.F64VECTOR: return dotF64((Type.F64Vector)v,(Type.F64Vector)w);
+        case Datum.S64VECTOR: return dotS64((Type.S64Vector)v,(Type.S64Vector)w);
+        default: return dotU8((Type.U8Vector)v,(Type.U8Vector)w);
+      }
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector-scale
+  // => Returns a new vector, erroring if an exact element would leave the element type's range
+  public static class VectorScale extends TypedPrimitive {
+    public VectorScale(int tag) {
+      super(tag);
+    }
+
+    private static Type.HomogeneousVector scaleF64(Type.F64Vector v, double factor) {
+      double[] a = v.value, result = new double[v.length];
+      for(int i = 0, n = v.length; i < n; ++i)
+        result[i] = a[i+v.start]*factor;
+      return new Type.F64Vector(result);
+    }
+
+    private static Type.HomogeneousVector scaleS64(Type.S64Vector v, long factor) throws Exception {
+      long[] a = v.value, result = new long[v.length];
+      try {
+        for(int i = 0, n = v.length; i < n; ++i)
+          result[i] = Math.multiplyExact(a[i+v.start],factor);
+      } catch(ArithmeticException e) {
+        throw new Exceptionf("'s64vector-scale scaling %s by %d overflows a s64 element!", v.write(), factor);
+      }
+      return new Type.S64Vector(result);
+    }
+
+    private static Type.HomogeneousVector scaleU8(Type.U8Vector v, long factor) throws Exception {
+      byte[] a = v.value, result = new byte[v.length];
+      for(int i = 0, n = v.length; i < n; ++i) {
+        long product = (a[i+v.start] & 0xff)*factor;
+        if(product > 255)
+          throw new Exceptionf("'u8vector-scale scaling %s by %d overflows a u8 element!", v.write(), factor);
+        result[i] = (byte)product;
+      }
+      return new Type.U8Vector(result);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      java.lang.String name = vectorName()+"-scale";
+      if(parameters.size() != 2 || !isVector(parameters.get(0)))
+        throw new Exceptionf("'%s didn't receive exactly 2 args (%s & factor): %s", name, vectorName(), Exceptionf.profileArgs(parameters));
+      Type.HomogeneousVector v = (Type.HomogeneousVector)parameters.get(0);
+      Datum factor = parameters.get(1);
+      validateElement(name,v,factor);
+      switch(tag) {
+        case Datum.F64VECTOR: return scaleF64((Type.F64Vector)v,((Type.Number)factor).doubleValue());
+        case Datum.S64VECTOR: return scaleS64((Type.S64Vector)v,((Type.Fixnum)factor).value);
+        default: return scaleU8((Type.U8Vector)v,((Type.Fixnum)factor).value);
+      }
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector-map
+  // => Mapping the <+>, <->, <*>, or </> primitive over 2 vectors runs as a loop over their
+  //    unboxed elements, & any other procedure is applied to boxed elements
+  public static class VectorMap extends TypedPrimitive {
+    public VectorMap(int tag) {
+      super(tag);
+    }
+
+    private static Type.HomogeneousVector mapF64(int operation, Type.F64Vector v, Type.F64Vector w, int length) {
+      double[] a = v.value, b = w.value, result = new double[length];
+      int i = v.start, j = w.start;
+      switch(operation) {
+        case ADD: for(int k = 0; k < length; ++k) result[k] = a[i+k]+b[j+k]; break;
+        case SUBTRACT: for(int k = 0; k < length; ++k) result[k] = a[i+k]-b[j+k]; break;
+        case MULTIPLY: for(int k = 0; k < length; ++k) result[k] = a[i+k]*b[j+k]; break;
+        default: for(int k = 0; k < length; ++k) result[k] = a[i+k]/b[j+k]; break;
+      }
+      return new Type.F64Vector(result);
+    }
+
+    private static Type.HomogeneousVector mapS64(int operation, Type.S64Vector v, Type.S64Vector w, int length) throws Exception {
+      long[] a = v.value, b = w.value, result = new long[length];
+      int i = v.start, j = w.start;
+      try {
+        switch(operation) {
+          case ADD: for(int k = 0; k < length; ++k) result[k] = Math.addExact(a[i+k],b[j+k]); break;
+          case SUBTRACT: for(int k = 0; k < length; ++k) result[k] = Math.subtractExact(a[i+k],b[j+k]); break;
+          default: for(int k = 0; k < length; ++k) result[k] = Math.multiplyExact(a[i+k],b[j+k]); break;
+        }
+      } catch(ArithmeticException e) {
+        throw new Exceptionf("'s64vector-map result overflowed a s64 element mapping %s & %s", v.write(), w.write());
+      }
+      return new Type.S64Vector(result);
+    }
+
+    private static Type.HomogeneousVector mapU8(int operation, Type.U8Vector v, Type.U8Vector w, int length) throws Exception {
+      byte[] a = v.value, b = w.value, result = new byte[length];
+      int i = v.start, j = w.start;
+      for(int k = 0; k < length; ++k) {
+        int x = a[i+k] & 0xff, y = b[j+k] & 0xff;
+        int r = operation == ADD ? x+y : operation == SUBTRACT ? x-y : x*y;
+        if(r < 0 || r > 255)
+          throw new Exceptionf("'u8vector-map result %d isn't a valid u8 element mapping %s & %s", r, v.write(), w.write());
+        result[k] = (byte)r;
+      }
+      return new Type.U8Vector(result);
+    }
+
+    private Type.HomogeneousVector mapUnboxed(int operation, Type.HomogeneousVector v, Type.HomogeneousVector w, int length) throws Exception {
+      switch(tag) {
+        case Datum.F64VECTOR: return mapF64(operation,(Type.F64Vector)v,(Type.F64Vector)w,length);
+        case Datum.S64VECTOR: return mapS64(operation,(Type.S64Vector)v,(Type.S64Vector)w,length);
+        default: return mapU8(operation,(Type.U8Vector)v,(Type.U8Vector)w,length);
+      }
+    }
+
+    private Type.HomogeneousVector mapBoxed(java.lang.String name, Type.Procedure procedure, ArrayList<Datum> parameters, int length) throws Exception {
+      int totalParameters = parameters.size();
+      Type.HomogeneousVector result = Type.HomogeneousVector.allocate(tag,length);
+      for(int i = 0; i < length; ++i) {
+        ArrayList<Datum> items = new ArrayList<Datum>(totalParameters-1);
+        for(int j = 1; j < totalParameters; ++j)
+          items.add(((Type.HomogeneousVector)parameters.get(j)).ref(i));
+        Datum mapped = procedure.callWith(Util.Runtime.globalEnvironment,items);
+        validateElement(name,result,mapped);
+        result.set(i,mapped);
+      }
+      return result;
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      // Validation
+      java.lang.String name = vectorName()+"-map";
+      int totalParameters = parameters.size();
+      if(totalParameters < 2)
+        throw new Exceptionf("'%s didn't receive at least 2 args (procedure & %s): %s", name, vectorName(), Exceptionf.profileArgs(parameters));
+      Datum procedure = parameters.get(0);
+      if(!(procedure instanceof Type.Procedure))
+        throw new Exceptionf("'%s 1st arg %s isn't a procedure!", name, procedure.profile());
+      int length = Integer.MAX_VALUE;
+      for(int i = 1; i < totalParameters; ++i) {
+        if(!isVector(parameters.get(i)))
+          throw new Exceptionf("'%s %dth arg %s isn't a %s!", name, i+1, parameters.get(i).profile(), vectorName());
+        length = Math.min(length,((Type.HomogeneousVector)parameters.get(i)).length);
+      }
+      // Implementation
+      int operation = getArithmeticOperation(procedure);
+      if(totalParameters == 3 && operation != -1 && (operation != DIVIDE || tag == Datum.F64VECTOR))
+        return mapUnboxed(operation,(Type.HomogeneousVector)parameters.get(1),(Type.HomogeneousVector)parameters.get(2),length);
+      return mapBoxed(name,(Type.Procedure)procedure,parameters,length);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // <type>vector?
+  public static class IsVector extends TypedPrimitive {
+    public IsVector(int tag) {
+      super(tag);
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1)
+        throw new Exceptionf("'%s? didn't receive exactly 1 arg: %s", vectorName(), Exceptionf.profileArgs(parameters));
+      return Type.Boolean.valueOf(isVector(parameters.get(0)));
+    }
+  }
+}
@@ -24,7 +24,7 @@ public class IO {
         throw new Exceptionf("'write expects exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
       System.out.print(parameters.get(0).write());
       lastPrintedANewline = false;
-      return new Type.Void();
+      return Type.Void.VALUE;
     }
   }
 
@@ -42,7 +42,7 @@ public class IO {
         String str = ((Type.String)parameters.get(0)).value;
         lastPrintedANewline = str.charAt(str.length()-1) == '\n';
       }
-      return new Type.Void();
+      return Type.Void.VALUE;
     }
   }
 
@@ -55,7 +55,7 @@ public class IO {
         throw new Exceptionf("'newline doesn't accept any args: %s", Exceptionf.profileArgs(parameters));
       System.out.println("");
       lastPrintedANewline = true;
-      return new Type.Void();
+      return Type.Void.VALUE;
     }
   }
 
@@ -67,7 +67,7 @@ public class IO {
       if(parameters.size() != 0) 
         throw new Exceptionf("'read doesn't accept any args: %s", Exceptionf.profileArgs(parameters));
       Datum readDatum = Util.Core.read(new BufferedReader(new InputStreamReader(System.in)));
-      if(readDatum == null) return new Type.Void(); // EOF in a <read> call yields a <void> object
+      if(readDatum == null) return Type.Void.VALUE; // EOF in a <read> call yields a <void> object
       return readDatum;
     }
   }
@@ -80,7 +80,7 @@ public class IO {
       if(parameters.size() != 1 || !(parameters.get(0) instanceof Type.String)) 
         throw new Exceptionf("'read-string expects exactly 1 string arg: %s", Exceptionf.profileArgs(parameters));
       String readString = ((Type.String)parameters.get(0)).value.trim();
-      if(readString.length() == 0) return new Type.Void(); // (read-string "") => <void>
+      if(readString.length() == 0) return Type.Void.VALUE; // (read-string "") => <void>
       Util.Pair<Datum,Integer> result = Util.Reader.read(readString);
       String restOfString = readString.substring(result.second).trim();
       return new Type.Pair(result.first,new Type.String(restOfString));
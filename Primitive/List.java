@@ -13,16 +13,27 @@ public class List {
   // Size Number Validation Helper
   public static boolean isValidSize(Datum d)throws Exception {
     if(!(d instanceof Type.Number)) return false;
-    double value = ((Type.Number)d).value;
+    double value = ((Type.Number)d).doubleValue();
     return value >= 0.0 && value % 1 == 0.0;
   }
 
 
+  ////////////////////////////////////////////////////////////////////////////
+  // List Building Helper
+  // => Appends a new pair holding <car> after <tail>, & returns it (lists are thus built
+  //    front-to-back in a loop, rather than recursively)
+  public static Type.Pair link(Type.Pair tail, Datum car) {
+    Type.Pair next = new Type.Pair(car,Type.Nil.VALUE);
+    tail.cdr = next;
+    return next;
+  }
+
+
   ////////////////////////////////////////////////////////////////////////////
   // list
   public static class ConstructList implements Type.Primitive {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
-      Datum d = new Type.Nil();
+      Datum d = Type.Nil.VALUE;
       for(int i = parameters.size()-1; i >= 0; --i)
         d = new Type.Pair(parameters.get(i),d);
       return d;
@@ -47,24 +58,22 @@ public class List {
   ////////////////////////////////////////////////////////////////////////////
   // append
   public static class Append implements Type.Primitive {
-    private static Datum shallowCopy(Datum lis2) {
-      if(!(lis2 instanceof Type.Pair)) return lis2;
-      Type.Pair lis2Pair = (Type.Pair)lis2;
-      return new Type.Pair(lis2Pair.car,shallowCopy(lis2Pair.cdr));
-    }
-
+    // Copies the pairs of <lis1> & <lis2>, iterating (rather than recursing) down the lists
     public static Datum binaryAppend(Datum lis1, Datum lis2) throws Exception {
-      if(lis1 instanceof Type.Nil) {
-        if(lis2 instanceof Type.Pair) return shallowCopy(lis2);
-        return lis2;
-      }
-      Type.Pair lis1Pair = (Type.Pair)lis1;
-      return new Type.Pair(lis1Pair.car,binaryAppend(lis1Pair.cdr,lis2));
+      Type.Pair head = new Type.Pair(Type.Nil.VALUE,Type.Nil.VALUE); // sentinel
+      Type.Pair tail = head;
+      for(Datum iterator = lis1; iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr)
+        tail = link(tail,((Type.Pair)iterator).car);
+      Datum iterator = lis2;
+      for(; iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr)
+        tail = link(tail,((Type.Pair)iterator).car);
+      tail.cdr = iterator;
+      return head.cdr;
     }
 
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       int totalParameters = parameters.size();
-      if(totalParameters == 0) return new Type.Nil();
+      if(totalParameters == 0) return Type.Nil.VALUE;
       if(totalParameters == 1) return parameters.get(0);
       Datum lhs = parameters.get(0);
       for(int i = 1; i < totalParameters; ++i) {
@@ -89,7 +98,7 @@ public class List {
         ++count;
         iterator = ((Type.Pair)iterator).cdr;
       }
-      return new Type.Number((double)count);
+      return Type.Number.valueOf(count);
     }
   }
 
@@ -100,7 +109,7 @@ public class List {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1 || !Type.Pair.isList(parameters.get(0)))
         throw new Exceptionf("'reverse didn't receive exactly 1 list: %s", Exceptionf.profileArgs(parameters));
-      Datum reversed = new Type.Nil();
+      Datum reversed = Type.Nil.VALUE;
       Datum iterator = parameters.get(0);
       while(iterator instanceof Type.Pair) {
         Type.Pair iteratorPair = (Type.Pair)iterator;
@@ -134,11 +143,16 @@ public class List {
         parameters.set(i,((Type.Pair)parameters.get(i)).cdr);
     }
 
+    // Builds the result front-to-back, hence mapping lists of any length in constant stack space
     private static Datum mapRecur(Type.Procedure procedure, ArrayList<Datum> parameters, int totalParameters) throws Exception {
-      ArrayList<Datum> carParams = getCars(parameters,totalParameters);
-      if(carParams == null) return new Type.Nil(); // reached the end of one of the mapped lists
-      applyCdrs(parameters,totalParameters);
-      return new Type.Pair(procedure.callWith(Util.Runtime.globalEnvironment,carParams),mapRecur(procedure,parameters,totalParameters));
+      Type.Pair head = new Type.Pair(Type.Nil.VALUE,Type.Nil.VALUE); // sentinel
+      Type.Pair tail = head;
+      while(true) {
+        ArrayList<Datum> carParams = getCars(parameters,totalParameters);
+        if(carParams == null) return head.cdr; // reached the end of one of the mapped lists
+        applyCdrs(parameters,totalParameters);
+        tail = link(tail,procedure.callWith(Util.Runtime.globalEnvironment,carParams));
+      }
     }
 
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
@@ -175,7 +189,7 @@ public class List {
       // Implementation
       while(true) {
         ArrayList<Datum> carParams = Map.getCars(parameters,totalParameters);
-        if(carParams == null) return new Type.Void();
+        if(carParams == null) return Type.Void.VALUE;
         Map.applyCdrs(parameters,totalParameters);
         ((Type.Procedure)procedure).callWith(Util.Runtime.globalEnvironment,carParams);
       }
@@ -186,14 +200,18 @@ public class List {
   ////////////////////////////////////////////////////////////////////////////
   // filter
   public static class Filter implements Type.Primitive {
+    // Builds the result front-to-back, hence filtering lists of any length in constant stack space
     public static Datum filterRecur(Type.Procedure procedure, Datum lis) throws Exception {
-      if(!(lis instanceof Type.Pair)) return new Type.Nil();
-      ArrayList<Datum> arg = new ArrayList<Datum>();
-      Type.Pair lisPair = (Type.Pair)lis;
-      arg.add(lisPair.car);
-      if(procedure.callWith(Util.Runtime.globalEnvironment,arg).isTruthy())
-        return new Type.Pair(lisPair.car,filterRecur(procedure,lisPair.cdr));
-      return filterRecur(procedure,lisPair.cdr);
+      Type.Pair head = new Type.Pair(Type.Nil.VALUE,Type.Nil.VALUE); // sentinel
+      Type.Pair tail = head;
+      for(Datum iterator = lis; iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr) {
+        ArrayList<Datum> arg = new ArrayList<Datum>();
+        Type.Pair lisPair = (Type.Pair)iterator;
+        arg.add(lisPair.car);
+        if(procedure.callWith(Util.Runtime.globalEnvironment,arg).isTruthy())
+          tail = link(tail,lisPair.car);
+      }
+      return head.cdr;
     }
 
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
@@ -246,13 +264,18 @@ public class List {
   ////////////////////////////////////////////////////////////////////////////
   // fold-right
   public static class FoldRight implements Type.Primitive {
+    // Folds over the list's elements in reverse, rather than recursing down the list
     private static Datum foldRightRecur(Type.Procedure procedure, Datum acc, Datum lis) throws Exception {
-      if(lis instanceof Type.Nil) return acc;
-      Type.Pair lisPair = (Type.Pair)lis;
-      ArrayList<Datum> args = new ArrayList<Datum>();
-      args.add(lisPair.car);
-      args.add(foldRightRecur(procedure,acc,lisPair.cdr));
-      return procedure.callWith(Util.Runtime.globalEnvironment,args);
+      ArrayList<Datum> elements = new ArrayList<Datum>();
+      for(Datum iterator = lis; iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr)
+        elements.add(((Type.Pair)iterator).car);
+      for(int i = elements.size()-1; i >= 0; --i) {
+        ArrayList<Datum> args = new ArrayList<Datum>();
+        args.add(elements.get(i));
+        args.add(acc);
+        acc = procedure.callWith(Util.Runtime.globalEnvironment,args);
+      }
+      return acc;
     }
 
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
@@ -282,9 +305,11 @@ public class List {
   // init
   public static class Init implements Type.Primitive {
     private Datum initRecur(Datum lis) throws Exception {
-      Type.Pair lisPair = (Type.Pair)lis;
-      if(lisPair.cdr instanceof Type.Nil) return new Type.Nil();
-      return new Type.Pair(lisPair.car,initRecur(lisPair.cdr));
+      Type.Pair head = new Type.Pair(Type.Nil.VALUE,Type.Nil.VALUE); // sentinel
+      Type.Pair tail = head;
+      for(Type.Pair lisPair = (Type.Pair)lis; lisPair.cdr instanceof Type.Pair; lisPair = (Type.Pair)lisPair.cdr)
+        tail = link(tail,lisPair.car);
+      return head.cdr;
     }
 
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
@@ -307,7 +332,7 @@ public class List {
         throw new Exceptionf("'ref 1st arg %s isn't a non-empty list!", lis.profile());
       if(!isValidSize(index)) 
         throw new Exceptionf("'ref 2nd arg %s isn't a non-negative integer!", index.profile());
-      double indexValue = ((Type.Number)index).value;
+      double indexValue = ((Type.Number)index).doubleValue();
       for(double count = 0; lis instanceof Type.Pair; ++count, lis = ((Type.Pair)lis).cdr)
         if(count == indexValue)
           return ((Type.Pair)lis).car;
@@ -324,14 +349,15 @@ public class List {
       Datum endIndex = parameters.get(2);
       if(!isValidSize(endIndex)) 
         throw new Exceptionf("'sublist 3rd arg %s isn't a non-negative integer!", endIndex.profile());
-      return ((Type.Number)endIndex).value;
+      return ((Type.Number)endIndex).doubleValue();
     }
 
     private static Datum sublistRecur(Datum lis, double count, double startIndex, double length) throws Exception {
-      if(lis instanceof Type.Nil || count >= length) return new Type.Nil();
-      Type.Pair lisPair = (Type.Pair)lis;
-      if(count < startIndex) return sublistRecur(lisPair.cdr,count+1,startIndex,length);
-      return new Type.Pair(lisPair.car,sublistRecur(lisPair.cdr,count+1,startIndex,length));
+      Type.Pair head = new Type.Pair(Type.Nil.VALUE,Type.Nil.VALUE); // sentinel
+      Type.Pair tail = head;
+      for(; lis instanceof Type.Pair && count < length; lis = ((Type.Pair)lis).cdr, ++count)
+        if(count >= startIndex) tail = link(tail,((Type.Pair)lis).car);
+      return head.cdr;
     }
 
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
@@ -344,7 +370,7 @@ public class List {
         throw new Exceptionf("'sublist 1st arg %s isn't a list!", lis.profile());
       if(!isValidSize(startIndex)) 
         throw new Exceptionf("'sublist 2nd arg %s isn't a non-negative integer!", startIndex.profile());
-      double startIndexValue = ((Type.Number)startIndex).value;
+      double startIndexValue = ((Type.Number)startIndex).doubleValue();
       return sublistRecur(lis,0,startIndexValue,length+startIndexValue);
     }
   }
@@ -366,7 +392,7 @@ public class List {
           return iteratorPair;
         iterator = iteratorPair.cdr;
       }
-      return new Type.Boolean(false);
+      return Type.Boolean.FALSE;
     }
   }
 
@@ -387,7 +413,7 @@ public class List {
           return iteratorPair;
         iterator = iteratorPair.cdr;
       }
-      return new Type.Boolean(false);
+      return Type.Boolean.FALSE;
     }
   }
 
@@ -411,7 +437,7 @@ public class List {
           return ((Type.Pair)innerList.cdr).car;
         iterator = iteratorPair.cdr;
       }
-      return new Type.Boolean(false);
+      return Type.Boolean.FALSE;
     }
   }
 
@@ -435,7 +461,7 @@ public class List {
           return ((Type.Pair)innerList.cdr).car;
         iterator = iteratorPair.cdr;
       }
-      return new Type.Boolean(false);
+      return Type.Boolean.FALSE;
     }
   }
 
@@ -444,13 +470,13 @@ public class List {
   // sort
   public static class Sort implements Type.Primitive {
     public static Datum sortList(Type.Procedure procedure, Datum lis) throws Exception {
-      if(lis instanceof Type.Nil) return new Type.Nil();
+      if(lis instanceof Type.Nil) return Type.Nil.VALUE;
       // Generate procedures to pass to the filter functions
       ArrayList<String> parameters = new ArrayList<String>();
       parameters.add("item");
       Type.Pair lisPair = (Type.Pair)lis;
-      Datum lessThanBody = Type.Pair.List(procedure,new Type.Symbol("item"),lisPair.car);
-      Datum greaterThanBody = Type.Pair.List(procedure,lisPair.car,new Type.Symbol("item"));
+      Datum lessThanBody = Type.Pair.List(procedure,Type.Symbol.intern("item"),lisPair.car);
+      Datum greaterThanBody = Type.Pair.List(procedure,lisPair.car,Type.Symbol.intern("item"));
       Type.Procedure lessThanProcedure = new Type.CompoundProcedure(parameters,lessThanBody,Util.Runtime.globalEnvironment,false);
       Type.Procedure greaterThanProcedure = new Type.CompoundProcedure(parameters,greaterThanBody,Util.Runtime.globalEnvironment,false);
       // Quicksort!
@@ -486,7 +512,7 @@ public class List {
       if(!Type.Pair.isList(lis)) 
         throw new Exceptionf("'sorted? 2nd arg %s isn't a list!", lis.profile());
       // Implementation
-      if(lis instanceof Type.Nil || ((Type.Pair)lis).cdr instanceof Type.Nil) return new Type.Boolean(true);
+      if(lis instanceof Type.Nil || ((Type.Pair)lis).cdr instanceof Type.Nil) return Type.Boolean.TRUE;
       Type.Pair lisPair = (Type.Pair)lis;
       while(lisPair.cdr instanceof Type.Pair) {
         Type.Pair lisPairCdr = (Type.Pair)lisPair.cdr;
@@ -494,10 +520,10 @@ public class List {
         args.add(lisPair.car);
         args.add(lisPairCdr.car);
         if(!((Type.Procedure)procedure).callWith(Util.Runtime.globalEnvironment,args).isTruthy())
-          return new Type.Boolean(false);
+          return Type.Boolean.FALSE;
         lisPair = lisPairCdr;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -508,7 +534,7 @@ public class List {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) 
         throw new Exceptionf("'list? didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(Type.Pair.isList(parameters.get(0)));
+      return Type.Boolean.valueOf(Type.Pair.isList(parameters.get(0)));
     }
   }
 
@@ -519,9 +545,9 @@ public class List {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) throw new Exceptionf("'list*? didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
       Datum iterator = parameters.get(0);
-      if(!(iterator instanceof Type.Pair)) return new Type.Boolean(false);
+      if(!(iterator instanceof Type.Pair)) return Type.Boolean.FALSE;
       while(iterator instanceof Type.Pair) iterator = ((Type.Pair)iterator).cdr;
-      return new Type.Boolean(!(iterator instanceof Type.Nil));
+      return Type.Boolean.valueOf(!(iterator instanceof Type.Nil));
     }
   }
 
@@ -533,16 +559,16 @@ public class List {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) throw new Exceptionf("'circular-list? didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
       Datum slow = parameters.get(0);
-      if(!(slow instanceof Type.Pair)) return new Type.Boolean(false);
+      if(!(slow instanceof Type.Pair)) return Type.Boolean.FALSE;
       Datum fast = ((Type.Pair)slow).cdr;
       while(fast instanceof Type.Pair && fast != slow) {
         Type.Pair fastPair = (Type.Pair)fast;
         if(!(fastPair.cdr instanceof Type.Pair) || !(((Type.Pair)fastPair.cdr).cdr instanceof Type.Pair))
-          return new Type.Boolean(false);
+          return Type.Boolean.FALSE;
         fast = ((Type.Pair)fastPair.cdr).cdr;
         slow = ((Type.Pair)slow).cdr;
       }
-      return new Type.Boolean(fast == slow);
+      return Type.Boolean.valueOf(fast == slow);
     }
   }
 
@@ -553,14 +579,14 @@ public class List {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) throw new Exceptionf("'alist? didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
       Datum iterator = parameters.get(0);
-      if(!Type.Pair.isList(iterator)) return new Type.Boolean(false);
+      if(!Type.Pair.isList(iterator)) return Type.Boolean.FALSE;
       while(iterator instanceof Type.Pair) {
         Type.Pair iteratorPair = (Type.Pair)iterator;
         if(!(iteratorPair.car instanceof Type.Pair) || !(((Type.Pair)iteratorPair.car).cdr instanceof Type.Pair))
-          return new Type.Boolean(false);
+          return Type.Boolean.FALSE;
         iterator = iteratorPair.cdr;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -570,7 +596,7 @@ public class List {
   public static class IsNull implements Type.Primitive {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) throw new Exceptionf("'null? didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(parameters.get(0) instanceof Type.Nil);
+      return Type.Boolean.valueOf(parameters.get(0) == Type.Nil.VALUE);
     }
   }
 }
\ No newline at end of file
@@ -6,22 +6,46 @@ package Primitive;
 import Type.Datum;
 import Type.Environment;
 import Util.Exceptionf;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Random;
 
 public class Number {
+  ////////////////////////////////////////////////////////////////////////////
+  // Exactness Helpers
+  // => Exact operations (on integers) are implemented explicitly, & inexact ones in terms
+  //    of the arguments' doubles
+  private static boolean isFixnum(Datum n) {
+    return n instanceof Type.Fixnum;
+  }
+
+  private static boolean isExact(Datum n) {
+    return ((Type.Number)n).isExact();
+  }
+
+  private static double doubleOf(Datum n) {
+    return ((Type.Number)n).doubleValue();
+  }
+
+  private static BigInteger bigIntegerOf(Datum n) {
+    return Type.Number.toBigInteger((Type.Number)n);
+  }
+
+
+
   ////////////////////////////////////////////////////////////////////////////
   // +
   public static class Plus implements Type.Primitive {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() == 0) throw new Exceptionf("'+ expects at least 1 arg: %s", Exceptionf.profileArgs(parameters));
-      double sum = 0.0;
+      Type.Number sum = Type.Number.valueOf(0);
       for(Datum p : parameters) {
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'+ invalid non-numeric arg %s recieved!", p.profile());
-        sum += ((Type.Number)p).value;
+        sum = Type.Number.add(sum,(Type.Number)p);
       }
-      return new Type.Number(sum);
+      return sum;
     }
   }
 
@@ -35,15 +59,15 @@ public class Number {
       if(!(firstparam instanceof Type.Number))
         throw new Exceptionf("'- invalid non-numeric arg %s recieved!", firstparam.profile());
       if(parameters.size() == 1) 
-        return new Type.Number(-((Type.Number)firstparam).value);
-      double diff = ((Type.Number)firstparam).value;
+        return Type.Number.negate((Type.Number)firstparam);
+      Type.Number diff = (Type.Number)firstparam;
       for(int i = 1, n = parameters.size(); i < n; ++i) {
         Datum p = parameters.get(i);
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'- invalid non-numeric arg %s recieved!", p.profile());
-        diff -= ((Type.Number)p).value;
+        diff = Type.Number.subtract(diff,(Type.Number)p);
       }
-      return new Type.Number(diff);
+      return diff;
     }
   }
 
@@ -53,13 +77,13 @@ public class Number {
   public static class Multiply implements Type.Primitive {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() == 0) throw new Exceptionf("'* expects at least 1 arg: %s", Exceptionf.profileArgs(parameters));
-      double product = 1.0;
+      Type.Number product = Type.Number.valueOf(1);
       for(Datum p : parameters) {
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'* invalid non-numeric arg %s recieved!", p.profile());
-        product *= ((Type.Number)p).value;
+        product = Type.Number.multiply(product,(Type.Number)p);
       }
-      return new Type.Number(product);
+      return product;
     }
   }
 
@@ -73,15 +97,15 @@ public class Number {
       if(!(firstparam instanceof Type.Number))
         throw new Exceptionf("'/ invalid non-numeric arg %s recieved!", firstparam.profile());
       if(parameters.size() == 1) 
-        return new Type.Number(1.0/((Type.Number)firstparam).value);
-      double div = ((Type.Number)firstparam).value;
+        return Type.Number.divide(Type.Number.valueOf(1),(Type.Number)firstparam);
+      Type.Number div = (Type.Number)firstparam;
       for(int i = 1, n = parameters.size(); i < n; ++i) {
         Datum p = parameters.get(i);
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'/ invalid non-numeric arg %s recieved!", p.profile());
-        div /= ((Type.Number)p).value;
+        div = Type.Number.divide(div,(Type.Number)p);
       }
-      return new Type.Number(div);
+      return div;
     }
   }
 
@@ -94,16 +118,16 @@ public class Number {
       Datum firstParam = parameters.get(0);
       if(!(firstParam instanceof Type.Number))
         throw new Exceptionf("'= invalid non-numeric arg %s recieved!", firstParam.profile());
-      double lastValue = ((Type.Number)firstParam).value;
+      Type.Number lastValue = (Type.Number)firstParam;
       for(int i = 1, n = parameters.size(); i < n; ++i) {
         Datum p = parameters.get(i);
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'= invalid non-numeric arg %s recieved!", p.profile());
-        double pValue = ((Type.Number)p).value;
-        if(lastValue != pValue) return new Type.Boolean(false);
+        Type.Number pValue = (Type.Number)p;
+        if(!Type.Number.isEqual(lastValue,pValue)) return Type.Boolean.FALSE;
         lastValue = pValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -116,16 +140,16 @@ public class Number {
       Datum firstParam = parameters.get(0);
       if(!(firstParam instanceof Type.Number))
         throw new Exceptionf("'< invalid non-numeric arg %s recieved!", firstParam.profile());
-      double lastValue = ((Type.Number)firstParam).value;
+      Type.Number lastValue = (Type.Number)firstParam;
       for(int i = 1, n = parameters.size(); i < n; ++i) {
         Datum p = parameters.get(i);
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'< invalid non-numeric arg %s recieved!", p.profile());
-        double pValue = ((Type.Number)p).value;
-        if(lastValue >= pValue) return new Type.Boolean(false);
+        Type.Number pValue = (Type.Number)p;
+        if(!Type.Number.isLessThan(lastValue,pValue)) return Type.Boolean.FALSE;
         lastValue = pValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -138,16 +162,16 @@ public class Number {
       Datum firstParam = parameters.get(0);
       if(!(firstParam instanceof Type.Number))
         throw new Exceptionf("'> invalid non-numeric arg %s recieved!", firstParam.profile());
-      double lastValue = ((Type.Number)firstParam).value;
+      Type.Number lastValue = (Type.Number)firstParam;
       for(int i = 1, n = parameters.size(); i < n; ++i) {
         Datum p = parameters.get(i);
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'> invalid non-numeric arg %s recieved!", p.profile());
-        double pValue = ((Type.Number)p).value;
-        if(lastValue <= pValue) return new Type.Boolean(false);
+        Type.Number pValue = (Type.Number)p;
+        if(!Type.Number.isGreaterThan(lastValue,pValue)) return Type.Boolean.FALSE;
         lastValue = pValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -160,16 +184,16 @@ public class Number {
       Datum firstParam = parameters.get(0);
       if(!(firstParam instanceof Type.Number))
         throw new Exceptionf("'<= invalid non-numeric arg %s recieved!", firstParam.profile());
-      double lastValue = ((Type.Number)firstParam).value;
+      Type.Number lastValue = (Type.Number)firstParam;
       for(int i = 1, n = parameters.size(); i < n; ++i) {
         Datum p = parameters.get(i);
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'<= invalid non-numeric arg %s recieved!", p.profile());
-        double pValue = ((Type.Number)p).value;
-        if(lastValue > pValue) return new Type.Boolean(false);
+        Type.Number pValue = (Type.Number)p;
+        if(!Type.Number.isLessThanOrEqual(lastValue,pValue)) return Type.Boolean.FALSE;
         lastValue = pValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -182,16 +206,16 @@ public class Number {
       Datum firstParam = parameters.get(0);
       if(!(firstParam instanceof Type.Number))
         throw new Exceptionf("'>= invalid non-numeric arg %s recieved!", firstParam.profile());
-      double lastValue = ((Type.Number)firstParam).value;
+      Type.Number lastValue = (Type.Number)firstParam;
       for(int i = 1, n = parameters.size(); i < n; ++i) {
         Datum p = parameters.get(i);
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'>= invalid non-numeric arg %s recieved!", p.profile());
-        double pValue = ((Type.Number)p).value;
-        if(lastValue < pValue) return new Type.Boolean(false);
+        Type.Number pValue = (Type.Number)p;
+        if(!Type.Number.isGreaterThanOrEqual(lastValue,pValue)) return Type.Boolean.FALSE;
         lastValue = pValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -199,19 +223,29 @@ public class Number {
   ////////////////////////////////////////////////////////////////////////////
   // expt
   public static class Expt implements Type.Primitive {
+    // => Exact bases raised to non-negative exact integer powers are exact
+    private static Type.Number expt(Datum base, Datum power) {
+      if(isExact(base) && isFixnum(power)) {
+        long powerValue = ((Type.Fixnum)power).value;
+        if(powerValue >= 0 && powerValue <= Integer.MAX_VALUE)
+          return Type.Number.valueOf(bigIntegerOf(base).pow((int)powerValue));
+      }
+      return new Type.Flonum(Math.pow(doubleOf(base),doubleOf(power)));
+    }
+
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() < 2) throw new Exceptionf("'expt expects at least 2 args: %s", Exceptionf.profileArgs(parameters));
       Datum firstparam = parameters.get(parameters.size()-1);
       if(!(firstparam instanceof Type.Number))
         throw new Exceptionf("'expt invalid non-numeric arg %s recieved!", firstparam.profile());
-      double powVal = ((Type.Number)firstparam).value;
+      Type.Number powVal = (Type.Number)firstparam;
       for(int i = parameters.size()-2; i >= 0; --i) {
         Datum p = parameters.get(i);
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'expt invalid non-numeric arg %s recieved!", p.profile());
-        powVal = Math.pow(((Type.Number)p).value,powVal);
+        powVal = expt(p,powVal);
       }
-      return new Type.Number(powVal);
+      return powVal;
     }
   }
 
@@ -224,7 +258,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'exp invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.exp(((Type.Number)n).value));
+      return new Type.Flonum(Math.exp(doubleOf(n)));
     }
   }
 
@@ -237,7 +271,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'log invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.log(((Type.Number)n).value));
+      return new Type.Flonum(Math.log(doubleOf(n)));
     }
   }
 
@@ -250,7 +284,11 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'sqrt invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.sqrt(((Type.Number)n).value));
+      if(isFixnum(n) && ((Type.Fixnum)n).value >= 0) { // exact perfect squares have exact roots
+        long root = (long)Math.sqrt(((Type.Fixnum)n).value);
+        if(root*root == ((Type.Fixnum)n).value) return Type.Number.valueOf(root);
+      }
+      return new Type.Flonum(Math.sqrt(doubleOf(n)));
     }
   }
 
@@ -263,7 +301,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'abs invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.abs(((Type.Number)n).value));
+      if(isExact(n)) return Type.Number.signum((Type.Number)n) < 0 ? Type.Number.negate((Type.Number)n) : n;
+      return new Type.Flonum(Math.abs(doubleOf(n)));
     }
   }
 
@@ -273,14 +312,17 @@ public class Number {
   public static class Min implements Type.Primitive {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() == 0) throw new Exceptionf("'min expects at least 1 arg: %s", Exceptionf.profileArgs(parameters));
-      double min = Double.POSITIVE_INFINITY;
+      Type.Number min = null;
+      boolean isInexact = false; // any inexact argument makes the result inexact
       for(Datum p : parameters) {
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'min invalid non-numeric arg %s recieved!", p.profile());
-        double pValue = ((Type.Number)p).value;
-        if(min > pValue) min = pValue;
+        Type.Number pValue = (Type.Number)p;
+        if(min == null || Type.Number.isLessThan(pValue,min)) min = pValue;
+        if(!pValue.isExact()) isInexact = true;
       }
-      return new Type.Number(min);
+      if(isInexact) return new Type.Flonum(min.doubleValue());
+      return min;
     }
   }
 
@@ -290,14 +332,17 @@ public class Number {
   public static class Max implements Type.Primitive {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() == 0) throw new Exceptionf("'max expects at least 1 arg: %s", Exceptionf.profileArgs(parameters));
-      double max = Double.NEGATIVE_INFINITY;
+      Type.Number max = null;
+      boolean isInexact = false; // any inexact argument makes the result inexact
       for(Datum p : parameters) {
         if(!(p instanceof Type.Number))
           throw new Exceptionf("'max invalid non-numeric arg %s recieved!", p.profile());
-        double pValue = ((Type.Number)p).value;
-        if(max < pValue) max = pValue;
+        Type.Number pValue = (Type.Number)p;
+        if(max == null || Type.Number.isGreaterThan(pValue,max)) max = pValue;
+        if(!pValue.isExact()) isInexact = true;
       }
-      return new Type.Number(max);
+      if(isInexact) return new Type.Flonum(max.doubleValue());
+      return max;
     }
   }
 
@@ -313,9 +358,14 @@ public class Number {
       Datum rhs = parameters.get(1);
       if(!(rhs instanceof Type.Number))
         throw new Exceptionf("'quotient invalid non-numeric 2nd arg %s recieved!", rhs.profile());
-      double quo = ((Type.Number)lhs).value/((Type.Number)rhs).value;
-      if(quo < 0) return new Type.Number(Math.ceil(quo));
-      return new Type.Number(Math.floor(quo));
+      if(isExact(lhs) && isExact(rhs) && !Type.Number.isZero((Type.Number)rhs)) {
+        if(isFixnum(lhs) && isFixnum(rhs) && ((Type.Fixnum)rhs).value != -1) // -1 may overflow
+          return Type.Number.valueOf(((Type.Fixnum)lhs).value/((Type.Fixnum)rhs).value);
+        return Type.Number.valueOf(bigIntegerOf(lhs).divide(bigIntegerOf(rhs)));
+      }
+      double quo = doubleOf(lhs)/doubleOf(rhs);
+      if(quo < 0) return new Type.Flonum(Math.ceil(quo));
+      return new Type.Flonum(Math.floor(quo));
     }
   }
 
@@ -331,11 +381,16 @@ public class Number {
       Datum rhs = parameters.get(1);
       if(!(rhs instanceof Type.Number))
         throw new Exceptionf("'remainder invalid non-numeric 2nd arg %s recieved!", rhs.profile());
-      double lhsValue = ((Type.Number)lhs).value;
-      double rhsValue = ((Type.Number)rhs).value;
+      if(isExact(lhs) && isExact(rhs) && !Type.Number.isZero((Type.Number)rhs)) {
+        if(isFixnum(lhs) && isFixnum(rhs))
+          return Type.Number.valueOf(((Type.Fixnum)lhs).value%((Type.Fixnum)rhs).value);
+        return Type.Number.valueOf(bigIntegerOf(lhs).remainder(bigIntegerOf(rhs)));
+      }
+      double lhsValue = doubleOf(lhs);
+      double rhsValue = doubleOf(rhs);
       double quo = lhsValue/rhsValue;
-      if(quo < 0) return new Type.Number(lhsValue - Math.ceil(quo) * rhsValue);
-      return new Type.Number(lhsValue - Math.floor(quo) * rhsValue);
+      if(quo < 0) return new Type.Flonum(lhsValue - Math.ceil(quo) * rhsValue);
+      return new Type.Flonum(lhsValue - Math.floor(quo) * rhsValue);
     }
   }
 
@@ -348,7 +403,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'round invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.round(((Type.Number)n).value));
+      if(isExact(n)) return n;
+      return new Type.Flonum(Math.round(doubleOf(n)));
     }
   }
 
@@ -361,7 +417,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'floor invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.floor(((Type.Number)n).value));
+      if(isExact(n)) return n;
+      return new Type.Flonum(Math.floor(doubleOf(n)));
     }
   }
 
@@ -374,7 +431,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'ceiling invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.ceil(((Type.Number)n).value));
+      if(isExact(n)) return n;
+      return new Type.Flonum(Math.ceil(doubleOf(n)));
     }
   }
 
@@ -387,9 +445,10 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'truncate invalid non-numeric arg %s recieved!", n.profile());
-      double nValue = ((Type.Number)n).value;
-      if(nValue < 0) return new Type.Number(Math.ceil(nValue));
-      return new Type.Number(Math.floor(nValue));
+      if(isExact(n)) return n;
+      double nValue = doubleOf(n);
+      if(nValue < 0) return new Type.Flonum(Math.ceil(nValue));
+      return new Type.Flonum(Math.floor(nValue));
     }
   }
 
@@ -399,7 +458,7 @@ public class Number {
   public static class IsNumber implements Type.Primitive {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) throw new Exceptionf("'number? expects exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(parameters.get(0) instanceof Type.Number);
+      return Type.Boolean.valueOf(parameters.get(0) instanceof Type.Number);
     }
   }
 
@@ -412,7 +471,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'integer? invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Boolean(Math.abs(((Type.Number)n).value) % 1 == 0.0);
+      return Type.Boolean.valueOf(isExact(n) || Math.abs(doubleOf(n)) % 1 == 0.0);
     }
   }
 
@@ -425,8 +484,9 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'finite? invalid non-numeric arg %s recieved!", n.profile());
-      double nValue = ((Type.Number)n).value;
-      return new Type.Boolean(nValue != Double.POSITIVE_INFINITY && 
+      if(isExact(n)) return Type.Boolean.TRUE;
+      double nValue = doubleOf(n);
+      return Type.Boolean.valueOf(nValue != Double.POSITIVE_INFINITY && 
                               nValue != Double.NEGATIVE_INFINITY && 
                               nValue == nValue); // x == x checks against x being NaN
     }
@@ -441,8 +501,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'infinite? invalid non-numeric arg %s recieved!", n.profile());
-      double nValue = ((Type.Number)n).value;
-      return new Type.Boolean(nValue == Double.POSITIVE_INFINITY || nValue == Double.NEGATIVE_INFINITY);
+      double nValue = doubleOf(n);
+      return Type.Boolean.valueOf(nValue == Double.POSITIVE_INFINITY || nValue == Double.NEGATIVE_INFINITY);
     }
   }
 
@@ -455,8 +515,66 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'nan? invalid non-numeric arg %s recieved!", n.profile());
-      double nValue = ((Type.Number)n).value;
-      return new Type.Boolean(nValue != nValue); // x != x is ONLY true if x is NaN
+      double nValue = doubleOf(n);
+      return Type.Boolean.valueOf(nValue != nValue); // x != x is ONLY true if x is NaN
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // exact?
+  public static class IsExact implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1) throw new Exceptionf("'exact? expects exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
+      Datum n = parameters.get(0);
+      if(!(n instanceof Type.Number))
+        throw new Exceptionf("'exact? invalid non-numeric arg %s recieved!", n.profile());
+      return Type.Boolean.valueOf(isExact(n));
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // inexact?
+  public static class IsInexact implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1) throw new Exceptionf("'inexact? expects exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
+      Datum n = parameters.get(0);
+      if(!(n instanceof Type.Number))
+        throw new Exceptionf("'inexact? invalid non-numeric arg %s recieved!", n.profile());
+      return Type.Boolean.valueOf(!isExact(n));
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // exact->inexact
+  public static class ExactToInexact implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1) throw new Exceptionf("'exact->inexact expects exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
+      Datum n = parameters.get(0);
+      if(!(n instanceof Type.Number))
+        throw new Exceptionf("'exact->inexact invalid non-numeric arg %s recieved!", n.profile());
+      if(!isExact(n)) return n;
+      return new Type.Flonum(doubleOf(n));
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // inexact->exact
+  // => Only integral numbers have an exact counterpart (there are no exact rationals)
+  public static class InexactToExact implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1) throw new Exceptionf("'inexact->exact expects exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
+      Datum n = parameters.get(0);
+      if(!(n instanceof Type.Number))
+        throw new Exceptionf("'inexact->exact invalid non-numeric arg %s recieved!", n.profile());
+      if(isExact(n)) return n;
+      double nValue = doubleOf(n);
+      if(Double.isInfinite(nValue) || nValue != nValue || nValue % 1 != 0.0)
+        throw new Exceptionf("'inexact->exact non-integral arg %s has no exact counterpart!", n.profile());
+      return Type.Number.valueOf(new BigDecimal(nValue).toBigIntegerExact());
     }
   }
 
@@ -469,7 +587,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'odd? invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Boolean(Math.abs(((Type.Number)n).value) % 2.0 == 1.0);
+      if(isExact(n)) return Type.Boolean.valueOf(bigIntegerOf(n).testBit(0));
+      return Type.Boolean.valueOf(Math.abs(doubleOf(n)) % 2.0 == 1.0);
     }
   }
 
@@ -482,7 +601,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'even? invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Boolean(Math.abs(((Type.Number)n).value) % 2.0 == 0.0);
+      if(isExact(n)) return Type.Boolean.valueOf(!bigIntegerOf(n).testBit(0));
+      return Type.Boolean.valueOf(Math.abs(doubleOf(n)) % 2.0 == 0.0);
     }
   }
 
@@ -495,7 +615,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'positive? invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Boolean(((Type.Number)n).value > 0.0);
+      if(isExact(n)) return Type.Boolean.valueOf(Type.Number.signum((Type.Number)n) > 0);
+      return Type.Boolean.valueOf(doubleOf(n) > 0.0);
     }
   }
 
@@ -508,7 +629,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'negative? invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Boolean(((Type.Number)n).value < 0.0);
+      if(isExact(n)) return Type.Boolean.valueOf(Type.Number.signum((Type.Number)n) < 0);
+      return Type.Boolean.valueOf(doubleOf(n) < 0.0);
     }
   }
 
@@ -521,7 +643,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'zero? invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Boolean(((Type.Number)n).value == 0.0);
+      return Type.Boolean.valueOf(Type.Number.isZero((Type.Number)n));
     }
   }
 
@@ -534,7 +656,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'sin invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.sin(((Type.Number)n).value));
+      return new Type.Flonum(Math.sin(doubleOf(n)));
     }
   }
 
@@ -547,7 +669,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'cos invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.cos(((Type.Number)n).value));
+      return new Type.Flonum(Math.cos(doubleOf(n)));
     }
   }
 
@@ -560,7 +682,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'tan invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.tan(((Type.Number)n).value));
+      return new Type.Flonum(Math.tan(doubleOf(n)));
     }
   }
 
@@ -573,7 +695,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'asin invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.asin(((Type.Number)n).value));
+      return new Type.Flonum(Math.asin(doubleOf(n)));
     }
   }
 
@@ -586,7 +708,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'acos invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.acos(((Type.Number)n).value));
+      return new Type.Flonum(Math.acos(doubleOf(n)));
     }
   }
 
@@ -600,11 +722,11 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'atan invalid non-numeric arg %s recieved!", n.profile());
-      if(parameters.size() == 1) return new Type.Number(Math.atan(((Type.Number)n).value));
+      if(parameters.size() == 1) return new Type.Flonum(Math.atan(doubleOf(n)));
       Datum n2 = parameters.get(1);
       if(!(n2 instanceof Type.Number))
         throw new Exceptionf("'atan invalid non-numeric 2nd arg %s recieved!", n2.profile());
-      return new Type.Number(Math.atan2(((Type.Number)n).value,((Type.Number)n2).value));
+      return new Type.Flonum(Math.atan2(doubleOf(n),doubleOf(n2)));
     }
   }
 
@@ -617,7 +739,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'sinh invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.sinh(((Type.Number)n).value));
+      return new Type.Flonum(Math.sinh(doubleOf(n)));
     }
   }
 
@@ -630,7 +752,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'cosh invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.cosh(((Type.Number)n).value));
+      return new Type.Flonum(Math.cosh(doubleOf(n)));
     }
   }
 
@@ -643,7 +765,7 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'tanh invalid non-numeric arg %s recieved!", n.profile());
-      return new Type.Number(Math.tanh(((Type.Number)n).value));
+      return new Type.Flonum(Math.tanh(doubleOf(n)));
     }
   }
 
@@ -656,8 +778,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'asinh invalid non-numeric arg %s recieved!", n.profile());
-      double nValue = ((Type.Number)n).value;
-      return new Type.Number(Math.log(nValue + Math.sqrt(Math.pow(nValue,2) + 1)));
+      double nValue = doubleOf(n);
+      return new Type.Flonum(Math.log(nValue + Math.sqrt(Math.pow(nValue,2) + 1)));
     }
   }
 
@@ -670,8 +792,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'acosh invalid non-numeric arg %s recieved!", n.profile());
-      double nValue = ((Type.Number)n).value;
-      return new Type.Number(Math.log(nValue + Math.sqrt(Math.pow(nValue,2) - 1)));
+      double nValue = doubleOf(n);
+      return new Type.Flonum(Math.log(nValue + Math.sqrt(Math.pow(nValue,2) - 1)));
     }
   }
 
@@ -684,8 +806,8 @@ public class Number {
       Datum n = parameters.get(0);
       if(!(n instanceof Type.Number))
         throw new Exceptionf("'atanh invalid non-numeric arg %s recieved!", n.profile());
-      double nValue = ((Type.Number)n).value;
-      return new Type.Number(0.5 * Math.log((1 + nValue) / (1 - nValue)));
+      double nValue = doubleOf(n);
+      return new Type.Flonum(0.5 * Math.log((1 + nValue) / (1 - nValue)));
     }
   }
 
@@ -695,7 +817,7 @@ public class Number {
   public static class Random implements Type.Primitive {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 0) throw new Exceptionf("'random doesn't accept any args: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Number(Util.Runtime.prng.nextDouble());
+      return new Type.Flonum(Util.Runtime.prng.nextDouble());
     }
   }
 }
\ No newline at end of file
@@ -105,8 +105,8 @@ public class Pair {
         throw new Exceptionf("'set-car! didn't receive exactly 2 args: %s", Exceptionf.profileArgs(parameters));
       if(!(parameters.get(0) instanceof Type.Pair)) 
         throw new Exceptionf("'set-car! 1st arg %s isn't a pair!", parameters.get(0).profile());
-      ((Type.Pair)parameters.get(0)).car = parameters.get(1);
-      return new Type.Void();
+      ((Type.Pair)parameters.get(0)).setCar(parameters.get(1));
+      return Type.Void.VALUE;
     }
   }
 
@@ -119,8 +119,8 @@ public class Pair {
         throw new Exceptionf("'set-cdr! didn't receive exactly 2 args: %s", Exceptionf.profileArgs(parameters));
       if(!(parameters.get(0) instanceof Type.Pair)) 
         throw new Exceptionf("'set-cdr! 1st arg %s isn't a pair!", parameters.get(0).profile());
-      ((Type.Pair)parameters.get(0)).cdr = parameters.get(1);
-      return new Type.Void();
+      ((Type.Pair)parameters.get(0)).setCdr(parameters.get(1));
+      return Type.Void.VALUE;
     }
   }
 
@@ -130,7 +130,7 @@ public class Pair {
   public static class IsPair implements Type.Primitive {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) throw new Exceptionf("'pair? didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(parameters.get(0) instanceof Type.Pair);
+      return Type.Boolean.valueOf(parameters.get(0) instanceof Type.Pair);
     }
   }
 
@@ -140,7 +140,7 @@ public class Pair {
   public static class IsAtom implements Type.Primitive {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) throw new Exceptionf("'atom? didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(!(parameters.get(0) instanceof Type.Pair));
+      return Type.Boolean.valueOf(!(parameters.get(0) instanceof Type.Pair));
     }
   }
 }
\ No newline at end of file
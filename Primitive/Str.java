@@ -16,7 +16,7 @@ public class Str {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1 || !(parameters.get(0) instanceof Type.String)) 
         throw new Exceptionf("'string-length didn't receive exactly 1 string: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Number(((Type.String)parameters.get(0)).value.length());
+      return Type.Number.valueOf(((Type.String)parameters.get(0)).value.length());
     }
   }
 
@@ -27,7 +27,7 @@ public class Str {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1 || !(parameters.get(0) instanceof Type.String)) 
         throw new Exceptionf("'string-empty? didn't receive exactly 1 string: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(((Type.String)parameters.get(0)).value.length() == 0);
+      return Type.Boolean.valueOf(((Type.String)parameters.get(0)).value.length() == 0);
     }
   }
 
@@ -74,7 +74,7 @@ public class Str {
         throw new Exceptionf("'string-ref 1st arg %s isn't a string!", str.profile());
       if(!List.isValidSize(index))
         throw new Exceptionf("'string-ref 2nd arg %s isn't a non-negative integer!", index.profile());
-      double indexValue = ((Type.Number)index).value;
+      double indexValue = ((Type.Number)index).doubleValue();
       String strValue = ((Type.String)str).value;
       if(indexValue >= strValue.length())
         throw new Exceptionf("'string-ref index %f exceeds length of string %s", indexValue, str.write());
@@ -91,7 +91,7 @@ public class Str {
       Datum endIndex = parameters.get(2);
       if(!List.isValidSize(endIndex)) 
         throw new Exceptionf("'substring 3rd arg %s isn't a non-negative integer!", endIndex.profile());
-      return ((Type.Number)endIndex).value;
+      return ((Type.Number)endIndex).doubleValue();
     }
 
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
@@ -104,7 +104,7 @@ public class Str {
         throw new Exceptionf("'substring 1st arg %s isn't a string!", str.profile());
       if(!List.isValidSize(startIndex)) 
         throw new Exceptionf("'substring 2nd %s arg isn't a non-negative integer!", startIndex.profile());
-      double startIndexValue = ((Type.Number)startIndex).value;
+      double startIndexValue = ((Type.Number)startIndex).doubleValue();
       String strValue = ((Type.String)str).value;
       if(startIndexValue >= strValue.length() || substringLength == 0) 
         return new Type.String("");
@@ -169,9 +169,9 @@ public class Str {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 2 || !(parameters.get(0) instanceof Type.String) || !(parameters.get(1) instanceof Type.String)) 
         throw new Exceptionf("'string-contains didn't receive exactly 2 strings: %s", Exceptionf.profileArgs(parameters));
-      double result = (double)((Type.String)parameters.get(0)).value.indexOf(((Type.String)parameters.get(1)).value);
-      if(result < 0) return new Type.Boolean(false);
-      return new Type.Number(result);
+      int result = ((Type.String)parameters.get(0)).value.indexOf(((Type.String)parameters.get(1)).value);
+      if(result < 0) return Type.Boolean.FALSE;
+      return Type.Number.valueOf(result);
     }
   }
 
@@ -182,9 +182,9 @@ public class Str {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 2 || !(parameters.get(0) instanceof Type.String) || !(parameters.get(1) instanceof Type.String)) 
         throw new Exceptionf("'string-contains-right didn't receive exactly 2 strings: %s", Exceptionf.profileArgs(parameters));
-      double result = (double)((Type.String)parameters.get(0)).value.lastIndexOf(((Type.String)parameters.get(1)).value);
-      if(result < 0) return new Type.Boolean(false);
-      return new Type.Number(result);
+      int result = ((Type.String)parameters.get(0)).value.lastIndexOf(((Type.String)parameters.get(1)).value);
+      if(result < 0) return Type.Boolean.FALSE;
+      return Type.Number.valueOf(result);
     }
   }
 
@@ -237,7 +237,7 @@ public class Str {
       if((parameters.size() != 1 && parameters.size() != 2) || !(parameters.get(0) instanceof Type.String))
         throw new Exceptionf("'string-split didn't receive exactly 1 or 2 strings: %s", Exceptionf.profileArgs(parameters));
       String[] strArray = ((Type.String)parameters.get(0)).value.split(getSplitterString(parameters));
-      Datum strList = new Type.Nil();
+      Datum strList = Type.Nil.VALUE;
       for(int i = strArray.length-1; i >= 0; --i)
         strList = new Type.Pair(new Type.String(strArray[i]),strList);
       return strList;
@@ -260,10 +260,10 @@ public class Str {
         if(!(str instanceof Type.String))
           throw new Exceptionf("'string=? invalid non-string arg %s recieved!", str.profile());
         String strValue = ((Type.String)str).value;
-        if(lastValue.compareTo(strValue) != 0) return new Type.Boolean(false);
+        if(lastValue.compareTo(strValue) != 0) return Type.Boolean.FALSE;
         lastValue = strValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -283,10 +283,10 @@ public class Str {
         if(!(str instanceof Type.String))
           throw new Exceptionf("'string<? invalid non-string arg %s recieved!", str.profile());
         String strValue = ((Type.String)str).value;
-        if(lastValue.compareTo(strValue) >= 0) return new Type.Boolean(false);
+        if(lastValue.compareTo(strValue) >= 0) return Type.Boolean.FALSE;
         lastValue = strValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -306,10 +306,10 @@ public class Str {
         if(!(str instanceof Type.String))
           throw new Exceptionf("'string>? invalid non-string arg %s recieved!", str.profile());
         String strValue = ((Type.String)str).value;
-        if(lastValue.compareTo(strValue) <= 0) return new Type.Boolean(false);
+        if(lastValue.compareTo(strValue) <= 0) return Type.Boolean.FALSE;
         lastValue = strValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -329,10 +329,10 @@ public class Str {
         if(!(str instanceof Type.String))
           throw new Exceptionf("'string<=? invalid non-string arg %s recieved!", str.profile());
         String strValue = ((Type.String)str).value;
-        if(lastValue.compareTo(strValue) > 0) return new Type.Boolean(false);
+        if(lastValue.compareTo(strValue) > 0) return Type.Boolean.FALSE;
         lastValue = strValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -352,10 +352,10 @@ public class Str {
         if(!(str instanceof Type.String))
           throw new Exceptionf("'string>=? invalid non-string arg %s recieved!", str.profile());
         String strValue = ((Type.String)str).value;
-        if(lastValue.compareTo(strValue) < 0) return new Type.Boolean(false);
+        if(lastValue.compareTo(strValue) < 0) return Type.Boolean.FALSE;
         lastValue = strValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -375,10 +375,10 @@ public class Str {
         if(!(str instanceof Type.String))
           throw new Exceptionf("'string-ci=? invalid non-string arg %s recieved!", str.profile());
         String strValue = ((Type.String)str).value;
-        if(lastValue.compareToIgnoreCase(strValue) != 0) return new Type.Boolean(false);
+        if(lastValue.compareToIgnoreCase(strValue) != 0) return Type.Boolean.FALSE;
         lastValue = strValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -398,10 +398,10 @@ public class Str {
         if(!(str instanceof Type.String))
           throw new Exceptionf("'string-ci<? invalid non-string arg %s recieved!", str.profile());
         String strValue = ((Type.String)str).value;
-        if(lastValue.compareToIgnoreCase(strValue) >= 0) return new Type.Boolean(false);
+        if(lastValue.compareToIgnoreCase(strValue) >= 0) return Type.Boolean.FALSE;
         lastValue = strValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -421,10 +421,10 @@ public class Str {
         if(!(str instanceof Type.String))
           throw new Exceptionf("'string-ci>? invalid non-string arg %s recieved!", str.profile());
         String strValue = ((Type.String)str).value;
-        if(lastValue.compareToIgnoreCase(strValue) <= 0) return new Type.Boolean(false);
+        if(lastValue.compareToIgnoreCase(strValue) <= 0) return Type.Boolean.FALSE;
         lastValue = strValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -444,10 +444,10 @@ public class Str {
         if(!(str instanceof Type.String))
           throw new Exceptionf("'string-ci<=? invalid non-string arg %s recieved!", str.profile());
         String strValue = ((Type.String)str).value;
-        if(lastValue.compareToIgnoreCase(strValue) > 0) return new Type.Boolean(false);
+        if(lastValue.compareToIgnoreCase(strValue) > 0) return Type.Boolean.FALSE;
         lastValue = strValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -467,10 +467,10 @@ public class Str {
         if(!(str instanceof Type.String))
           throw new Exceptionf("'string-ci>=? invalid non-string arg %s recieved!", str.profile());
         String strValue = ((Type.String)str).value;
-        if(lastValue.compareToIgnoreCase(strValue) < 0) return new Type.Boolean(false);
+        if(lastValue.compareToIgnoreCase(strValue) < 0) return Type.Boolean.FALSE;
         lastValue = strValue;
       }
-      return new Type.Boolean(true);
+      return Type.Boolean.TRUE;
     }
   }
 
@@ -481,7 +481,7 @@ public class Str {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) 
         throw new Exceptionf("'string? didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(parameters.get(0) instanceof Type.String);
+      return Type.Boolean.valueOf(parameters.get(0) instanceof Type.String);
     }
   }
 }
\ No newline at end of file
@@ -21,7 +21,7 @@ public class Symbol {
           throw new Exceptionf("'symbol-append received a non-symbol object %s!", p.profile());
         sb.append(((Type.Symbol)p).value);
       }
-      return new Type.Symbol(sb.toString());
+      return Type.Symbol.intern(sb.toString());
     }
   }
 
@@ -32,7 +32,7 @@ public class Symbol {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) 
         throw new Exceptionf("'symbol? didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(parameters.get(0) instanceof Type.Symbol);
+      return Type.Boolean.valueOf(parameters.get(0) instanceof Type.Symbol);
     }
   }
 }
\ No newline at end of file
@@ -18,7 +18,7 @@ public class Sys {
 
   ////////////////////////////////////////////////////////////////////////////
   // static field to hold command-line args
-  public static Datum argv = new Type.Nil();
+  public static Datum argv = Type.Nil.VALUE;
 
 
   ////////////////////////////////////////////////////////////////////////////
@@ -32,7 +32,7 @@ public class Sys {
         System.out.println(EXIT_MESSAGE);
       }
       System.exit(0);
-      return new Type.Void(); // never triggered
+      return Type.Void.VALUE; // never triggered
     }
   }
 
@@ -42,10 +42,10 @@ public class Sys {
   public static class FileRead implements Type.Primitive {
     private static Datum convertReadExpressionsToReadExpression(ArrayList<Datum> contents) {
       if(contents.size() == 1) return contents.get(0);
-      Datum expression = new Type.Nil();
+      Datum expression = Type.Nil.VALUE;
       for(int i = contents.size()-1; i >= 0; --i)
         expression = new Type.Pair(contents.get(i),expression);
-      return new Type.Pair(new Type.Symbol("begin"),expression);
+      return new Type.Pair(Type.Symbol.intern("begin"),expression);
     }
 
     public static String slurpFile(String filename, String callerName) throws Exception {
@@ -56,10 +56,11 @@ public class Sys {
       }
     }
 
-    public static Datum readBuffer(String buffer) throws Exception {
+    // Returns each expression in <buffer> (empty if <buffer> has none)
+    public static ArrayList<Datum> readBufferExpressions(String buffer) throws Exception {
       buffer = buffer.trim();
-      if(buffer.length() == 0) return new Type.Void();
       ArrayList<Datum> contents = new ArrayList<Datum>();
+      if(buffer.length() == 0) return contents;
       Integer n = buffer.length();
       Util.Pair<Datum,Integer> result = Util.Reader.read(buffer);
       contents.add(result.first);
@@ -70,6 +71,12 @@ public class Sys {
         contents.add(result.first);
         buffer = buffer.substring(result.second).trim();
       }
+      return contents;
+    }
+
+    public static Datum readBuffer(String buffer) throws Exception {
+      ArrayList<Datum> contents = readBufferExpressions(buffer);
+      if(contents.size() == 0) return Type.Void.VALUE;
       return convertReadExpressionsToReadExpression(contents);
     }
 
@@ -107,7 +114,7 @@ public class Sys {
       if(parameters.size() != 2 || !(parameters.get(0) instanceof Type.String)) 
         throw new Exceptionf("'file-write didn't receive exactly 2 args (filename string & datum): %s", Exceptionf.profileArgs(parameters));
       writeStringToFile(((Type.String)parameters.get(0)).value,parameters.get(1).write(),"file-write");
-      return new Type.Void();
+      return Type.Void.VALUE;
     }
   }
 
@@ -119,7 +126,7 @@ public class Sys {
       if(parameters.size() != 2 || !(parameters.get(0) instanceof Type.String)) 
         throw new Exceptionf("'file-display didn't receive exactly 2 args (filename string & datum): %s", Exceptionf.profileArgs(parameters));
       FileWrite.writeStringToFile(((Type.String)parameters.get(0)).value,parameters.get(1).display(),"file-display");
-      return new Type.Void();
+      return Type.Void.VALUE;
     }
   }
 
@@ -130,7 +137,7 @@ public class Sys {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1 || !(parameters.get(0) instanceof Type.String)) 
         throw new Exceptionf("'file-delete! didn't receive exactly 1 filename-string: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(Files.deleteIfExists(Path.of(((Type.String)parameters.get(0)).value)));
+      return Type.Boolean.valueOf(Files.deleteIfExists(Path.of(((Type.String)parameters.get(0)).value)));
     }
   }
 
@@ -141,7 +148,7 @@ public class Sys {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1 || !(parameters.get(0) instanceof Type.String)) 
         throw new Exceptionf("'file? didn't receive exactly 1 string: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(Files.exists(Path.of(((Type.String)parameters.get(0)).value)));
+      return Type.Boolean.valueOf(Files.exists(Path.of(((Type.String)parameters.get(0)).value)));
     }
   }
 
@@ -149,8 +156,12 @@ public class Sys {
   ////////////////////////////////////////////////////////////////////////////
   // load
   public static class Load implements Type.Primitive {
+    // Expands (see "Util.Expander.expandTopLevel") then evaluates each top-level expression in turn
     public static Datum loadFileInEnvironment(Environment env, String filename) throws Exception {
-      return Util.Core.eval(env,FileRead.readBuffer(FileRead.slurpFile(filename,"load")));
+      Datum result = Type.Void.VALUE;
+      for(Datum expression : FileRead.readBufferExpressions(FileRead.slurpFile(filename,"load")))
+        result = Util.Core.eval(env,Util.Expander.expandTopLevel(expression,env));
+      return result;
     }
 
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
@@ -15,11 +15,9 @@ public class TypeCoercion {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1 || !(parameters.get(0) instanceof Type.String)) 
         throw new Exceptionf("'string->number expects exactly 1 string arg: %s", Exceptionf.profileArgs(parameters));
-      try {
-        return new Type.Number(Double.parseDouble(((Type.String)parameters.get(0)).value));
-      } catch(Exception e) {
-        return new Type.Boolean(false);
-      }
+      Type.Number number = Type.Number.parse(((Type.String)parameters.get(0)).value);
+      if(number == null) return Type.Boolean.FALSE;
+      return number;
     }
   }
 
@@ -30,7 +28,7 @@ public class TypeCoercion {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1 || !(parameters.get(0) instanceof Type.Number)) 
         throw new Exceptionf("'number->string expects exactly 1 number arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.String(String.valueOf(((Type.Number)parameters.get(0)).value));
+      return new Type.String(parameters.get(0).display());
     }
   }
 
@@ -15,7 +15,7 @@ public class TypePredicate {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) 
         throw new Exceptionf("'typeof expects exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Symbol(parameters.get(0).type());
+      return Type.Symbol.intern(parameters.get(0).type());
     }
   }
 
@@ -26,7 +26,7 @@ public class TypePredicate {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) 
         throw new Exceptionf("'void? expects exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(parameters.get(0) instanceof Type.Void);
+      return Type.Boolean.valueOf(parameters.get(0) instanceof Type.Void);
     }
   }
 
@@ -37,7 +37,7 @@ public class TypePredicate {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) 
         throw new Exceptionf("'boolean? expects exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(parameters.get(0) instanceof Type.Boolean);
+      return Type.Boolean.valueOf(parameters.get(0) instanceof Type.Boolean);
     }
   }
 }
\ No newline at end of file
@@ -15,7 +15,7 @@ public class Utility {
     public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
       if(parameters.size() != 1) 
         throw new Exceptionf("'not didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
-      return new Type.Boolean(!parameters.get(0).isTruthy());
+      return Type.Boolean.valueOf(!parameters.get(0).isTruthy());
     }
   }
 
@@ -65,6 +65,17 @@ public class Utility {
   }
 
 
+  ////////////////////////////////////////////////////////////////////////////
+  // expand
+  public static class Expand implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1) 
+        throw new Exceptionf("'expand didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
+      return Util.Expander.expand(parameters.get(0),currentEnv);
+    }
+  }
+
+
   ////////////////////////////////////////////////////////////////////////////
   // copy
   public static class Copy implements Type.Primitive {
@@ -0,0 +1,230 @@
+// Author: Jordan Randleman - Primitive.Vector
+// Purpose:
+//    Java primitives for vector procedures.
+
+package Primitive;
+import Type.Datum;
+import Type.Environment;
+import Util.Exceptionf;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class Vector {
+  ////////////////////////////////////////////////////////////////////////////
+  // Index Validation Helper
+  // => Returns <-1> if <d> isn't a valid index into a vector of length <length>
+  public static int getIndex(Datum d, int length) throws Exception {
+    if(!List.isValidSize(d)) return -1;
+    double value = ((Type.Number)d).doubleValue();
+    if(value >= length) return -1;
+    return (int)value;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // vector
+  public static class ConstructVector implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      return new Type.Vector(parameters.toArray(new Datum[parameters.size()]));
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // make-vector
+  public static class MakeVector implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1 && parameters.size() != 2)
+        throw new Exceptionf("'make-vector didn't receive 1 or 2 args (length & optional fill): %s", Exceptionf.profileArgs(parameters));
+      Datum length = parameters.get(0);
+      if(!List.isValidSize(length) || ((Type.Number)length).doubleValue() > Integer.MAX_VALUE)
+        throw new Exceptionf("'make-vector 1st arg %s isn't a non-negative integer!", length.profile());
+      Datum[] items = new Datum[(int)((Type.Number)length).doubleValue()];
+      Arrays.fill(items,parameters.size() == 2 ? parameters.get(1) : Type.Number.valueOf(0));
+      return new Type.Vector(items);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // vector-length
+  public static class VectorLength implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1 || !(parameters.get(0) instanceof Type.Vector))
+        throw new Exceptionf("'vector-length didn't receive exactly 1 vector: %s", Exceptionf.profileArgs(parameters));
+      return Type.Number.valueOf(((Type.Vector)parameters.get(0)).value.length);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // vector-ref
+  public static class VectorRef implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 2)
+        throw new Exceptionf("'vector-ref didn't receive exactly 2 args (vector & index): %s", Exceptionf.profileArgs(parameters));
+      Datum vector = parameters.get(0);
+      Datum index = parameters.get(1);
+      if(!(vector instanceof Type.Vector))
+        throw new Exceptionf("'vector-ref 1st arg %s isn't a vector!", vector.profile());
+      Datum[] items = ((Type.Vector)vector).value;
+      int indexValue = getIndex(index,items.length);
+      if(indexValue == -1)
+        throw new Exceptionf("'vector-ref 2nd arg %s isn't a valid index into %s", index.profile(), vector.write());
+      return items[indexValue];
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // vector-set!
+  public static class VectorSetBang implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 3)
+        throw new Exceptionf("'vector-set! didn't receive exactly 3 args (vector, index, & value): %s", Exceptionf.profileArgs(parameters));
+      Datum vector = parameters.get(0);
+      Datum index = parameters.get(1);
+      if(!(vector instanceof Type.Vector))
+        throw new Exceptionf("'vector-set! 1st arg %s isn't a vector!", vector.profile());
+      Datum[] items = ((Type.Vector)vector).value;
+      int indexValue = getIndex(index,items.length);
+      if(indexValue == -1)
+        throw new Exceptionf("'vector-set! 2nd arg %s isn't a valid index into %s", index.profile(), vector.write());
+      ((Type.Vector)vector).set(indexValue,parameters.get(2));
+      return Type.Void.VALUE;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // vector-fill!
+  public static class VectorFillBang implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 2 || !(parameters.get(0) instanceof Type.Vector))
+        throw new Exceptionf("'vector-fill! didn't receive exactly 2 args (vector & value): %s", Exceptionf.profileArgs(parameters));
+      ((Type.Vector)parameters.get(0)).fill(parameters.get(1));
+      return Type.Void.VALUE;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // vector-copy
+  public static class VectorCopy implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      int totalParameters = parameters.size();
+      if(totalParameters < 1 || totalParameters > 3)
+        throw new Exceptionf("'vector-copy didn't receive 1-3 args (vector, optional start, & optional end): %s", Exceptionf.profileArgs(parameters));
+      Datum vector = parameters.get(0);
+      if(!(vector instanceof Type.Vector))
+        throw new Exceptionf("'vector-copy 1st arg %s isn't a vector!", vector.profile());
+      Datum[] items = ((Type.Vector)vector).value;
+      int start = 0, end = items.length;
+      if(totalParameters > 1) {
+        start = getIndex(parameters.get(1),items.length+1);
+        if(start == -1)
+          throw new Exceptionf("'vector-copy 2nd arg %s isn't a valid start index into %s", parameters.get(1).profile(), vector.write());
+      }
+      if(totalParameters > 2) {
+        end = getIndex(parameters.get(2),items.length+1);
+        if(end < start)
+          throw new Exceptionf("'vector-copy 3rd arg %s isn't a valid end index into %s", parameters.get(2).profile(), vector.write());
+      }
+      return new Type.Vector(Arrays.copyOfRange(items,start,end));
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // vector->list
+  public static class VectorToList implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1 || !(parameters.get(0) instanceof Type.Vector))
+        throw new Exceptionf("'vector->list didn't receive exactly 1 vector: %s", Exceptionf.profileArgs(parameters));
+      Datum[] items = ((Type.Vector)parameters.get(0)).value;
+      Datum lis = Type.Nil.VALUE;
+      for(int i = items.length-1; i >= 0; --i)
+        lis = new Type.Pair(items[i],lis);
+      return lis;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // list->vector
+  public static class ListToVector implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1 || !Type.Pair.isList(parameters.get(0)))
+        throw new Exceptionf("'list->vector didn't receive exactly 1 list: %s", Exceptionf.profileArgs(parameters));
+      ArrayList<Datum> items = new ArrayList<Datum>();
+      for(Datum iterator = parameters.get(0); iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr)
+        items.add(((Type.Pair)iterator).car);
+      return new Type.Vector(items.toArray(new Datum[items.size()]));
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // vector-map
+  public static class VectorMap implements Type.Primitive {
+    // Validates <parameters> (a procedure followed by vectors) for <name>, & returns the
+    // length of the shortest vector
+    public static int getMinLength(java.lang.String name, ArrayList<Datum> parameters) throws Exception {
+      int totalParameters = parameters.size();
+      if(totalParameters < 2)
+        throw new Exceptionf("'%s didn't receive at least 2 args (procedure & vector): %s", name, Exceptionf.profileArgs(parameters));
+      Datum procedure = parameters.get(0);
+      if(!(procedure instanceof Type.Procedure))
+        throw new Exceptionf("'%s 1st arg %s isn't a procedure!", name, procedure.profile());
+      int minLength = Integer.MAX_VALUE;
+      for(int i = 1; i < totalParameters; ++i) {
+        if(!(parameters.get(i) instanceof Type.Vector))
+          throw new Exceptionf("'%s %dth arg %s isn't a vector!", name, i+1, parameters.get(i).profile());
+        minLength = Math.min(minLength,((Type.Vector)parameters.get(i)).value.length);
+      }
+      return minLength;
+    }
+
+    // vectors assumed to begin at parameters.get(1)
+    public static ArrayList<Datum> getItems(ArrayList<Datum> parameters, int index) throws Exception {
+      int totalParameters = parameters.size();
+      ArrayList<Datum> items = new ArrayList<Datum>(totalParameters-1);
+      for(int i = 1; i < totalParameters; ++i)
+        items.add(((Type.Vector)parameters.get(i)).value[index]);
+      return items;
+    }
+
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      int length = getMinLength("vector-map",parameters);
+      Type.Procedure procedure = (Type.Procedure)parameters.get(0);
+      Datum[] mapped = new Datum[length];
+      for(int i = 0; i < length; ++i)
+        mapped[i] = procedure.callWith(Util.Runtime.globalEnvironment,getItems(parameters,i));
+      return new Type.Vector(mapped);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // vector-for-each
+  public static class VectorForEach implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      int length = VectorMap.getMinLength("vector-for-each",parameters);
+      Type.Procedure procedure = (Type.Procedure)parameters.get(0);
+      for(int i = 0; i < length; ++i)
+        procedure.callWith(Util.Runtime.globalEnvironment,VectorMap.getItems(parameters,i));
+      return Type.Void.VALUE;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // vector?
+  public static class IsVector implements Type.Primitive {
+    public Datum callWith(Environment currentEnv, ArrayList<Datum> parameters) throws Exception {
+      if(parameters.size() != 1)
+        throw new Exceptionf("'vector? didn't receive exactly 1 arg: %s", Exceptionf.profileArgs(parameters));
+      return Type.Boolean.valueOf(parameters.get(0) instanceof Type.Vector);
+    }
+  }
+}
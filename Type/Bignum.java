@@ -0,0 +1,61 @@
+// Author: Jordan Randleman - Type.Bignum
+// Purpose:
+//    Arbitrary-precision exact integer primitive type, Java "BigInteger"s under the hood.
+//    Only ever holds integers too large for a "Fixnum" (see "Type.Number.valueOf").
+
+package Type;
+import java.math.BigInteger;
+import java.util.Objects;
+
+public final class Bignum extends Number {
+  ////////////////////////////////////////////////////////////////////////////
+  // Value Field
+  public final BigInteger value;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructor (see "Type.Number.valueOf")
+  Bignum(BigInteger n) {
+    super(BIGNUM);
+    value = n;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Conversions
+  public double doubleValue() {
+    return value.doubleValue();
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Equality
+  public boolean equals(Object o) {
+    return eq(o);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Hash code
+  public int hashCode() {
+    return Objects.hash(type(),value);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Serialization
+  public java.lang.String display() {
+    return value.toString();
+  }
+
+  public java.lang.String write() {
+    return display();
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Copying
+  public Datum copy() {
+    return this;
+  }
+}
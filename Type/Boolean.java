@@ -5,15 +5,26 @@
 package Type;
 import java.util.Objects;
 
-public class Boolean extends Datum {
+public final class Boolean extends Datum {
   ////////////////////////////////////////////////////////////////////////////
   // Value Field
-  public boolean value = false;
+  public final boolean value;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Canonical Instances (the only booleans ever allocated)
+  public static final Boolean TRUE = new Boolean(true);
+  public static final Boolean FALSE = new Boolean(false);
+
+  public static Boolean valueOf(boolean b) {
+    return b ? TRUE : FALSE;
+  }
 
 
   ////////////////////////////////////////////////////////////////////////////
   // Constructor
-  public Boolean(boolean b) {
+  private Boolean(boolean b) {
+    super(BOOLEAN);
     value = b;
   }
 
@@ -25,19 +36,8 @@ public class Boolean extends Datum {
   }
 
 
-  ////////////////////////////////////////////////////////////////////////////
-  // Truthiness
-  public boolean isTruthy() {
-    return value;
-  }
-
-
   ////////////////////////////////////////////////////////////////////////////
   // Equality
-  public boolean eq(Object o) {
-    return o instanceof Boolean && ((Boolean)o).value == value;
-  }
-
   public boolean equals(Object o) {
     return eq(o);
   }
@@ -15,34 +15,114 @@
 //         => A Scheme expression to be evaluated upon application of the procedure in a 
 //            new environment extended with the parameters defined as variables with the 
 //            values of the application arguments, whose parent environment is the 
-//            procedure's definition environment.
+//            procedure's definition environment. Note that the body is stored already
+//            analyzed (see "Util.Analyzer"), so invoking the procedure never re-parses it.
+//            Further note that said new environment is an array-backed "Type.Frame", whose
+//            slot layout is given by the procedure's scope (parameters come first).
 //
 //    Note that procedures have their name bound not upon construction (all compound Scheme
 //    procedures are anonymous upon creation), but rather by the environment's binding 
 //    methods during "define" and "set!" invocations.
+//
+//    Further note that compound procedures are properly tail-recursive: applications in 
+//    the tail position of a body evaluate to a "TailCall" (see "Util.Analyzer"), which 
+//    "callWith" trampolines on in a loop rather than recursing on the JVM stack. Deep
+//    non-tail recursion continues on new stack segments (see "Util.Runtime.ControlStack").
+//
+//    Also note that once a body has been invoked often enough, it gets compiled into JVM
+//    bytecode (see "Util.Compiler"), which is then invoked in place of the analyzed body.
+//    Until then, bodies run on the register VM instead if it was selected via the
+//    "--engine=vm" cmd-line flag (see "Util.VirtualMachine").
+//
+//    Finally, self tail calls (both those trampolined by "callWith" & those jumping back to
+//    the start of a compiled body) rebind their current frame in place rather than allocating
+//    a new one, if the analyzer found that the body can't capture its frame (see
+//    "getReextendedEnvironment"). Every other call still allocates a frame.
 
 package Type;
 import Util.Exceptionf;
 import java.util.ArrayList;
 import java.util.Objects;
 
-public class CompoundProcedure extends Procedure {
+public final class CompoundProcedure extends Procedure {
+  ////////////////////////////////////////////////////////////////////////////
+  // Procedure Code (shared by every closure created by the same <lambda>)
+  // => NOTE: also profiles the body's invocations & loop iterations (self tail calls), in
+  //          order to promote it from the analyzed node tree to JVM bytecode once either
+  //          count reaches its threshold (see "Util.Compiler")!
+  public static class Code {
+    public ArrayList<java.lang.String> parameters;
+    public Frame.Scope scope;
+    public Util.Analyzer.Node body;
+    public Datum bodyExpression = null; // source of the body (if from a <lambda>), used for inlining
+    public boolean isVariadic;
+    public boolean hasReusableFrames = false; // set by the analyzer if the body can't capture its frame
+    public int invocations = 0;
+    public int loopIterations = 0;
+    public Util.Compiler.CompiledBody compiledBody = null;
+    private Util.VirtualMachine.Program program = null; // assembled upon first use
+
+    public Code(ArrayList<java.lang.String> parameters, Frame.Scope scope, Util.Analyzer.Node body, boolean isVariadic) {
+      this.parameters = parameters;
+      this.scope = scope;
+      this.body = body;
+      this.isVariadic = isVariadic;
+    }
+
+    // Counts an invocation (or loop iteration) of the analyzed body
+    public void profile(boolean isLoopIteration) throws Exception {
+      boolean isHot = isLoopIteration ? ++loopIterations == Util.Compiler.loopThreshold 
+                                      : ++invocations == Util.Compiler.callThreshold;
+      if(isHot) compiledBody = Util.Compiler.compile(this);
+    }
+
+    // Evaluates the (uncompiled) body, on the VM if it's the selected engine
+    public Datum evaluate(Environment frame) throws Exception {
+      if(!Util.VirtualMachine.isEnabled) return body.eval(frame);
+      if(program == null) program = Util.VirtualMachine.assemble(body);
+      return program.run(frame);
+    }
+  }
+
+
   ////////////////////////////////////////////////////////////////////////////
   // Internal compound procedure fields
   private Environment definitionEnv;
   private ArrayList<java.lang.String> parameters;
-  private Datum body;
   private boolean isVariadic;
+  private Code code;
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Constructor
-  public CompoundProcedure(ArrayList<java.lang.String> parameters, Datum body, Environment definitionEnv, boolean isVariadic) {
+  // Constructors
+  public CompoundProcedure(ArrayList<java.lang.String> parameters, Datum body, Environment definitionEnv, boolean isVariadic) throws Exception {
+    super(COMPOUND_PROCEDURE);
+    Frame.Scope scope = new Frame.Scope(parameters,Frame.Scope.of(definitionEnv));
     this.name = DEFAULT_NAME;
     this.parameters = parameters;
-    this.body = body;
     this.definitionEnv = definitionEnv;
     this.isVariadic = isVariadic;
+    this.code = new Code(parameters,scope,Util.Analyzer.analyzeBody(Pair.List(body),scope),isVariadic);
+  }
+
+  public CompoundProcedure(Code code, Environment definitionEnv) {
+    super(COMPOUND_PROCEDURE);
+    this.name = DEFAULT_NAME;
+    this.parameters = code.parameters;
+    this.definitionEnv = definitionEnv;
+    this.isVariadic = code.isVariadic;
+    this.code = code;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Getters (used to inline applications, see "Util.Analyzer")
+  public Code getCode() {
+    return code;
+  }
+
+  public Environment getDefinitionEnvironment() {
+    return definitionEnv;
   }
 
 
@@ -60,27 +140,133 @@ public class CompoundProcedure extends Procedure {
 
 
   private Datum createVariadicParameterList(ArrayList<Datum> arguments, int i, int totalArguments) {
-    if(i == totalArguments) return new Type.Nil();
+    if(i == totalArguments) return Type.Nil.VALUE;
     return new Type.Pair(arguments.get(i), createVariadicParameterList(arguments,i+1,totalArguments));
   }
 
 
-  private Environment getExtendedEnvironment(ArrayList<Datum> arguments) throws Exception {
+  public Environment getExtendedEnvironment(ArrayList<Datum> arguments) throws Exception {
+    validateEnvironmentExtension(arguments);
+    return bindArguments(new Frame(code.scope,definitionEnv),arguments);
+  }
+
+
+  // Extends the environment for a self tail call, rebinding <frame> in place if it can't have
+  // been captured (the arguments having already been evaluated, its variables are dead)
+  public Environment getReextendedEnvironment(Environment frame, ArrayList<Datum> arguments) throws Exception {
+    if(!code.hasReusableFrames || !(frame instanceof Frame) || !((Frame)frame).isReusableAs(code.scope))
+      return getExtendedEnvironment(arguments);
     validateEnvironmentExtension(arguments);
-    Environment newEnv = new Environment(definitionEnv);
+    ((Frame)frame).clear();
+    return bindArguments((Frame)frame,arguments);
+  }
+
+
+  private Frame bindArguments(Frame frame, ArrayList<Datum> arguments) throws Exception {
     int n = parameters.size();
     for(int i = 0, offset = isVariadic ? 1 : 0; i < n-offset; ++i)
-      newEnv.define(parameters.get(i),arguments.get(i));
+      frame.setSlot(i,arguments.get(i));
     if(isVariadic)
-      newEnv.define(parameters.get(n-1),createVariadicParameterList(arguments,n-1,arguments.size()));
-    return newEnv;
+      frame.setSlot(n-1,createVariadicParameterList(arguments,n-1,arguments.size()));
+    return frame;
   }
 
 
-  public Datum callWith(Environment currentEnv, ArrayList<Datum> arguments) throws Exception {
+  // Evaluates the body ONCE in <frame> (may return a <TailCall> to be trampolined by <callWith>)
+  // => <isLoopIteration> denotes whether the body is being re-entered via a self tail call
+  private Datum applyBody(Environment frame, boolean isLoopIteration) throws Exception {
     Util.Runtime.CallStack.push(name);
-    Datum result = Util.Core.eval(getExtendedEnvironment(arguments),body);
+    Datum result;
+    if(code.compiledBody != null) {
+      result = code.compiledBody.invoke(this,frame);
+    } else {
+      code.profile(isLoopIteration);
+      result = code.evaluate(frame);
+    }
     Util.Runtime.CallStack.pop();
     return result;
   }
+
+
+  // Continues a call on a new control stack segment (see "Util.Runtime.ControlStack")
+  private static class Call extends Util.Runtime.ControlStack.Segment {
+    private CompoundProcedure procedure;
+    private Environment currentEnv;
+    private ArrayList<Datum> arguments;
+
+    public Call(CompoundProcedure procedure, Environment currentEnv, ArrayList<Datum> arguments) {
+      this.procedure = procedure;
+      this.currentEnv = currentEnv;
+      this.arguments = arguments;
+    }
+
+    protected Datum execute() throws Exception {
+      return procedure.callWith(currentEnv,arguments);
+    }
+  }
+
+
+  public Datum callWith(Environment currentEnv, ArrayList<Datum> arguments) throws Exception {
+    if(Util.Runtime.ControlStack.isSegmentFull())
+      return Util.Runtime.ControlStack.execute(new Call(this,currentEnv,arguments));
+    Util.Runtime.ControlStack.enter();
+    try {
+      Environment frame = getExtendedEnvironment(arguments);
+      Datum result = applyBody(frame,false);
+      CompoundProcedure caller = this;
+      while(result instanceof TailCall) {
+        TailCall call = (TailCall)result;
+        if(call.procedure == caller) { // self tail call: the caller's frame is dead
+          frame = caller.getReextendedEnvironment(frame,call.arguments);
+          result = caller.applyBody(frame,true);
+        } else {
+          frame = call.procedure.getExtendedEnvironment(call.arguments);
+          result = call.procedure.applyBody(frame,call.procedure.code == caller.code);
+          caller = call.procedure;
+        }
+      }
+      return result;
+    } finally {
+      Util.Runtime.ControlStack.exit();
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Tail Call Representation
+  // => Returned by applications in tail position, NEVER visible to Scheme code!
+  public static final class TailCall extends Datum {
+    private CompoundProcedure procedure;
+    private ArrayList<Datum> arguments;
+
+    public TailCall(CompoundProcedure procedure, ArrayList<Datum> arguments) {
+      super(TAIL_CALL);
+      this.procedure = procedure;
+      this.arguments = arguments;
+    }
+
+    public java.lang.String type() {
+      return "tail-call";
+    }
+
+    public boolean equals(Object o) {
+      return eq(o);
+    }
+
+    public int hashCode() {
+      return Objects.hash(procedure,arguments);
+    }
+
+    public java.lang.String display() {
+      return java.lang.String.format("#<tail-call %s>", procedure.name);
+    }
+
+    public java.lang.String write() {
+      return display();
+    }
+
+    public Datum copy() {
+      return this;
+    }
+  }
 }
\ No newline at end of file
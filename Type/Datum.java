@@ -4,23 +4,75 @@
 //    types must implement to be used by the core interpreter. This bakes in 
 //    extensibility for our interpreter, adding in a new primitive type only
 //    requires the extension of this contract!
+//
+//    Every concrete type also has a unique (final) small-integer tag, fixed upon
+//    construction. Hot generic code (truthiness, <eq?>, list traversals, etc.) switches
+//    on tags rather than making megamorphic virtual calls or chaining <instanceof>s, 
+//    hence giving the JIT a single, easily predicted branch. New types must register
+//    a new tag below.
 
 package Type;
 
 public abstract class Datum {
+  ////////////////////////////////////////////////////////////////////////////
+  // Type Tags
+  public static final int NIL = 0;
+  public static final int VOID = 1;
+  public static final int BOOLEAN = 2;
+  public static final int FIXNUM = 3;
+  public static final int BIGNUM = 4;
+  public static final int FLONUM = 5;
+  public static final int STRING = 6;
+  public static final int SYMBOL = 7;
+  public static final int PAIR = 8;
+  public static final int VECTOR = 9;
+  public static final int F64VECTOR = 10;
+  public static final int S64VECTOR = 11;
+  public static final int U8VECTOR = 12;
+  public static final int PRIMITIVE_PROCEDURE = 13;
+  public static final int COMPOUND_PROCEDURE = 14;
+  public static final int MACRO = 15;
+  public static final int TAIL_CALL = 16;
+
+  public final int tag;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructor
+  protected Datum(int tag) {
+    this.tag = tag;
+  }
+
+
   ////////////////////////////////////////////////////////////////////////////
   // Type
   public abstract java.lang.String type();
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Truthiness
-  public abstract boolean isTruthy();
+  // Truthiness (only #f is false, & <Boolean.FALSE> is the only #f)
+  public final boolean isTruthy() {
+    return this != Boolean.FALSE;
+  }
 
 
   ////////////////////////////////////////////////////////////////////////////
   // Equality
-  public abstract boolean eq(Object o);     // shallow
+  // => Shallow: atoms are compared by value, & every other datum by reference
+  //    (nil, void, & booleans are singletons, hence only ever equal by reference, & numbers
+  //    are only ever equal to numbers of the same exactness)
+  public final boolean eq(Object o) {
+    if(o == this) return true;
+    if(!(o instanceof Datum) || ((Datum)o).tag != tag) return false;
+    switch(tag) {
+      case FIXNUM: return ((Fixnum)o).value == ((Fixnum)this).value;
+      case BIGNUM: return ((Bignum)o).value.equals(((Bignum)this).value);
+      case FLONUM: return ((Flonum)o).value == ((Flonum)this).value;
+      case STRING: return ((String)o).value.equals(((String)this).value);
+      default: return false;
+    }
+  }
+
   public abstract boolean equals(Object o); // deep (recursive for containers)
 
 
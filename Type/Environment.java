@@ -1,9 +1,20 @@
 // Author: Jordan Randleman - Type.Environment
 // Purpose:
 //    Scheme environment type used internally by the evaluator and Scheme procedures to
-//    represent variable bindings in a particular scope. Nested scopes are supported by 
-//    having each environment contain a pointer to its enclosing environment (the global 
+//    represent variable bindings in a particular scope. Nested scopes are supported by
+//    having each environment contain a pointer to its enclosing environment (the global
 //    environment's "super" [enclosing] environment is <null>).
+//
+//    Note that hashmap-backed environments are only used for the global scope: procedure
+//    activations use array-backed "Type.Frame"s instead, which override the local binding
+//    hooks below (hence name-based lookups still work across both environment types).
+//
+//    Bindings are keyed by interned "Type.Symbol"s (hashed & compared by reference). The
+//    <java.lang.String> overloads are provided for convenience (e.g. registering primitives).
+//
+//    Each binding's value is held in a "Binding" cell, which is updated in place by both
+//    <define> & <set!>. Hence the analyzer may cache a global variable's cell at a reference
+//    site, such that each subsequent lookup is a single field read (see "getBinding").
 
 package Type;
 import Util.Exceptionf;
@@ -12,47 +23,97 @@ import java.util.HashMap;
 public class Environment {
   ////////////////////////////////////////////////////////////////////////////
   // Fields
-  private Environment superEnv;
-  private HashMap<java.lang.String,Datum> bindings;
+  protected Environment superEnv;
+  protected HashMap<Symbol,Binding> bindings; // allocated upon the first definition
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Constructors
-  public Environment(){
-    bindings = new HashMap<java.lang.String,Datum>();
+  // Binding Cell Representation
+  public static class Binding {
+    public Datum value;
+
+    public Binding(Datum value) {
+      this.value = value;
+    }
   }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructors
+  public Environment(){}
   public Environment(Environment superEnv){
-    bindings = new HashMap<java.lang.String,Datum>();
     this.superEnv = superEnv;
   }
 
 
+  ////////////////////////////////////////////////////////////////////////////
+  // Enclosing Environment Getter
+  public Environment getSuperEnvironment() {
+    return superEnv;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Local Binding Hooks
+  // => <getLocal> returns <null> if <name> isn't bound in this environment
+  // => <setLocal> returns whether <name> is bound (& hence was set) in this environment
+  protected Datum getLocal(Symbol name) {
+    Binding binding = getBinding(name);
+    if(binding == null) return null;
+    return binding.value;
+  }
+
+
+  protected boolean setLocal(Symbol name, Datum newValue) throws Exception {
+    Binding binding = getBinding(name);
+    if(binding == null) return false;
+    bindNameIfCallable(newValue,name.value);
+    binding.value = newValue;
+    return true;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Binding Cell Getter (<null> if <name> isn't bound in THIS environment's hashmap)
+  // => NOTE: a binding's cell never changes once created, hence cells are safe to cache!
+  public Binding getBinding(Symbol name) {
+    if(bindings == null) return null;
+    return bindings.get(name);
+  }
+
+
   ////////////////////////////////////////////////////////////////////////////
   // Get value
-  public Datum get(java.lang.String name) throws Exception {
-    Datum result = bindings.get(name);
+  public Datum get(Symbol name) throws Exception {
+    Datum result = getLocal(name);
     if(result == null) {
-      if(superEnv == null) throw new Exceptionf("Variable %s doesn't exist!", name);
+      if(superEnv == null) throw new Exceptionf("Variable %s doesn't exist!", name.value);
       return superEnv.get(name);
     }
     return result;
   }
 
 
+  public Datum get(java.lang.String name) throws Exception {
+    return get(Symbol.intern(name));
+  }
+
+
   ////////////////////////////////////////////////////////////////////////////
   // Set value
-  public void set(java.lang.String name, Datum newValue) throws Exception {
-    Datum result = bindings.get(name);
-    if(result == null) {
-      if(superEnv == null) throw new Exceptionf("Variable %s doesn't exist!", name);
+  public void set(Symbol name, Datum newValue) throws Exception {
+    if(!setLocal(name,newValue)) {
+      if(superEnv == null) throw new Exceptionf("Variable %s doesn't exist!", name.value);
       superEnv.set(name,newValue);
-    } else {
-      bindNameIfCallable(newValue,name);
-      bindings.put(name,newValue);
     }
   }
 
 
+  public void set(java.lang.String name, Datum newValue) throws Exception {
+    set(Symbol.intern(name),newValue);
+  }
+
+
   public void set(java.lang.String name, Primitive prm) throws Exception {
     set(name,new PrimitiveProcedure(name,prm));
   }
@@ -60,11 +121,22 @@ public class Environment {
 
   ////////////////////////////////////////////////////////////////////////////
   // Define value
+  public void define(Symbol name, Datum value) throws Exception {
+    bindNameIfCallable(value,name.value);
+    if(bindings == null) bindings = new HashMap<Symbol,Binding>();
+    Binding binding = bindings.get(name);
+    if(binding == null) {
+      bindings.put(name,new Binding(value));
+    } else {
+      binding.value = value;
+    }
+  }
+
+
   public void define(java.lang.String name, Datum value) throws Exception {
-    bindNameIfCallable(value,name);
-    bindings.put(name,value);
+    define(Symbol.intern(name),value);
   }
-  
+
 
   public void define(java.lang.String name, Primitive prm) throws Exception {
     define(name,new PrimitiveProcedure(name,prm));
@@ -73,13 +145,19 @@ public class Environment {
 
   ////////////////////////////////////////////////////////////////////////////
   // Helper to Bind Names to Callables
-  private void bindNameIfCallable(Datum d, java.lang.String name) throws Exception {
-    if(d instanceof Procedure) {
-      Procedure p = (Procedure)d;
-      if(p.name.equals(Procedure.DEFAULT_NAME)) p.bindName(name);
-    } else if(d instanceof Macro) {
-      Macro m = (Macro)d;
-      if(m.name.equals(Macro.DEFAULT_NAME)) m.bindName(name);
+  protected static void bindNameIfCallable(Datum d, java.lang.String name) throws Exception {
+    if(d == null) return;
+    switch(d.tag) {
+      case Datum.PRIMITIVE_PROCEDURE: case Datum.COMPOUND_PROCEDURE: {
+        Procedure p = (Procedure)d;
+        if(p.name.equals(Procedure.DEFAULT_NAME)) p.bindName(name);
+        return;
+      }
+      case Datum.MACRO: {
+        Macro m = (Macro)d;
+        if(m.name.equals(Macro.DEFAULT_NAME)) m.bindName(name);
+        return;
+      }
     }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+// Author: Jordan Randleman - Type.F64Vector
+// Purpose:
+//    Homogeneous vector of inexact numbers, a Java "double[]" under the hood (see
+//    "Type.HomogeneousVector").
+
+package Type;
+import java.util.Arrays;
+
+public final class F64Vector extends HomogeneousVector {
+  ////////////////////////////////////////////////////////////////////////////
+  // Value Field (the backing array, shared by slices)
+  public final double[] value;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructors
+  public F64Vector(double[] items) {
+    this(items,0,items.length);
+  }
+
+  public F64Vector(double[] items, int start, int length) {
+    super(F64VECTOR,start,length);
+    value = items;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Element Type Prefix
+  public java.lang.String prefix() {
+    return "f64";
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Element Access
+  public Number ref(int i) {
+    return new Flonum(value[start+i]);
+  }
+
+  public boolean isValidElement(Datum d) {
+    return d instanceof Number;
+  }
+
+  public void set(int i, Datum d) {
+    notifyMutation();
+    value[start+i] = ((Number)d).doubleValue();
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Slicing
+  public HomogeneousVector slice(int start, int end) {
+    return new F64Vector(value,this.start+start,end-start).guardedBy(literalGuard);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Copying
+  public HomogeneousVector copy() {
+    return new F64Vector(Arrays.copyOfRange(value,start,start+length));
+  }
+}
@@ -0,0 +1,60 @@
+// Author: Jordan Randleman - Type.Fixnum
+// Purpose:
+//    Exact integer primitive type, Java "long"s under the hood (see "Type.Number" for how
+//    arithmetic overflows into "Bignum"s).
+
+package Type;
+import java.util.Objects;
+
+public final class Fixnum extends Number {
+  ////////////////////////////////////////////////////////////////////////////
+  // Value Field
+  public final long value;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructor (see "Type.Number.valueOf")
+  Fixnum(long n) {
+    super(FIXNUM);
+    value = n;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Conversions
+  public double doubleValue() {
+    return (double)value;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Equality
+  public boolean equals(Object o) {
+    return eq(o);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Hash code
+  public int hashCode() {
+    return Objects.hash(type(),value);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Serialization
+  public java.lang.String display() {
+    return Long.toString(value);
+  }
+
+  public java.lang.String write() {
+    return display();
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Copying
+  public Datum copy() {
+    return this;
+  }
+}
@@ -0,0 +1,59 @@
+// Author: Jordan Randleman - Type.Flonum
+// Purpose:
+//    Inexact number primitive type, Java "double"s under the hood.
+
+package Type;
+import java.util.Objects;
+
+public final class Flonum extends Number {
+  ////////////////////////////////////////////////////////////////////////////
+  // Value Field
+  public final double value;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructor
+  public Flonum(double d) {
+    super(FLONUM);
+    value = d;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Conversions
+  public double doubleValue() {
+    return value;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Equality
+  public boolean equals(Object o) {
+    return eq(o);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Hash code
+  public int hashCode() {
+    return Objects.hash(type(),value);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Serialization
+  public java.lang.String display() {
+    return Double.toString(value);
+  }
+
+  public java.lang.String write() {
+    return display();
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Copying
+  public Datum copy() {
+    return this;
+  }
+}
@@ -0,0 +1,250 @@
+// Author: Jordan Randleman - Type.Frame
+// Purpose:
+//    Array-backed environment specialization of "Type.Environment", used for procedure
+//    activations. Rather than hashing variable names, each variable of a procedure is
+//    assigned a slot index ahead of time by the analyzer (see "Util.Analyzer"), such
+//    that every local variable reference becomes a (depth, slot) lexical address: walk
+//    <depth> enclosing frames, then index into <slot>.
+//
+//    The variables (& hence slots) of a frame are described by its "Frame.Scope", which
+//    the analyzer builds from a procedure's parameters & the definitions in its body.
+//    Scopes also let name-based lookups (as done by <eval>) search a frame's slots.
+//
+//    Note that a slot holding <null> is considered to be unbound (e.g. a variable that
+//    has yet to be defined in the procedure's body). Further note that a frame may still
+//    receive definitions that its scope didn't anticipate (e.g. from an <eval>'d <define>),
+//    which are stored in the inherited hashmap. Such "dynamic bindings" can shadow outer
+//    variables that the analyzer assumed were visible, and hence mark their scope as having
+//    dynamic bindings (see "Scope.dynamicBindingsVersion").
+//
+//    Frames also hold the variables captured by closures (see "Util.Analyzer"), which only
+//    copy the free variables they reference rather than retaining every enclosing frame.
+//    Variables that may be assigned after being captured (as marked by "Scope.markAssigned")
+//    are instead shared via a "Type.Environment.Binding" cell, which replaces the variable's
+//    slot in its original frame too. The slot accessors below transparently read & write
+//    through such cells.
+//
+//    Activation frames that were never captured (by a closure retaining its definition
+//    environment, a named <let>'s procedure, or a macro) can't be referenced once their
+//    activation is over, & may hence be rebound by self tail calls (see "Type.CompoundProcedure
+//    .getReextendedEnvironment"). Such captures mark the frames they retain at runtime (see
+//    "markCaptured").
+
+package Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+public class Frame extends Environment {
+  ////////////////////////////////////////////////////////////////////////////
+  // Scope Representation: the Variables (& hence Slot Layout) of a Frame
+  public static class Scope {
+    // Incremented whenever a new scope gains dynamic bindings, invalidating any lexical
+    // addresses that were resolved under the assumption that no such bindings existed.
+    public static int dynamicBindingsVersion = 0;
+
+    public Scope parent; // <null> for scopes nested directly in the global environment
+    public boolean hasDynamicBindings = false;
+    public boolean hasMacros = false; // whether <define-macro> may bind variables of this scope
+    private ArrayList<Symbol> names = new ArrayList<Symbol>();
+    private BitSet assigned = new BitSet(); // slots that may be assigned after frame creation
+    private BitSet procedures = new BitSet(); // slots bound to <lambda>s (see "isProcedure")
+    private BitSet nonProcedures = new BitSet(); // slots (possibly) bound to any other value
+
+    // => NOTE: parameters may be bound to any value (see "markNonProcedure")
+    public Scope(ArrayList<java.lang.String> parameters, Scope parent) {
+      this.parent = parent;
+      for(java.lang.String parameter : parameters)
+        names.add(Symbol.intern(parameter));
+      nonProcedures.set(0,names.size());
+    }
+
+    // Returns the slot of <name>, or -1 if <name> isn't a variable in this scope
+    // => NOTE: searches backwards in case of duplicate parameter names
+    public int indexOf(Symbol name) {
+      for(int i = names.size()-1; i >= 0; --i)
+        if(names.get(i) == name) return i;
+      return -1;
+    }
+
+    // Registers <name> as a variable in this scope (if not already one)
+    public void add(Symbol name) {
+      if(indexOf(name) == -1) names.add(name);
+    }
+
+    // Registers <name> as a variable that may be assigned after its frame's creation (if it's
+    // a variable in this scope), such that closures share rather than copy its value
+    public void markAssigned(Symbol name) {
+      int slot = indexOf(name);
+      if(slot != -1) assigned.set(slot);
+    }
+
+    // Registers every variable in this scope as one that may be assigned any value (see
+    // "markAssigned" & "markNonProcedure")
+    public void markAllAssigned() {
+      assigned.set(0,names.size());
+      nonProcedures.set(0,names.size());
+    }
+
+    public boolean isAssigned(int slot) {
+      return assigned.get(slot);
+    }
+
+    // Registers <name> as a variable bound to a procedure (if it's a variable in this scope)
+    public void markProcedure(Symbol name) {
+      int slot = indexOf(name);
+      if(slot != -1) procedures.set(slot);
+    }
+
+    // Registers <name> as a variable that may be bound to a non-procedure (if it's a variable
+    // in this scope), which takes precedence over "markProcedure"
+    public void markNonProcedure(Symbol name) {
+      int slot = indexOf(name);
+      if(slot != -1) nonProcedures.set(slot);
+    }
+
+    // Returns whether <slot> is only ever bound to procedures (ie it's a procedure definition
+    // that's never <set!>), hence can never be bound to a macro
+    public boolean isProcedure(int slot) {
+      return procedures.get(slot) && !nonProcedures.get(slot);
+    }
+
+    public Symbol nameOf(int slot) {
+      return names.get(slot);
+    }
+
+    public int size() {
+      return names.size();
+    }
+
+    // Returns the scope describing <env> (<null> if <env> is the global environment)
+    public static Scope of(Environment env) {
+      if(env instanceof Frame) return ((Frame)env).scope;
+      return null;
+    }
+
+    public void markDynamicBindings() {
+      if(hasDynamicBindings) return;
+      hasDynamicBindings = true;
+      ++dynamicBindingsVersion;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Fields
+  private Scope scope;
+  private Object[] slots; // each is a <Datum>, or a <Binding> cell shared with closures
+  private Environment globalEnv;
+  private boolean isCaptured = false;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructor
+  public Frame(Scope scope, Environment superEnv) {
+    super(superEnv);
+    this.scope = scope;
+    this.slots = new Object[scope.size()];
+    if(superEnv instanceof Frame) {
+      this.globalEnv = ((Frame)superEnv).globalEnv;
+    } else {
+      this.globalEnv = superEnv;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Frame Reuse
+  // Marks <env> & every frame enclosing it as (possibly) referenced after their activation
+  public static void markCaptured(Environment env) {
+    while(env instanceof Frame && !((Frame)env).isCaptured) {
+      ((Frame)env).isCaptured = true;
+      env = env.getSuperEnvironment();
+    }
+  }
+
+
+  // Returns whether the frame may be reused (as a frame of <scope>) once its activation is over
+  public boolean isReusableAs(Scope scope) {
+    return !isCaptured && this.scope == scope && slots.length == scope.size();
+  }
+
+
+  // Unbinds every variable, such that the frame may be reused (see "isReusableAs")
+  public void clear() {
+    Arrays.fill(slots,null);
+    bindings = null;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Global Environment Getter (the root of this frame's environment chain)
+  public Environment getGlobalEnvironment() {
+    return globalEnv;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Slot Accessors (<null> denotes an unbound slot)
+  public Datum getSlot(int slot) {
+    Object value = slots[slot];
+    if(value instanceof Binding) return ((Binding)value).value;
+    return (Datum)value;
+  }
+
+
+  public void setSlot(int slot, Datum value) throws Exception {
+    bindNameIfCallable(value,scope.nameOf(slot).value);
+    if(slots[slot] instanceof Binding) {
+      ((Binding)slots[slot]).value = value;
+    } else {
+      slots[slot] = value;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Closure Capturing Accessors
+  // Returns the cell holding <slot>'s value, moving the value into a new cell if needed
+  public Binding getCell(int slot) {
+    if(!(slots[slot] instanceof Binding)) slots[slot] = new Binding((Datum)slots[slot]);
+    return (Binding)slots[slot];
+  }
+
+
+  // Initializes <slot> of a closure's frame to a captured value (a <Datum> or <Binding> cell)
+  public void capture(int slot, Object value) {
+    slots[slot] = value;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Local Binding Hooks
+  protected Datum getLocal(Symbol name) {
+    int slot = scope.indexOf(name);
+    if(slot != -1) return getSlot(slot);
+    return super.getLocal(name);
+  }
+
+
+  protected boolean setLocal(Symbol name, Datum newValue) throws Exception {
+    int slot = scope.indexOf(name);
+    if(slot == -1) return super.setLocal(name,newValue);
+    if(getSlot(slot) == null) return false;
+    setSlot(slot,newValue);
+    return true;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Define value
+  public void define(Symbol name, Datum value) throws Exception {
+    int slot = scope.indexOf(name);
+    if(slot != -1) {
+      setSlot(slot,value);
+    } else {
+      scope.markDynamicBindings();
+      super.define(name,value);
+    }
+  }
+}
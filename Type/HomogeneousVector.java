@@ -0,0 +1,139 @@
+// Author: Jordan Randleman - Type.HomogeneousVector
+// Purpose:
+//    Homogeneous vector primitive type (abstract), the base of SRFI-4 style vectors whose
+//    elements are unboxed Java primitives rather than "Datum"s:
+//      => "F64Vector"s hold "double"s (inexact numbers)
+//      => "S64Vector"s hold "long"s (exact integers in the signed 64-bit range)
+//      => "U8Vector"s hold "byte"s (exact integers in [0,255])
+//
+//    Every homogeneous vector is a view of <length> elements beginning at <start> in its
+//    backing array, hence slicing a vector shares (rather than copies) its storage. Elements
+//    are only boxed into "Type.Number"s when accessed individually.
+//
+//    Note that homogeneous vectors may be "guarded" as part of a quoted literal (see
+//    "Type.Pair"), hence they should always be mutated via "set". Slices share the guard
+//    of the vector they view, along with its storage.
+
+package Type;
+
+public abstract class HomogeneousVector extends Datum {
+  ////////////////////////////////////////////////////////////////////////////
+  // View Fields
+  public final int start;  // index of the 1st element in the backing array
+  public final int length; // number of elements in the view
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Literal Guard Field (<null> if not part of a guarded quoted literal)
+  public Pair.LiteralGuard literalGuard = null;
+
+  protected void notifyMutation() {
+    if(literalGuard != null) literalGuard.notifyMutation();
+  }
+
+  protected HomogeneousVector guardedBy(Pair.LiteralGuard guard) {
+    literalGuard = guard;
+    return this;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructor
+  protected HomogeneousVector(int tag, int start, int length) {
+    super(tag);
+    this.start = start;
+    this.length = length;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Factory (yields a zero-filled vector of <length> elements for the given type <tag>)
+  public static HomogeneousVector allocate(int tag, int length) {
+    switch(tag) {
+      case F64VECTOR: return new F64Vector(new double[length]);
+      case S64VECTOR: return new S64Vector(new long[length]);
+      default: return new U8Vector(new byte[length]);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Element Type Prefix ("f64", "s64", or "u8")
+  public abstract java.lang.String prefix();
+
+  public static java.lang.String prefix(int tag) {
+    switch(tag) {
+      case F64VECTOR: return "f64";
+      case S64VECTOR: return "s64";
+      default: return "u8";
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Element Access
+  // => NOTE: indices are relative to the view (hence in [0,length)), & are assumed valid
+  public abstract Number ref(int i);
+
+  public abstract boolean isValidElement(Datum d);
+
+  // PRECONDITION: <isValidElement(d)>
+  public abstract void set(int i, Datum d);
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Slicing (returns a view of [start,end) sharing this vector's storage)
+  // => NOTE: indices are relative to the view, & are assumed valid
+  public abstract HomogeneousVector slice(int start, int end);
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Type
+  public java.lang.String type() {
+    return prefix()+"vector";
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Equality
+  public boolean equals(Object o) {
+    if(!(o instanceof HomogeneousVector)) return false;
+    HomogeneousVector v = (HomogeneousVector)o;
+    if(v.tag != tag || v.length != length) return false;
+    for(int i = 0; i < length; ++i)
+      if(!ref(i).equals(v.ref(i))) return false;
+    return true;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Hash code
+  public int hashCode() {
+    int hash = type().hashCode();
+    for(int i = 0; i < length; ++i)
+      hash = 31*hash+ref(i).hashCode();
+    return hash;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Serialization
+  public java.lang.String display() {
+    StringBuilder vector = new StringBuilder("#"+prefix()+"(");
+    for(int i = 0; i < length; ++i) {
+      if(i > 0) vector.append(' ');
+      vector.append(ref(i).display());
+    }
+    vector.append(')');
+    return vector.toString();
+  }
+
+  public java.lang.String write() {
+    return display();
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Copying (yields a compact copy of the view, no longer sharing storage)
+  public abstract HomogeneousVector copy();
+}
@@ -6,7 +6,7 @@ package Type;
 import java.util.ArrayList;
 import java.util.Objects;
 
-public class Macro extends Datum {
+public final class Macro extends Datum {
   ////////////////////////////////////////////////////////////////////////////
   // Static Default Macro Name
   public static final java.lang.String DEFAULT_NAME = "#!ANONYMOUS";
@@ -24,10 +24,11 @@ public class Macro extends Datum {
 
   ////////////////////////////////////////////////////////////////////////////
   // Constructor
-  public Macro(java.lang.String argName, Datum body, Environment definitionEnv) {
+  public Macro(java.lang.String argName, Frame.Scope scope, Util.Analyzer.Node body, Environment definitionEnv) {
+    super(MACRO);
     ArrayList<java.lang.String> args = new ArrayList<java.lang.String>();
     args.add(argName);
-    innerProcedure = new CompoundProcedure(args,body,definitionEnv,false);
+    innerProcedure = new CompoundProcedure(new CompoundProcedure.Code(args,scope,body,false),definitionEnv);
     bindName(DEFAULT_NAME);
   }
 
@@ -41,34 +42,30 @@ public class Macro extends Datum {
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Invoke the Macro via <callWith>
-  public Datum callWith(Environment currentEnv, Datum expr) throws Exception {
+  // Expand the macro application <expr> (without evaluating the expansion)
+  public Datum expand(Environment currentEnv, Datum expr) throws Exception {
     ArrayList<Datum> args = new ArrayList<Datum>();
     args.add(expr);
-    return Util.Core.eval(currentEnv,innerProcedure.callWith(currentEnv,args));
+    return innerProcedure.callWith(currentEnv,args);
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Type
-  public java.lang.String type() {
-    return "macro";
+  // Invoke the Macro via <callWith>
+  public Datum callWith(Environment currentEnv, Datum expr) throws Exception {
+    return Util.Core.eval(currentEnv,expand(currentEnv,expr));
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Truthiness
-  public boolean isTruthy() {
-    return true;
+  // Type
+  public java.lang.String type() {
+    return "macro";
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
   // Equality
-  public boolean eq(Object o) {
-    return o instanceof Macro && (Macro)o == this;
-  }
-
   public boolean equals(Object o) {
     return eq(o);
   }
@@ -5,27 +5,28 @@
 package Type;
 import java.util.Objects;
 
-public class Nil extends Datum {
+public final class Nil extends Datum {
   ////////////////////////////////////////////////////////////////////////////
-  // Type
-  public java.lang.String type() {
-    return "nil";
-  }
+  // Canonical Instance (the only empty list ever allocated)
+  public static final Nil VALUE = new Nil();
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Truthiness
-  public boolean isTruthy() {
-    return true;
+  // Constructor
+  private Nil() {
+    super(NIL);
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Equality
-  public boolean eq(Object o) {
-    return o instanceof Nil;
+  // Type
+  public java.lang.String type() {
+    return "nil";
   }
 
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Equality
   public boolean equals(Object o) {
     return eq(o);
   }
@@ -1,20 +1,80 @@
 // Author: Jordan Randleman - Type.Number
 // Purpose:
-//    Number primitive type, Java "double"s under the hood.
+//    Number primitive type (abstract), the base of Scheme160's numeric tower:
+//      => Exact integers are "Fixnum"s (Java "long"s), automatically overflowing into
+//         "Bignum"s (Java "BigInteger"s) rather than losing precision.
+//      => Inexact numbers are "Flonum"s (Java "double"s).
+//
+//    Arithmetic across the tower is implemented here. Operations on exact integers yield
+//    exact integers, normalized into a "Fixnum" whenever they fit in a "long" (hence a
+//    "Bignum" never holds a "long"-sized value). Any "Flonum" operand makes the result
+//    inexact.
 
 package Type;
-import java.util.Objects;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 
-public class Number extends Datum {
+public abstract class Number extends Datum {
   ////////////////////////////////////////////////////////////////////////////
-  // Value Field
-  public double value = 0.0;
+  // Constructor
+  protected Number(int tag) {
+    super(tag);
+  }
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Constructor
-  public Number(double d) {
-    value = d;
+  // Small Fixnum Cache
+  // => Small integers (loop counters, indices, lengths, etc.) are shared flyweights rather
+  //    than being reallocated by every operation yielding them (fixnums are immutable, &
+  //    <eq?> compares them by value, hence sharing them is unobservable)
+  private static final int MIN_CACHED_FIXNUM = -128;
+  private static final int MAX_CACHED_FIXNUM = 1023;
+  private static final Fixnum[] cachedFixnums = new Fixnum[MAX_CACHED_FIXNUM-MIN_CACHED_FIXNUM+1];
+
+  static {
+    for(int i = 0; i < cachedFixnums.length; ++i)
+      cachedFixnums[i] = new Fixnum(i+MIN_CACHED_FIXNUM);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Factories (exact integers are normalized into fixnums whenever possible)
+  public static Number valueOf(long n) {
+    if(n >= MIN_CACHED_FIXNUM && n <= MAX_CACHED_FIXNUM) return cachedFixnums[(int)n-MIN_CACHED_FIXNUM];
+    return new Fixnum(n);
+  }
+
+  public static Number valueOf(BigInteger n) {
+    if(n.bitLength() < 64) return valueOf(n.longValue());
+    return new Bignum(n);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Parsing
+  // => Integer literals are read as exact, & every other literal as inexact
+  // => Returns <null> if <s> isn't a number literal
+  public static Number parse(java.lang.String s) {
+    if(isIntegerLiteral(s)) {
+      try {
+        return valueOf(Long.parseLong(s));
+      } catch(NumberFormatException e) {
+        return valueOf(new BigInteger(s));
+      }
+    }
+    try {
+      return new Flonum(Double.parseDouble(s));
+    } catch(NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static boolean isIntegerLiteral(java.lang.String s) {
+    int i = (s.startsWith("+") || s.startsWith("-")) ? 1 : 0;
+    if(i == s.length()) return false;
+    for(int n = s.length(); i < n; ++i)
+      if(s.charAt(i) < '0' || s.charAt(i) > '9') return false;
+    return true;
   }
 
 
@@ -26,44 +86,150 @@ public class Number extends Datum {
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Truthiness
-  public boolean isTruthy() {
-    return true;
+  // Conversions
+  public abstract double doubleValue();
+
+  public boolean isExact() {
+    return !(this instanceof Flonum);
+  }
+
+  // => NOTE: only valid for exact numbers
+  public static BigInteger toBigInteger(Number n) {
+    if(n instanceof Fixnum) return BigInteger.valueOf(((Fixnum)n).value);
+    return ((Bignum)n).value;
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Equality
-  public boolean eq(Object o) {
-    return o instanceof Number && ((Number)o).value == value;
+  // Arithmetic
+  public static Number add(long a, long b) {
+    try {
+      return valueOf(Math.addExact(a,b));
+    } catch(ArithmeticException e) {
+      return valueOf(BigInteger.valueOf(a).add(BigInteger.valueOf(b)));
+    }
   }
 
-  public boolean equals(Object o) {
-    return eq(o);
+  public static Number subtract(long a, long b) {
+    try {
+      return valueOf(Math.subtractExact(a,b));
+    } catch(ArithmeticException e) {
+      return valueOf(BigInteger.valueOf(a).subtract(BigInteger.valueOf(b)));
+    }
   }
 
+  public static Number multiply(long a, long b) {
+    try {
+      return valueOf(Math.multiplyExact(a,b));
+    } catch(ArithmeticException e) {
+      return valueOf(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)));
+    }
+  }
 
-  ////////////////////////////////////////////////////////////////////////////
-  // Hash code
-  public int hashCode() {
-    return Objects.hash(type(),value);
+  public static Number add(Number a, Number b) {
+    if(a instanceof Fixnum && b instanceof Fixnum) return add(((Fixnum)a).value,((Fixnum)b).value);
+    if(a instanceof Flonum || b instanceof Flonum) return new Flonum(a.doubleValue()+b.doubleValue());
+    return valueOf(toBigInteger(a).add(toBigInteger(b)));
+  }
+
+  public static Number subtract(Number a, Number b) {
+    if(a instanceof Fixnum && b instanceof Fixnum) return subtract(((Fixnum)a).value,((Fixnum)b).value);
+    if(a instanceof Flonum || b instanceof Flonum) return new Flonum(a.doubleValue()-b.doubleValue());
+    return valueOf(toBigInteger(a).subtract(toBigInteger(b)));
   }
 
+  public static Number multiply(Number a, Number b) {
+    if(a instanceof Fixnum && b instanceof Fixnum) return multiply(((Fixnum)a).value,((Fixnum)b).value);
+    if(a instanceof Flonum || b instanceof Flonum) return new Flonum(a.doubleValue()*b.doubleValue());
+    return valueOf(toBigInteger(a).multiply(toBigInteger(b)));
+  }
 
-  ////////////////////////////////////////////////////////////////////////////
-  // Serialization
-  public java.lang.String display() {
-    return Double.toString(value);
+  // => Exact division is only exact if it has no remainder (there are no rationals), &
+  //    exact division by zero yields an infinity or NaN (just like inexact division)
+  public static Number divide(Number a, Number b) {
+    if(a.isExact() && b.isExact() && !isZero(b)) {
+      BigInteger[] quotientAndRemainder = toBigInteger(a).divideAndRemainder(toBigInteger(b));
+      if(quotientAndRemainder[1].signum() == 0) return valueOf(quotientAndRemainder[0]);
+    }
+    return new Flonum(a.doubleValue()/b.doubleValue());
   }
 
-  public java.lang.String write() {
-    return display();
+  public static Number negate(Number n) {
+    if(n instanceof Flonum) return new Flonum(-((Flonum)n).value);
+    return subtract(valueOf(0),n);
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Copying
-  public Datum copy() {
-    return this;
+  // Comparisons
+  // => NOTE: comparisons involving NaN always fail
+  // => Numbers of mixed exactness are compared exactly, rather than by converting the exact
+  //    operand into a double (which rounds beyond 2^53, hence would make <=> & <<>
+  //    intransitive): finite doubles are binary fractions, hence are exact "BigDecimal"s
+  private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+  private static int compareExact(Number a, Number b) {
+    return toBigInteger(a).compareTo(toBigInteger(b));
+  }
+
+  private static int compareExactToInexact(Number a, double b) {
+    if(Double.isInfinite(b)) return b > 0 ? -1 : 1;
+    if(a instanceof Fixnum && Math.abs(((Fixnum)a).value) <= MAX_EXACT_DOUBLE_INTEGER) {
+      double d = ((Fixnum)a).value; // converted without rounding
+      return d < b ? -1 : d > b ? 1 : 0;
+    }
+    return new BigDecimal(toBigInteger(a)).compareTo(new BigDecimal(b));
+  }
+
+  private static boolean isNaN(Number n) {
+    return n instanceof Flonum && Double.isNaN(((Flonum)n).value);
+  }
+
+  // PRECONDITION: neither <a> nor <b> is NaN, & at least one of them is inexact
+  private static int compareInexact(Number a, Number b) {
+    if(!(a instanceof Flonum)) return compareExactToInexact(a,((Flonum)b).value);
+    if(!(b instanceof Flonum)) return -compareExactToInexact(b,((Flonum)a).value);
+    double x = ((Flonum)a).value, y = ((Flonum)b).value;
+    return x < y ? -1 : x > y ? 1 : 0;
+  }
+
+  public static boolean isEqual(Number a, Number b) {
+    if(a instanceof Fixnum && b instanceof Fixnum) return ((Fixnum)a).value == ((Fixnum)b).value;
+    if(a instanceof Flonum && b instanceof Flonum) return ((Flonum)a).value == ((Flonum)b).value;
+    if(a instanceof Flonum || b instanceof Flonum) return !isNaN(a) && !isNaN(b) && compareInexact(a,b) == 0;
+    return compareExact(a,b) == 0;
+  }
+
+  public static boolean isLessThan(Number a, Number b) {
+    if(a instanceof Fixnum && b instanceof Fixnum) return ((Fixnum)a).value < ((Fixnum)b).value;
+    if(a instanceof Flonum && b instanceof Flonum) return ((Flonum)a).value < ((Flonum)b).value;
+    if(a instanceof Flonum || b instanceof Flonum) return !isNaN(a) && !isNaN(b) && compareInexact(a,b) < 0;
+    return compareExact(a,b) < 0;
+  }
+
+  public static boolean isGreaterThan(Number a, Number b) {
+    return isLessThan(b,a);
+  }
+
+  public static boolean isLessThanOrEqual(Number a, Number b) {
+    if(a instanceof Fixnum && b instanceof Fixnum) return ((Fixnum)a).value <= ((Fixnum)b).value;
+    if(a instanceof Flonum && b instanceof Flonum) return ((Flonum)a).value <= ((Flonum)b).value;
+    if(a instanceof Flonum || b instanceof Flonum) return !isNaN(a) && !isNaN(b) && compareInexact(a,b) <= 0;
+    return compareExact(a,b) <= 0;
+  }
+
+  public static boolean isGreaterThanOrEqual(Number a, Number b) {
+    return isLessThanOrEqual(b,a);
+  }
+
+  public static boolean isZero(Number n) {
+    if(n instanceof Fixnum) return ((Fixnum)n).value == 0;
+    return n instanceof Flonum && ((Flonum)n).value == 0.0; // bignums are never 0
+  }
+
+  // => NOTE: only valid for exact numbers
+  public static int signum(Number n) {
+    if(n instanceof Fixnum) return Long.signum(((Fixnum)n).value);
+    return ((Bignum)n).value.signum();
   }
-}
\ No newline at end of file
+}
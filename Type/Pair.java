@@ -1,29 +1,87 @@
 // Author: Jordan Randleman - Type.Pair
 // Purpose:
 //    Pair primitive type.
+//
+//    Note that pairs (& vectors) may be "guarded" as part of a quoted literal (see
+//    "Util.Analyzer"), in which case their literal's guard is notified upon their first
+//    mutation. Hence pairs should always be mutated via "setCar" & "setCdr".
 
 package Type;
+import java.util.ArrayList;
 import java.util.Objects;
 
-public class Pair extends Datum {
+public final class Pair extends Datum {
   ////////////////////////////////////////////////////////////////////////////
   // Car/Cdr Fields
   public Datum car;
   public Datum cdr;
 
 
+  ////////////////////////////////////////////////////////////////////////////
+  // Literal Guard Field (<null> if not part of a guarded quoted literal)
+  public LiteralGuard literalGuard = null;
+
+
   ////////////////////////////////////////////////////////////////////////////
   // Constructor
   public Pair(Datum car, Datum cdr) {
+    super(PAIR);
     this.car = car;
     this.cdr = cdr;
   }
 
 
+  ////////////////////////////////////////////////////////////////////////////
+  // Mutators
+  public void setCar(Datum newCar) {
+    if(literalGuard != null) literalGuard.notifyMutation();
+    car = newCar;
+  }
+
+  public void setCdr(Datum newCdr) {
+    if(literalGuard != null) literalGuard.notifyMutation();
+    cdr = newCdr;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Literal Guard Representation
+  // => <onFirstMutation> is triggered once any of the guarded pairs (or vectors) are first mutated
+  public static abstract class LiteralGuard {
+    private boolean isMutated = false;
+
+    protected abstract void onFirstMutation();
+
+    public void notifyMutation() {
+      if(isMutated) return;
+      isMutated = true;
+      onFirstMutation();
+    }
+  }
+
+
+  // Guards every pair & vector in <d> with <guard>
+  public static void guard(Datum d, LiteralGuard guard) {
+    while(d instanceof Pair) {
+      Pair p = (Pair)d;
+      p.literalGuard = guard;
+      guard(p.car,guard);
+      d = p.cdr;
+    }
+    if(d instanceof Vector) {
+      ((Vector)d).literalGuard = guard;
+      for(Datum item : ((Vector)d).value)
+        guard(item,guard);
+    } else if(d instanceof HomogeneousVector) {
+      ((HomogeneousVector)d).literalGuard = guard;
+    }
+  }
+
+
   ////////////////////////////////////////////////////////////////////////////
   // Static List Generator
   public static Datum List(Datum ... listContents) {
-    Datum d = new Nil();
+    Datum d = Nil.VALUE;
     for(int i = listContents.length-1; i >= 0; --i)
       d = new Pair(listContents[i],d);
     return d;
@@ -33,11 +91,8 @@ public class Pair extends Datum {
   ////////////////////////////////////////////////////////////////////////////
   // Static List Predicate
   public static boolean isList(Datum d) {
-    if(d instanceof Nil) return true;
-    if(!(d instanceof Pair)) return false;
-    Datum iterator = d;
-    while(iterator instanceof Pair) iterator = ((Pair)iterator).cdr;
-    return iterator instanceof Nil;
+    while(d.tag == PAIR) d = ((Pair)d).cdr;
+    return d.tag == NIL;
   }
 
 
@@ -48,41 +103,45 @@ public class Pair extends Datum {
   }
 
 
-  ////////////////////////////////////////////////////////////////////////////
-  // Truthiness
-  public boolean isTruthy() {
-    return true;
-  }
-
-
   ////////////////////////////////////////////////////////////////////////////
   // Equality
-  public boolean eq(Object o) {
-    return o instanceof Pair && ((Pair)o) == this;
-  }
-
+  // => Iterates down the cdrs (only recursing on cars), hence comparing lists of any length
   public boolean equals(Object o) {
-    return o instanceof Pair && ((Pair)o).car.equals(car) && ((Pair)o).cdr.equals(cdr);
+    Datum iterator = this;
+    while(iterator instanceof Pair) {
+      if(!(o instanceof Pair) || !((Pair)o).car.equals(((Pair)iterator).car)) return false;
+      iterator = ((Pair)iterator).cdr;
+      o = ((Pair)o).cdr;
+    }
+    return ((Datum)o).equals(iterator);
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
   // Hash code
+  // => Equivalent to "Objects.hash(type(),car,cdr)", folded back up the list's cdrs
   public int hashCode() {
-    return Objects.hash(type(),car,cdr);
+    ArrayList<Pair> pairs = new ArrayList<Pair>();
+    Datum iterator = this;
+    for(; iterator instanceof Pair; iterator = ((Pair)iterator).cdr)
+      pairs.add((Pair)iterator);
+    int hash = iterator.hashCode(), typeHash = type().hashCode();
+    for(int i = pairs.size()-1; i >= 0; --i)
+      hash = Objects.hash(typeHash,pairs.get(i).car,hash);
+    return hash;
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
   // Serialization
   public java.lang.String display() {
-    if(!(cdr instanceof Pair) && !(cdr instanceof Nil)) { // printing non-list pair
+    if(cdr.tag != PAIR && cdr.tag != NIL) { // printing non-list pair
       return "(" + car.display() + " . " + cdr.display() + ")";
     } else { // printing a list
       Datum iterator = this;
       boolean addSpace = false;
       StringBuilder list = new StringBuilder("(");
-      while(iterator instanceof Pair) {
+      while(iterator.tag == PAIR) {
         if(addSpace) {
           list.append(' ');
         } else {
@@ -91,7 +150,7 @@ public class Pair extends Datum {
         list.append(((Pair)iterator).car.display());
         iterator = ((Pair)iterator).cdr;
       }
-      if(!(iterator instanceof Nil)) { // dotted list
+      if(iterator.tag != NIL) { // dotted list
         list.append(" . ");
         list.append(iterator.display());
       }
@@ -101,13 +160,13 @@ public class Pair extends Datum {
   }
 
   public java.lang.String write() {
-    if(!(cdr instanceof Pair) && !(cdr instanceof Nil)) { // printing non-list pair
+    if(cdr.tag != PAIR && cdr.tag != NIL) { // printing non-list pair
       return "(" + car.write() + " . " + cdr.write() + ")";
     } else { // printing a list
       Datum iterator = this;
       boolean addSpace = false;
       StringBuilder list = new StringBuilder("(");
-      while(iterator instanceof Pair) {
+      while(iterator.tag == PAIR) {
         if(addSpace) {
           list.append(' ');
         } else {
@@ -116,7 +175,7 @@ public class Pair extends Datum {
         list.append(((Pair)iterator).car.write());
         iterator = ((Pair)iterator).cdr;
       }
-      if(!(iterator instanceof Nil)) { // dotted list
+      if(iterator.tag != NIL) { // dotted list
         list.append(" . ");
         list.append(iterator.write());
       }
@@ -128,7 +187,16 @@ public class Pair extends Datum {
 
   ////////////////////////////////////////////////////////////////////////////
   // Copying
+  // => Iterates down the cdrs (only recursing on cars), hence copying lists of any length
   public Datum copy() {
-    return new Pair(car.copy(),cdr.copy());
+    Pair head = new Pair(car.copy(),cdr);
+    Pair tail = head;
+    while(tail.cdr instanceof Pair) {
+      Pair next = (Pair)tail.cdr;
+      tail.cdr = new Pair(next.car.copy(),next.cdr);
+      tail = (Pair)tail.cdr;
+    }
+    tail.cdr = tail.cdr.copy();
+    return head;
   }
 }
\ No newline at end of file
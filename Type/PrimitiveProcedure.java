@@ -7,7 +7,7 @@ package Type;
 import java.util.ArrayList;
 import java.util.Objects;
 
-public class PrimitiveProcedure extends Procedure {
+public final class PrimitiveProcedure extends Procedure {
   ////////////////////////////////////////////////////////////////////////////
   // Internal primitive procedure field
   private Primitive prm;
@@ -16,11 +16,19 @@ public class PrimitiveProcedure extends Procedure {
   ////////////////////////////////////////////////////////////////////////////
   // Constructor
   public PrimitiveProcedure(java.lang.String name, Primitive prm) {
+    super(PRIMITIVE_PROCEDURE);
     this.name = name;
     this.prm = prm;
   }
 
 
+  ////////////////////////////////////////////////////////////////////////////
+  // Wrapped Primitive Accessor (lets primitives recognize & inline other primitives)
+  public Primitive primitive() {
+    return prm;
+  }
+
+
   ////////////////////////////////////////////////////////////////////////////
   // Application Abstraction
   public Datum callWith(Environment currentEnv, ArrayList<Datum> arguments) throws Exception {
@@ -25,6 +25,13 @@ public abstract class Procedure extends Datum {
   public java.lang.String name = DEFAULT_NAME;
 
 
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructor
+  protected Procedure(int tag) {
+    super(tag);
+  }
+
+
   ////////////////////////////////////////////////////////////////////////////
   // Name binding (used by Environment.java)
   public void bindName(java.lang.String name) {
@@ -44,19 +51,8 @@ public abstract class Procedure extends Datum {
   }
 
 
-  ////////////////////////////////////////////////////////////////////////////
-  // Truthiness
-  public boolean isTruthy() {
-    return true;
-  }
-
-
   ////////////////////////////////////////////////////////////////////////////
   // Equality
-  public boolean eq(Object o) {
-    return o instanceof Procedure && (Procedure)o == this;
-  }
-
   public boolean equals(Object o) {
     return eq(o);
   }
@@ -0,0 +1,62 @@
+// Author: Jordan Randleman - Type.S64Vector
+// Purpose:
+//    Homogeneous vector of exact signed 64-bit integers, a Java "long[]" under the hood
+//    (see "Type.HomogeneousVector").
+
+package Type;
+import java.util.Arrays;
+
+public final class S64Vector extends HomogeneousVector {
+  ////////////////////////////////////////////////////////////////////////////
+  // Value Field (the backing array, shared by slices)
+  public final long[] value;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructors
+  public S64Vector(long[] items) {
+    this(items,0,items.length);
+  }
+
+  public S64Vector(long[] items, int start, int length) {
+    super(S64VECTOR,start,length);
+    value = items;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Element Type Prefix
+  public java.lang.String prefix() {
+    return "s64";
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Element Access
+  public Number ref(int i) {
+    return Number.valueOf(value[start+i]);
+  }
+
+  public boolean isValidElement(Datum d) {
+    return d instanceof Fixnum; // bignums never fit in a "long"
+  }
+
+  public void set(int i, Datum d) {
+    notifyMutation();
+    value[start+i] = ((Fixnum)d).value;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Slicing
+  public HomogeneousVector slice(int start, int end) {
+    return new S64Vector(value,this.start+start,end-start).guardedBy(literalGuard);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Copying
+  public HomogeneousVector copy() {
+    return new S64Vector(Arrays.copyOfRange(value,start,start+length));
+  }
+}
@@ -5,7 +5,7 @@
 package Type;
 import java.util.Objects;
 
-public class String extends Datum {
+public final class String extends Datum {
   ////////////////////////////////////////////////////////////////////////////
   // Value Field
   public java.lang.String value = "";
@@ -14,6 +14,7 @@ public class String extends Datum {
   ////////////////////////////////////////////////////////////////////////////
   // Constructor
   public String(java.lang.String s) {
+    super(STRING);
     value = s;
   }
 
@@ -25,19 +26,8 @@ public class String extends Datum {
   }
 
 
-  ////////////////////////////////////////////////////////////////////////////
-  // Truthiness
-  public boolean isTruthy() {
-    return true;
-  }
-
-
   ////////////////////////////////////////////////////////////////////////////
   // Equality
-  public boolean eq(Object o) {
-    return o instanceof String && ((String)o).value.equals(value);
-  }
-
   public boolean equals(Object o) {
     return eq(o);
   }
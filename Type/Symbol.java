@@ -1,43 +1,63 @@
 // Author: Jordan Randleman - Type.Symbol
 // Purpose:
 //    Symbol primitive type, used extensively in metaprogramming.
+//
+//    Symbols are interned: every name maps to exactly 1 symbol object (see "intern"),
+//    hence symbols are compared by reference & hash in constant time. This lets the
+//    evaluator detect special forms & key environments without any string comparisons.
+//
+//    The symbol table only weakly references its symbols, hence symbols generated at runtime
+//    (e.g. by <string->symbol>) are still garbage collected once unreachable. Doing so is
+//    unobservable: identity only matters while a symbol is reachable to be compared.
 
 package Type;
-import java.util.Objects;
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
 
-public class Symbol extends Datum {
+public final class Symbol extends Datum {
   ////////////////////////////////////////////////////////////////////////////
-  // Value Field
-  public java.lang.String value = "";
+  // Symbol Table (maps names to their unique symbol)
+  // => Keyed by each symbol's own <value>, hence entries live exactly as long as their symbol
+  private static WeakHashMap<java.lang.String,WeakReference<Symbol>> symbolTable = new WeakHashMap<java.lang.String,WeakReference<Symbol>>();
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Constructor
-  public Symbol(java.lang.String s) {
+  // Value Fields
+  public final java.lang.String value;
+  private final int hash;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructor (private to enforce interning)
+  private Symbol(java.lang.String s) {
+    super(SYMBOL);
     value = s;
+    hash = s.hashCode();
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Type
-  public java.lang.String type() {
-    return "symbol";
+  // Interning: returns THE symbol named <s>
+  public static Symbol intern(java.lang.String s) {
+    WeakReference<Symbol> ref = symbolTable.get(s);
+    Symbol sym = ref == null ? null : ref.get();
+    if(sym == null) {
+      sym = new Symbol(s);
+      symbolTable.put(sym.value,new WeakReference<Symbol>(sym));
+    }
+    return sym;
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Truthiness
-  public boolean isTruthy() {
-    return true;
+  // Type
+  public java.lang.String type() {
+    return "symbol";
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
   // Equality
-  public boolean eq(Object o) {
-    return o instanceof Symbol && ((Symbol)o).value.equals(value);
-  }
-
   public boolean equals(Object o) {
     return eq(o);
   }
@@ -46,7 +66,7 @@ public class Symbol extends Datum {
   ////////////////////////////////////////////////////////////////////////////
   // Hash code
   public int hashCode() {
-    return Objects.hash(type(),value);
+    return hash;
   }
 
 
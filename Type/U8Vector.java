@@ -0,0 +1,63 @@
+// Author: Jordan Randleman - Type.U8Vector
+// Purpose:
+//    Homogeneous vector of exact unsigned bytes, a Java "byte[]" under the hood (see
+//    "Type.HomogeneousVector"). Java's "byte"s are signed, hence elements are masked with
+//    <0xff> when read.
+
+package Type;
+import java.util.Arrays;
+
+public final class U8Vector extends HomogeneousVector {
+  ////////////////////////////////////////////////////////////////////////////
+  // Value Field (the backing array, shared by slices)
+  public final byte[] value;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructors
+  public U8Vector(byte[] items) {
+    this(items,0,items.length);
+  }
+
+  public U8Vector(byte[] items, int start, int length) {
+    super(U8VECTOR,start,length);
+    value = items;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Element Type Prefix
+  public java.lang.String prefix() {
+    return "u8";
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Element Access
+  public Number ref(int i) {
+    return Number.valueOf(value[start+i] & 0xff);
+  }
+
+  public boolean isValidElement(Datum d) {
+    return d instanceof Fixnum && ((Fixnum)d).value >= 0 && ((Fixnum)d).value <= 255;
+  }
+
+  public void set(int i, Datum d) {
+    notifyMutation();
+    value[start+i] = (byte)((Fixnum)d).value;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Slicing
+  public HomogeneousVector slice(int start, int end) {
+    return new U8Vector(value,this.start+start,end-start).guardedBy(literalGuard);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Copying
+  public HomogeneousVector copy() {
+    return new U8Vector(Arrays.copyOfRange(value,start,start+length));
+  }
+}
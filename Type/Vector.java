@@ -0,0 +1,102 @@
+// Author: Jordan Randleman - Type.Vector
+// Purpose:
+//    Vector primitive type, a fixed-length Java "Datum[]" under the hood (hence providing
+//    O(1) indexed access, unlike lists).
+//
+//    Note that vectors may be "guarded" as part of a quoted literal (see "Type.Pair"), hence
+//    vectors should always be mutated via "set" & "fill".
+
+package Type;
+import java.util.Arrays;
+import java.util.Objects;
+
+public final class Vector extends Datum {
+  ////////////////////////////////////////////////////////////////////////////
+  // Value Field
+  public final Datum[] value;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Literal Guard Field (<null> if not part of a guarded quoted literal)
+  public Pair.LiteralGuard literalGuard = null;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constructor
+  public Vector(Datum[] items) {
+    super(VECTOR);
+    value = items;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Mutators
+  public void set(int i, Datum d) {
+    if(literalGuard != null) literalGuard.notifyMutation();
+    value[i] = d;
+  }
+
+  public void fill(Datum d) {
+    if(literalGuard != null) literalGuard.notifyMutation();
+    Arrays.fill(value,d);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Type
+  public java.lang.String type() {
+    return "vector";
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Equality
+  public boolean equals(Object o) {
+    if(!(o instanceof Vector)) return false;
+    Datum[] items = ((Vector)o).value;
+    if(items.length != value.length) return false;
+    for(int i = 0; i < value.length; ++i)
+      if(!value[i].equals(items[i])) return false;
+    return true;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Hash code
+  public int hashCode() {
+    return Objects.hash(type(),Arrays.hashCode(value));
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Serialization
+  public java.lang.String display() {
+    StringBuilder vector = new StringBuilder("#(");
+    for(int i = 0; i < value.length; ++i) {
+      if(i > 0) vector.append(' ');
+      vector.append(value[i].display());
+    }
+    vector.append(')');
+    return vector.toString();
+  }
+
+  public java.lang.String write() {
+    StringBuilder vector = new StringBuilder("#(");
+    for(int i = 0; i < value.length; ++i) {
+      if(i > 0) vector.append(' ');
+      vector.append(value[i].write());
+    }
+    vector.append(')');
+    return vector.toString();
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Copying
+  public Datum copy() {
+    Datum[] items = new Datum[value.length];
+    for(int i = 0; i < value.length; ++i)
+      items[i] = value[i].copy();
+    return new Vector(items);
+  }
+}
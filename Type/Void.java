@@ -5,27 +5,28 @@
 package Type;
 import java.util.Objects;
 
-public class Void extends Datum {
+public final class Void extends Datum {
   ////////////////////////////////////////////////////////////////////////////
-  // Type
-  public java.lang.String type() {
-    return "void";
-  }
+  // Canonical Instance (the only void ever allocated)
+  public static final Void VALUE = new Void();
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Truthiness
-  public boolean isTruthy() {
-    return true;
+  // Constructor
+  private Void() {
+    super(VOID);
   }
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Equality
-  public boolean eq(Object o) {
-    return o instanceof Void;
+  // Type
+  public java.lang.String type() {
+    return "void";
   }
 
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Equality
   public boolean equals(Object o) {
     return eq(o);
   }
@@ -0,0 +1,2945 @@
+// Author: Jordan Randleman - Util.Analyzer
+// Purpose:
+//    Syntactic analyzer -- given an expression data structure, "Analyzer.analyze" walks
+//    that expression ONCE & converts it into a tree of executable "Analyzer.Node" objects
+//    (in the style of SICP's "analyze", section 4.1.7). Evaluating the resulting node tree
+//    in an environment no longer requires re-dispatching on special-form tags, re-validating
+//    special-form syntax, nor re-traversing the expression's pairs.
+//
+//    Note that macro applications can't be detected until runtime (a macro is just another
+//    value bound to a variable), hence application nodes hold onto their source expression
+//    in order to pass it to a macro if their operator evaluates to one.
+//
+//    Also note that expressions in a procedure body's tail position (see "analyzeBody")
+//    are analyzed as such: procedure applications there yield a "TailCall" object rather
+//    than invoking the procedure, which "Type.CompoundProcedure.callWith" then trampolines
+//    on. Hence loops written as recursion run in constant JVM stack space!
+//
+//    Variables are resolved at analysis time too: procedure bodies are analyzed within
+//    the "Type.Frame.Scope" of their procedure, such that local variable references become
+//    (depth, slot) lexical addresses into array-backed frames, & free variable references
+//    go straight to the global environment (see "resolve"). Closures only capture the
+//    local variables they actually reference, into a compact frame of their own (see
+//    "ClosureScope"), rather than retaining every frame enclosing their <lambda>.
+//
+//    Applications of common built-in primitives (<car>, <+>, <null?>, etc.) are analyzed
+//    into inline "intrinsic" operations, guarded against the primitive being rebound (see
+//    "analyzeIntrinsic"). Numeric intrinsics specialize themselves on the operand types
+//    they observe, evaluating type-stable fixnum arithmetic on unboxed longs (see "evalFixnum").
+//    Conditions are evaluated straight to their truthiness too (see "evalTest").
+//
+//    Macro applications are expanded & analyzed upon their first evaluation, after which
+//    the analyzed expansion is cached in the application node (see "Application").
+//
+//    Hot procedure bodies are further compiled into JVM bytecode, each node emitting its
+//    own code (see "Node.compile" & "Util.Compiler"). Likewise, nodes assemble themselves
+//    into register VM instructions if the VM engine is selected (see "Node.assemble" &
+//    "Util.VirtualMachine").
+//
+//    Further note that syntax errors are deferred until their expression is actually
+//    evaluated (exactly as if the raw expression were being evaluated directly), since
+//    an analyzed expression may well be a macro argument that never gets evaluated!
+
+package Util;
+import Type.Datum;
+import Type.Environment;
+import Type.Frame;
+import Type.Frame.Scope;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+public class Analyzer {
+  ////////////////////////////////////////////////////////////////////////////
+  // Executable Node Contract
+  public static abstract class Node {
+    public abstract Datum eval(Environment env) throws Exception;
+
+    // Specialized evaluation yielding the node's value as an unboxed fixnum
+    // => Throws an "UnexpectedResult" holding the value if it isn't a fixnum
+    public long evalFixnum(Environment env) throws Exception {
+      return unboxFixnum(eval(env));
+    }
+
+    // Specialized evaluation yielding the node's truthiness (sparing a boolean's allocation)
+    public boolean evalTest(Environment env) throws Exception {
+      return eval(env).isTruthy();
+    }
+
+    protected static long unboxFixnum(Datum value) throws UnexpectedResult {
+      if(value instanceof Type.Fixnum) return ((Type.Fixnum)value).value;
+      throw new UnexpectedResult(value);
+    }
+
+    // Emits JVM bytecode yielding the node's value (see "Util.Compiler")
+    // => Defaults to invoking <eval> on the node itself
+    public void compile(Compiler.Method m) throws Exception {
+      m.emitEval(this);
+    }
+
+    // Emits JVM bytecode yielding the node's value as an unboxed fixnum (a <long>), or jumping
+    // to <fallback> (with the node's value stored in its local) if it isn't a fixnum
+    public void compileFixnum(Compiler.Method m, Compiler.Fallback fallback) throws Exception {
+      compile(m);
+      m.store(fallback.value);
+      m.emitInstanceCheck(fallback.value,"Type/Fixnum",fallback.label);
+      m.emitLoadFixnum(fallback.value);
+    }
+
+    // Emits JVM bytecode jumping to <falseLabel> iff the node's value is falsey
+    public void compileTest(Compiler.Method m, Compiler.Label falseLabel) throws Exception {
+      compile(m);
+      m.emitIsTruthy();
+      m.jump(Compiler.IFEQ,falseLabel);
+    }
+
+    // Emits VM instructions evaluating the node into register <target> (see "Util.VirtualMachine")
+    // => Defaults to an <EVAL> instruction on the node itself
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      a.emit(VirtualMachine.EVAL,target,a.constant(this));
+    }
+
+    // Emits VM instructions jumping to <falseLabel> iff the node's value is falsey
+    public void assembleTest(VirtualMachine.Assembler a, int falseLabel) throws Exception {
+      int condition = a.newRegister();
+      assemble(a,condition);
+      a.emitJump(falseLabel,VirtualMachine.JUMP_IF_FALSE,condition);
+    }
+  }
+
+
+  // Thrown by specialized evaluations whose result doesn't fit their specialization
+  // => NOTE: never escapes the node that requested the specialized evaluation!
+  public static class UnexpectedResult extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public Datum value;
+
+    public UnexpectedResult(Datum value) {
+      super(null,null,false,false); // no stack trace: only used to despecialize nodes
+      this.value = value;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Special Form Tags (symbols are interned, hence compared by reference)
+  private static final Type.Symbol DEFINE_MACRO = Type.Symbol.intern("define-macro");
+  private static final Type.Symbol DEFINE = Type.Symbol.intern("define");
+  private static final Type.Symbol DEF = Type.Symbol.intern("def");
+  private static final Type.Symbol SET = Type.Symbol.intern("set!");
+  private static final Type.Symbol IF = Type.Symbol.intern("if");
+  private static final Type.Symbol LAMBDA = Type.Symbol.intern("lambda");
+  private static final Type.Symbol BEGIN = Type.Symbol.intern("begin");
+  private static final Type.Symbol QUOTE = Type.Symbol.intern("quote");
+  private static final Type.Symbol QUASIQUOTE = Type.Symbol.intern("quasiquote");
+  private static final Type.Symbol LET = Type.Symbol.intern("let");
+  private static final Type.Symbol LET_STAR = Type.Symbol.intern("let*");
+  private static final Type.Symbol LETREC = Type.Symbol.intern("letrec");
+  private static final Type.Symbol COND = Type.Symbol.intern("cond");
+  private static final Type.Symbol ELSE = Type.Symbol.intern("else");
+  private static final Type.Symbol AND = Type.Symbol.intern("and");
+  private static final Type.Symbol OR = Type.Symbol.intern("or");
+  private static final Type.Symbol WHEN = Type.Symbol.intern("when");
+  private static final Type.Symbol UNLESS = Type.Symbol.intern("unless");
+  private static final Type.Symbol PERIOD = Type.Symbol.intern(".");
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Helper(s)
+  public static boolean isTaggedList(Type.Pair p, Type.Symbol tag) throws Exception {
+    return p.car == tag;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing lexical addresses (variable locations resolved at analysis time)
+  // => NOTE: addresses are guarded against dynamic bindings (see "Type.Frame"), 
+  //          falling back on name-based lookups if any could be shadowing them!
+  // => NOTE: addresses are also VM constants (see "VirtualMachine.LOCAL" & "GLOBAL")
+  static abstract class Address {
+    protected Type.Symbol name;
+    private Scope scope;             // scope the address was resolved in
+    private int totalShadowingScopes; // total scopes (from <scope> outwards) that could shadow the variable
+    private int checkedVersion = -1;
+    private boolean isShadowed = false;
+
+    public Address(Type.Symbol name, Scope scope, int totalShadowingScopes) {
+      this.name = name;
+      this.scope = scope;
+      this.totalShadowingScopes = totalShadowingScopes;
+    }
+
+    protected boolean isShadowed() {
+      if(checkedVersion != Scope.dynamicBindingsVersion) {
+        checkedVersion = Scope.dynamicBindingsVersion;
+        isShadowed = false;
+        Scope iterator = scope;
+        for(int i = 0; iterator != null && i < totalShadowingScopes; ++i, iterator = iterator.parent) {
+          if(iterator.hasDynamicBindings) {
+            isShadowed = true;
+            break;
+          }
+        }
+      }
+      return isShadowed;
+    }
+
+    public abstract Datum get(Environment env) throws Exception;
+    public abstract void set(Environment env, Datum value) throws Exception;
+  }
+
+
+  // Variable in slot <slot> of the frame <depth> frames up from the current one
+  private static class LocalAddress extends Address {
+    private int depth;
+    private int slot;
+    private boolean isAssigned; // whether closures must share (rather than copy) the variable
+
+    public LocalAddress(Type.Symbol name, Scope scope, int depth, int slot, boolean isAssigned) {
+      super(name,scope,depth);
+      this.depth = depth;
+      this.slot = slot;
+      this.isAssigned = isAssigned;
+    }
+
+    private Frame getFrame(Environment env) {
+      for(int i = 0; i < depth; ++i)
+        env = env.getSuperEnvironment();
+      return (Frame)env;
+    }
+
+    // Unbound slots (<null>) fall back on outer bindings, as if the variable were yet to be defined
+    public Datum get(Environment env) throws Exception {
+      if(!isShadowed()) {
+        Datum value = getFrame(env).getSlot(slot);
+        if(value != null) return value;
+      }
+      return env.get(name);
+    }
+
+    public void set(Environment env, Datum value) throws Exception {
+      if(!isShadowed()) {
+        Frame frame = getFrame(env);
+        if(frame.getSlot(slot) != null) {
+          frame.setSlot(slot,value);
+          return;
+        }
+      }
+      env.set(name,value);
+    }
+
+    // Yields the variable's value (or its cell, if assigned) to be captured by a closure
+    public Object capture(Environment env) throws Exception {
+      if(!isAssigned || isShadowed()) return get(env);
+      return getFrame(env).getCell(slot);
+    }
+  }
+
+
+  // Variable in the global environment (ie not in any enclosing scope)
+  // => NOTE: caches the variable's binding cell once it has been defined (an inline cache),
+  //          which remains valid across redefinitions since cells are updated in place!
+  private static class GlobalAddress extends Address {
+    private Environment.Binding binding = null;
+
+    public GlobalAddress(Type.Symbol name, Scope scope, int totalScopes) {
+      super(name,scope,totalScopes);
+    }
+
+    private static Environment getGlobalEnvironment(Environment env) {
+      if(env instanceof Frame) return ((Frame)env).getGlobalEnvironment();
+      return env;
+    }
+
+    public Datum get(Environment env) throws Exception {
+      if(isShadowed()) return env.get(name);
+      if(binding == null) {
+        Environment globalEnv = getGlobalEnvironment(env);
+        binding = globalEnv.getBinding(name);
+        if(binding == null) return globalEnv.get(name); // throws the unbound variable error
+      }
+      return binding.value;
+    }
+
+    public void set(Environment env, Datum value) throws Exception {
+      if(isShadowed()) {
+        env.set(name,value);
+      } else {
+        getGlobalEnvironment(env).set(name,value);
+      }
+    }
+  }
+
+
+  // => NOTE: resolving a variable of a scope enclosing a closure captures it (see "ClosureScope")
+  private static Address resolve(Type.Symbol name, Scope scope) {
+    int depth = 0;
+    for(Scope iterator = scope; iterator != null; iterator = iterator.parent, ++depth) {
+      int slot = iterator.indexOf(name);
+      if(slot == -1 && iterator instanceof ClosureScope) slot = ((ClosureScope)iterator).capture(name);
+      if(slot != -1) return new LocalAddress(name,scope,depth,slot,iterator.isAssigned(slot));
+    }
+    return new GlobalAddress(name,scope,depth);
+  }
+
+
+  // Returns whether <name> is a local variable in <scope> (without capturing it)
+  private static boolean isLocalVariable(Type.Symbol name, Scope scope) {
+    for(Scope iterator = scope; iterator != null; iterator = iterator.parent) {
+      if(iterator.indexOf(name) != -1) return true;
+      if(iterator instanceof ClosureScope) return isLocalVariable(name,((ClosureScope)iterator).enclosing);
+    }
+    return false;
+  }
+
+
+  // Returns the slot of <name> in <scope>, or -1 if <name> must be defined by name
+  private static int slotOf(Type.Symbol name, Scope scope) {
+    if(scope == null) return -1;
+    return scope.indexOf(name);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Scanning procedure bodies for the variables they define
+  // => Registers in <scope> every variable that <d> could define in its frame, hence 
+  //    skipping nested procedure/macro/<let> bodies & quoted data. Note that registering 
+  //    too many variables is harmless (their slots simply remain unbound).
+  private static void scanDefinitions(Datum d, Scope scope) {
+    if(!(d instanceof Type.Pair)) return;
+    Type.Pair p = (Type.Pair)d;
+    try {
+      if(isTaggedList(p,QUOTE) || isTaggedList(p,QUASIQUOTE) || isTaggedList(p,LAMBDA)) return;
+      if(isTaggedList(p,LET) || isTaggedList(p,LET_STAR) || isTaggedList(p,LETREC)) return;
+      if(isTaggedList(p,DEFINE_MACRO)) scope.hasMacros = true;
+      if(isTaggedList(p,DEFINE) || isTaggedList(p,DEF) || isTaggedList(p,DEFINE_MACRO)) {
+        Datum target = Core.cadr(p);
+        Type.Symbol name = null;
+        if(target instanceof Type.Symbol) {
+          name = (Type.Symbol)target;
+          scope.add(name);
+          scanDefinitions(Core.cddr(p),scope);
+        } else if(target instanceof Type.Pair && ((Type.Pair)target).car instanceof Type.Symbol) {
+          name = (Type.Symbol)((Type.Pair)target).car;
+          scope.add(name);
+        }
+        if(name != null) {
+          scope.markAssigned(name);
+          if(isProcedureDefinition(p)) scope.markProcedure(name);
+          else scope.markNonProcedure(name);
+        }
+        return;
+      }
+    } catch(Exception e) {
+      return; // malformed expressions can't define anything
+    }
+    for(Datum iterator = p; iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr)
+      scanDefinitions(((Type.Pair)iterator).car,scope);
+  }
+
+
+  // Marks every variable of <scope> that <d> could <set!> as assigned (see "Type.Frame.Scope")
+  // => NOTE: nested procedure bodies are scanned too, since they may assign captured variables.
+  //          Marking too many variables is harmless (closures just share them via a cell).
+  private static void scanAssignments(Datum d, Scope scope) {
+    if(!(d instanceof Type.Pair)) return;
+    Type.Pair p = (Type.Pair)d;
+    if(p.car == QUOTE) return;
+    if(p.car == SET && p.cdr instanceof Type.Pair && ((Type.Pair)p.cdr).car instanceof Type.Symbol) {
+      scope.markAssigned((Type.Symbol)((Type.Pair)p.cdr).car);
+      scope.markNonProcedure((Type.Symbol)((Type.Pair)p.cdr).car);
+    }
+    for(Datum iterator = p; iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr)
+      scanAssignments(((Type.Pair)iterator).car,scope);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Scanning for applications of operators unknown at analysis time
+  // => Macros are runtime values, hence an operator that isn't known to be a procedure when
+  //    its application is analyzed may turn out to be a macro, whose expansion (analyzed upon
+  //    its first evaluation) can reference & <set!> ANY variable in scope. Known operators are
+  //    core forms, <lambda>s, local procedure definitions that are never <set!> (including
+  //    named <let>s), & global variables bound to procedures (or being defined as such).
+  // => NOTE: a global procedure later rebound to a macro is still assumed to be a procedure.
+  private static HashSet<Type.Symbol> globalProcedureDefinitions = new HashSet<Type.Symbol>(); // being analyzed
+
+
+  // Returns whether the <define> or <def> expression <p> binds a <lambda>
+  private static boolean isProcedureDefinition(Type.Pair p) throws Exception {
+    if(!isTaggedList(p,DEFINE) && !isTaggedList(p,DEF)) return false;
+    if(Core.cadr(p) instanceof Type.Pair) return true; // (define (<name> <param> ...) <body> ...)
+    Datum value = Core.cddr(p) instanceof Type.Pair ? Core.caddr(p) : null;
+    return value instanceof Type.Pair && isTaggedList((Type.Pair)value,LAMBDA);
+  }
+
+
+  private static void addParameters(Datum params, HashSet<Type.Symbol> binders) {
+    for(; params instanceof Type.Pair; params = ((Type.Pair)params).cdr)
+      if(((Type.Pair)params).car instanceof Type.Symbol) binders.add((Type.Symbol)((Type.Pair)params).car);
+    if(params instanceof Type.Symbol) binders.add((Type.Symbol)params);
+  }
+
+
+  // The variables bound by an expression, & the symbols it applies
+  private static class Applications {
+    public HashSet<Type.Symbol> procedures = new HashSet<Type.Symbol>(); // bound to <lambda>s
+    public HashSet<Type.Symbol> binders = new HashSet<Type.Symbol>(); // (possibly) bound to anything else
+    public ArrayList<Type.Symbol> operators = new ArrayList<Type.Symbol>();
+  }
+
+
+  // Scans each expression in the list <d> (see "scanApplication")
+  private static boolean scanApplications(Datum d, Applications applications) throws Exception {
+    for(; d instanceof Type.Pair; d = ((Type.Pair)d).cdr)
+      if(scanApplication(((Type.Pair)d).car,applications)) return true;
+    return false;
+  }
+
+
+  // Collects the variables that <d> (conservatively) binds, & the symbols it applies, into
+  // <applications>. Returns whether <d> applies an operator that's neither a symbol nor a
+  // <lambda> (or defines a macro), which is unknown regardless of what's been collected.
+  private static boolean scanApplication(Datum d, Applications applications) throws Exception {
+    if(!(d instanceof Type.Pair)) return false;
+    Type.Pair p = (Type.Pair)d;
+    if(isTaggedList(p,QUOTE)) return false;
+    if(isTaggedList(p,DEFINE_MACRO)) return true;
+    if(isTaggedList(p,LAMBDA)) {
+      addParameters(Core.cadr(p),applications.binders);
+      return scanApplications(Core.cddr(p),applications);
+    }
+    if(isTaggedList(p,DEFINE) || isTaggedList(p,DEF) || isTaggedList(p,SET)) {
+      Datum target = Core.cadr(p);
+      if(target instanceof Type.Pair) { // (define (<name> <param> ...) <body> ...)
+        if(Core.car(target) instanceof Type.Symbol) applications.procedures.add((Type.Symbol)Core.car(target));
+        addParameters(Core.cdr(target),applications.binders);
+      } else if(target instanceof Type.Symbol) {
+        if(isProcedureDefinition(p)) applications.procedures.add((Type.Symbol)target);
+        else applications.binders.add((Type.Symbol)target);
+      }
+      return scanApplications(Core.cddr(p),applications);
+    }
+    if(isTaggedList(p,LET) || isTaggedList(p,LET_STAR) || isTaggedList(p,LETREC)) {
+      Datum rest = p.cdr;
+      if(Core.car(rest) instanceof Type.Symbol) { // named let
+        applications.procedures.add((Type.Symbol)Core.car(rest));
+        rest = Core.cdr(rest);
+      }
+      for(Datum bindings = Core.car(rest); bindings instanceof Type.Pair; bindings = Core.cdr(bindings)) {
+        Datum binding = Core.car(bindings);
+        if(Core.car(binding) instanceof Type.Symbol) applications.binders.add((Type.Symbol)Core.car(binding));
+        if(scanApplications(Core.cdr(binding),applications)) return true;
+      }
+      return scanApplications(Core.cdr(rest),applications);
+    }
+    if(isTaggedList(p,COND)) {
+      for(Datum clauses = p.cdr; clauses instanceof Type.Pair; clauses = Core.cdr(clauses))
+        if(scanApplications(Core.car(clauses),applications)) return true;
+      return false;
+    }
+    if(isTaggedList(p,IF) || isTaggedList(p,BEGIN) || isTaggedList(p,AND) || isTaggedList(p,OR) ||
+       isTaggedList(p,WHEN) || isTaggedList(p,UNLESS))
+      return scanApplications(p.cdr,applications);
+    if(p.car instanceof Type.Symbol) {
+      applications.operators.add((Type.Symbol)p.car);
+    } else if(!(p.car instanceof Type.Pair) || !isTaggedList((Type.Pair)p.car,LAMBDA)) {
+      return true;
+    }
+    return scanApplications(p,applications);
+  }
+
+
+  // Returns whether <name> is a local variable in <scope> only ever bound to procedures
+  private static boolean isLocalProcedure(Type.Symbol name, Scope scope) {
+    for(Scope iterator = scope; iterator != null; iterator = iterator.parent) {
+      int slot = iterator.indexOf(name);
+      if(slot != -1) return iterator.isProcedure(slot);
+      if(iterator instanceof ClosureScope) return isLocalProcedure(name,((ClosureScope)iterator).enclosing);
+    }
+    return false;
+  }
+
+
+  private static boolean isKnownOperator(Type.Symbol operator, Applications applications, Scope scope) {
+    if(applications.binders.contains(operator)) return false;
+    if(isLocalVariable(operator,scope)) return isLocalProcedure(operator,scope);
+    if(applications.procedures.contains(operator) || globalProcedureDefinitions.contains(operator)) return true;
+    Environment.Binding binding = Runtime.globalEnvironment.getBinding(operator);
+    return binding != null && binding.value instanceof Type.Procedure;
+  }
+
+
+  // Returns whether <d> (analyzed in <scope>) may apply an operator unknown at analysis time
+  private static boolean appliesUnknownOperator(Datum d, Scope scope) {
+    Applications applications = new Applications();
+    try {
+      if(scanApplication(d,applications)) return true;
+    } catch(Exception e) {
+      return true; // malformed expressions are conservatively unknown
+    }
+    for(Type.Symbol operator : applications.operators)
+      if(!isKnownOperator(operator,applications,scope)) return true;
+    return false;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing invalid syntax (throws the analysis error once evaluated)
+  private static class Invalid extends Node {
+    private Exception error;
+
+    public Invalid(Exception error) {
+      this.error = error;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      throw error;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing <define-macro>
+  private static void validateDefineMacro(Datum d) throws Exception {
+    if(Core.cadr(d) instanceof Type.Pair) {
+      if(!(Core.caadr(d) instanceof Type.Symbol))
+        throw new Exceptionf("Invalid 'define-macro Syntax (non-symbol macro name): %s", d.write());
+      if(!(Core.cadadr(d) instanceof Type.Symbol))
+        throw new Exceptionf("Invalid 'define-macro Syntax (non-symbol macro arg): %s", d.write());
+      if(!(Core.cddadr(d) instanceof Type.Nil))
+        throw new Exceptionf("Invalid 'define-macro Syntax (too many args: only accepts 1): %s", d.write());
+      if(Core.cddr(d) instanceof Type.Nil)
+        throw new Exceptionf("Invalid 'define-macro Syntax (missing macro body): %s", d.write());
+    } else {
+      throw new Exceptionf("Invalid 'define-macro Syntax (no macro-name & macro-argument list): %s", d.write());
+    }
+  }
+
+
+  private static class DefineMacro extends Node {
+    private Type.Symbol macroName;
+    private int slot; // -1 if <macroName> isn't a slot in the current scope
+    private String macroArg;
+    private Scope macroScope;
+    private Node body;
+
+    public DefineMacro(Type.Symbol macroName, int slot, String macroArg, Scope macroScope, Node body) {
+      this.macroName = macroName;
+      this.slot = slot;
+      this.macroArg = macroArg;
+      this.macroScope = macroScope;
+      this.body = body;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      Frame.markCaptured(env);
+      Type.Macro macro = new Type.Macro(macroArg,macroScope,body,env);
+      if(slot == -1) {
+        env.define(macroName,macro);
+      } else {
+        ((Frame)env).setSlot(slot,macro);
+      }
+      return Type.Void.VALUE;
+    }
+  }
+
+
+  private static Node analyzeDefineMacro(Datum d, Scope scope) throws Exception {
+    validateDefineMacro(d);
+    Type.Symbol macroName = (Type.Symbol)Core.caadr(d);
+    String macroArg = ((Type.Symbol)Core.cadadr(d)).value;
+    ArrayList<String> parameters = new ArrayList<String>();
+    parameters.add(macroArg);
+    Scope macroScope = new Scope(parameters,scope);
+    capturesFrame = true;
+    return new DefineMacro(macroName,slotOf(macroName,scope),macroArg,macroScope,analyzeBody(Core.cddr(d),macroScope));
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing <define>
+  private static void validateDefine(Datum d) throws Exception {
+    if(Core.cadr(d) instanceof Type.Symbol) {
+      if(!(Core.cdddr(d) instanceof Type.Nil))
+        throw new Exceptionf("Invalid 'define Syntax (too many variable values): %s", d.write());
+    } else if(Core.cadr(d) instanceof Type.Pair) {
+      if(!(Core.caadr(d) instanceof Type.Symbol))
+        throw new Exceptionf("Invalid 'define Syntax (non-symbol function name): %s", d.write());
+      if(Core.cddr(d) instanceof Type.Nil)
+        throw new Exceptionf("Invalid 'define Syntax (missing function body): %s", d.write());
+    } else {
+      throw new Exceptionf("Invalid 'define Syntax (can't define a literal to a another value!): %s", d.write());
+    }
+  }
+
+
+  private static class Define extends Node {
+    private Type.Symbol variable;
+    private int slot; // -1 if <variable> isn't a slot in the current scope
+    private Node value;
+
+    public Define(Type.Symbol variable, int slot, Node value) {
+      this.variable = variable;
+      this.slot = slot;
+      this.value = value;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      if(slot == -1) {
+        env.define(variable,value.eval(env));
+      } else {
+        ((Frame)env).setSlot(slot,value.eval(env));
+      }
+      return Type.Void.VALUE;
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      value.assemble(a,target);
+      a.emit(VirtualMachine.DEFINE,target,slot,a.constant(variable));
+      a.emit(VirtualMachine.CONST,target,a.constant(Type.Void.VALUE));
+    }
+  }
+
+
+  private static Node analyzeDefine(Datum d, Scope scope) throws Exception {
+    validateDefine(d);
+    // Expand (define (f a ...) b ...) to be (define f (lambda (a ...) b ...))
+    if(Core.cadr(d) instanceof Type.Pair) {
+      Datum lambdaExpression = d.copy();
+      Datum variable = Core.caadr(d);
+      Core.setCar(lambdaExpression,LAMBDA);
+      Core.setCadr(lambdaExpression,Core.cdadr(lambdaExpression));
+      Datum params = Core.cadr(lambdaExpression);
+      if(params instanceof Type.Symbol) // account for unary-variadic procedure expansions
+        Core.setCadr(lambdaExpression,Type.Pair.List(PERIOD,params));
+      return analyzeDefine(Type.Pair.List(DEFINE,variable,lambdaExpression),scope);
+    }
+    Type.Symbol variable = (Type.Symbol)Core.cadr(d);
+    // Let the procedure's body know that applying <variable> doesn't apply a macro
+    boolean isGlobalProcedure = scope == null && isProcedureDefinition((Type.Pair)d) && globalProcedureDefinitions.add(variable);
+    try {
+      return new Define(variable,slotOf(variable,scope),analyzeSubexpression(Core.caddr(d),scope,false));
+    } finally {
+      if(isGlobalProcedure) globalProcedureDefinitions.remove(variable);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing <set!>
+  private static void validateSet(Datum d) throws Exception {
+    if(!(Core.cadr(d) instanceof Type.Symbol))
+      throw new Exceptionf("Invalid 'set! Syntax (can only set variables!): %s", d.write());
+    if(!(Core.cdddr(d) instanceof Type.Nil))
+      throw new Exceptionf("Invalid 'set! Syntax (only accepts 2 arguments): %s", d.write());
+  }
+
+
+  private static class Set extends Node {
+    private Address variable;
+    private Node value;
+
+    public Set(Address variable, Node value) {
+      this.variable = variable;
+      this.value = value;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      variable.set(env,value.eval(env));
+      return Type.Void.VALUE;
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      value.assemble(a,target);
+      a.emit(VirtualMachine.SET,target,a.constant(variable));
+      a.emit(VirtualMachine.CONST,target,a.constant(Type.Void.VALUE));
+    }
+  }
+
+
+  private static Node analyzeSet(Datum d, Scope scope) throws Exception {
+    validateSet(d);
+    Address variable = resolve((Type.Symbol)Core.cadr(d),scope);
+    return new Set(variable,analyzeSubexpression(Core.caddr(d),scope,false));
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing <if>
+  private static void validateIf(Datum d) throws Exception {
+    if(!(Core.cdddr(d) instanceof Type.Nil) && !(Core.cddddr(d) instanceof Type.Nil))
+      throw new Exceptionf("Invalid 'if Syntax (only accepts 2 or 3 arguments): %s", d.write());
+  }
+
+
+  private static class If extends Node {
+    private Node condition;
+    private Node consequent;
+    private Node alternative; // <null> if no alternative was given
+
+    public If(Node condition, Node consequent, Node alternative) {
+      this.condition = condition;
+      this.consequent = consequent;
+      this.alternative = alternative;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      if(condition.evalTest(env))
+        return consequent.eval(env);
+      if(alternative == null)
+        return Type.Void.VALUE;
+      return alternative.eval(env);
+    }
+
+    public void compile(Compiler.Method m) throws Exception {
+      Compiler.Label alternativeLabel = m.newLabel(), endLabel = m.newLabel();
+      condition.compileTest(m,alternativeLabel);
+      consequent.compile(m);
+      m.jump(Compiler.GOTO,endLabel);
+      m.mark(alternativeLabel);
+      if(alternative == null) m.emitVoid();
+      else alternative.compile(m);
+      m.mark(endLabel);
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      int alternativeLabel = a.newLabel(), endLabel = a.newLabel();
+      condition.assembleTest(a,alternativeLabel);
+      consequent.assemble(a,target);
+      a.emitJump(endLabel,VirtualMachine.JUMP);
+      a.mark(alternativeLabel);
+      if(alternative == null) a.emit(VirtualMachine.CONST,target,a.constant(Type.Void.VALUE));
+      else alternative.assemble(a,target);
+      a.mark(endLabel);
+    }
+  }
+
+
+  // Literal conditions prune the branch that can't be taken
+  private static Node analyzeIf(Datum d, Scope scope, boolean isTail) throws Exception {
+    validateIf(d);
+    Node condition = analyzeSubexpression(Core.cadr(d),scope,false);
+    Node consequent = analyzeSubexpression(Core.caddr(d),scope,isTail);
+    Datum alternativeExpression = Core.cdddr(d);
+    Node alternative = null;
+    if(!(alternativeExpression instanceof Type.Nil))
+      alternative = analyzeSubexpression(Core.car(alternativeExpression),scope,isTail);
+    Datum literal = literalValue(condition);
+    if(literal != null) {
+      if(literal.isTruthy()) return consequent;
+      if(alternative == null) return new Constant(Type.Void.VALUE);
+      return alternative;
+    }
+    return new If(condition,consequent,alternative);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing <lambda>
+  private static String validParameters(Datum d) throws Exception { // returns the reason for invalid params
+    Datum params = Core.cadr(d);
+    if(params instanceof Type.Nil) return null;
+    if(!(params instanceof Type.Pair)) return "non-nil & non-pair parameters given!";
+    Datum iterator = params;
+    while(iterator instanceof Type.Pair) {
+      Datum param = Core.car(iterator);
+      if(!(param instanceof Type.Symbol)) return String.format("non-symbol parameter %s found!", param.write());
+      iterator = Core.cdr(iterator);
+    }
+    if(iterator instanceof Type.Nil || iterator instanceof Type.Symbol) return null;
+    return String.format("non-symbol parameter %s found!", iterator.write());
+  }
+
+
+  private static void validateLambda(Datum d) throws Exception {
+    String paramsErrMsg = validParameters(d);
+    if(paramsErrMsg != null)
+      throw new Exceptionf("Invalid 'lambda Syntax: invalid parameters: %s", paramsErrMsg);
+    if(Core.cddr(d) instanceof Type.Nil)
+      throw new Exception("Invalid 'lambda Syntax: missing a function body!");
+  }
+
+
+  // Returns whether params are variadic & populates <parameters>
+  private static boolean extractParameters(Datum d, ArrayList<String> parameters) throws Exception {
+    Datum params = Core.cadr(d);
+    if(params instanceof Type.Nil) return false;
+    if(isTaggedList((Type.Pair)params,PERIOD)) {
+      parameters.add(((Type.Symbol)Core.cadr(params)).value);
+      return true;
+    }
+    while(params instanceof Type.Pair) {
+      parameters.add(((Type.Symbol)Core.car(params)).value);
+      params = Core.cdr(params);
+    }
+    if(params instanceof Type.Nil) return false;
+    parameters.add(((Type.Symbol)params).value);
+    return true;
+  }
+
+
+  // The variables a closure captures from the scopes enclosing its <lambda>
+  // => Closures don't retain their definition environment: each one gets a frame of its own
+  //    (whose parent is the global environment) holding only the local variables its body
+  //    references. Such variables are registered as they get resolved while analyzing the
+  //    body (see "resolve"), hence the scope is sealed once the body has been analyzed.
+  // => NOTE: captured variables that may be assigned are shared via a cell rather than copied 
+  //          (see "Type.Frame"). Code analyzed at runtime (<eval>'d expressions & the expansions
+  //          of macros unknown to the expander) can't see variables that weren't captured though,
+  //          hence closures mentioning <eval>/<expand>/<load>/<define-macro>, applying any
+  //          operator not known to be a procedure (see "appliesUnknownOperator"), or nested in
+  //          scopes with macros or dynamic bindings, retain their definition environment
+  //          instead (see "isFlattenable"). Since such code may also <set!> any variable in
+  //          scope, scopes applying unknown operators share all of their variables via cells
+  //          (see "analyzeBody").
+  static class ClosureScope extends Scope {
+    private Scope enclosing;
+    private ArrayList<LocalAddress> captures = new ArrayList<LocalAddress>(); // in <enclosing>
+    private boolean isSealed = false;
+
+    public ClosureScope(Scope enclosing) {
+      super(new ArrayList<String>(),null);
+      this.enclosing = enclosing;
+    }
+
+    // Returns the slot capturing <name>, or -1 if it isn't a local variable of an enclosing scope
+    public int capture(Type.Symbol name) {
+      if(isSealed) return -1;
+      Address address = resolve(name,enclosing);
+      if(!(address instanceof LocalAddress)) return -1;
+      add(name);
+      if(((LocalAddress)address).isAssigned) markAssigned(name);
+      if(!isLocalProcedure(name,enclosing)) markNonProcedure(name);
+      else markProcedure(name);
+      captures.add((LocalAddress)address);
+      return size()-1;
+    }
+
+    public void seal() {
+      isSealed = true;
+    }
+
+    // Yields the definition environment of a closure created in <env>
+    public Environment createFrame(Environment env) throws Exception {
+      if(captures.isEmpty()) return GlobalAddress.getGlobalEnvironment(env);
+      Frame frame = new Frame(this,GlobalAddress.getGlobalEnvironment(env));
+      for(int i = 0, n = captures.size(); i < n; ++i)
+        frame.capture(i,captures.get(i).capture(env));
+      return frame;
+    }
+  }
+
+
+  private static final HashSet<Type.Symbol> environmentSensitiveSymbols = new HashSet<Type.Symbol>();
+
+  static {
+    environmentSensitiveSymbols.add(Type.Symbol.intern("eval"));
+    environmentSensitiveSymbols.add(Type.Symbol.intern("expand"));
+    environmentSensitiveSymbols.add(Type.Symbol.intern("load"));
+    environmentSensitiveSymbols.add(DEFINE_MACRO);
+  }
+
+
+  // Returns whether <d> mentions a primitive that operates on the environment it's called in
+  private static boolean isEnvironmentSensitive(Datum d) {
+    while(d instanceof Type.Pair) {
+      Type.Pair p = (Type.Pair)d;
+      if(p.car == QUOTE) return false;
+      if(isEnvironmentSensitive(p.car)) return true;
+      d = p.cdr;
+    }
+    return environmentSensitiveSymbols.contains(d);
+  }
+
+
+  // Returns whether <d> contains a <define> (or <def>) of <name>
+  private static boolean isDefinedIn(Datum d, Type.Symbol name) {
+    if(!(d instanceof Type.Pair)) return false;
+    Type.Pair p = (Type.Pair)d;
+    if(p.car == QUOTE) return false;
+    if((p.car == DEFINE || p.car == DEF) && p.cdr instanceof Type.Pair) {
+      Datum target = ((Type.Pair)p.cdr).car;
+      if(target instanceof Type.Pair) target = ((Type.Pair)target).car;
+      if(target == name) return true;
+    }
+    for(Datum iterator = p; iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr)
+      if(isDefinedIn(((Type.Pair)iterator).car,name)) return true;
+    return false;
+  }
+
+
+  // Returns whether compiled code may cache parameter <slot> of <code> in a JVM local (see
+  // "Compiler.Method.cacheParameters"), ie whether only applications of the procedure bind
+  // its slot: the parameter may be neither assigned nor redefined, & the body may not analyze
+  // code at runtime (which could do either)
+  public static boolean isCacheableParameter(Type.CompoundProcedure.Code code, int slot) {
+    if(code.bodyExpression == null || code.scope.isAssigned(slot)) return false;
+    return !isEnvironmentSensitive(code.bodyExpression) && !isDefinedIn(code.bodyExpression,code.scope.nameOf(slot));
+  }
+
+
+  // Returns whether the <lambda> expression <d> in <scope> may only capture the variables it references
+  private static boolean isFlattenable(Datum d, Scope scope) throws Exception {
+    Scope iterator = scope;
+    while(iterator != null) {
+      if(iterator.hasMacros || iterator.hasDynamicBindings) return false;
+      iterator = iterator instanceof ClosureScope ? ((ClosureScope)iterator).enclosing : iterator.parent;
+    }
+    return !isEnvironmentSensitive(Core.cddr(d)) && !appliesUnknownOperator(d,scope);
+  }
+
+
+  private static class Lambda extends Node {
+    private ClosureScope closureScope; // <null> if the closure retains its definition environment
+    private Type.CompoundProcedure.Code code;
+
+    public Lambda(ClosureScope closureScope, Type.CompoundProcedure.Code code) {
+      this.closureScope = closureScope;
+      this.code = code;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      if(closureScope != null) return new Type.CompoundProcedure(code,closureScope.createFrame(env));
+      Frame.markCaptured(env);
+      return new Type.CompoundProcedure(code,env);
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      a.emit(VirtualMachine.CLOSURE,target,a.constant(code),closureScope == null ? -1 : a.constant(closureScope));
+    }
+  }
+
+
+  private static Node analyzeLambda(Datum d, Scope scope) throws Exception {
+    validateLambda(d);
+    ArrayList<String> parameters = new ArrayList<String>();
+    boolean isVariadic = extractParameters(d,parameters);
+    ClosureScope closureScope = isFlattenable(d,scope) ? new ClosureScope(scope) : null;
+    Scope lambdaScope = new Scope(parameters,closureScope == null ? scope : closureScope);
+    Type.CompoundProcedure.Code code = analyzeCode(parameters,lambdaScope,Core.cddr(d),isVariadic);
+    code.bodyExpression = Core.cddr(d);
+    if(closureScope != null) {
+      closureScope.seal();
+    } else {
+      capturesFrame = true;
+    }
+    return new Lambda(closureScope,code);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Escape analysis of procedure frames
+  // => A procedure's frame may be rebound in place by its self tail calls if nothing in its
+  //    body can capture it (see "Type.CompoundProcedure.getReextendedEnvironment"). <lambda>s
+  //    only capture the variables they reference (see "ClosureScope"), hence frames only
+  //    escape via non-flattenable <lambda>s, named <let>s, & <define-macro>s. Such forms
+  //    set <capturesFrame> while analyzing the body they appear in (excluding the bodies
+  //    of nested procedures).
+  // => NOTE: code analyzed at runtime (e.g. by <eval>) can still capture a frame, hence
+  //          captures also mark the frames they retain at runtime (see "Type.Frame").
+  private static boolean capturesFrame = false;
+
+  private static Type.CompoundProcedure.Code analyzeCode(ArrayList<String> parameters, Scope scope, Datum body, boolean isVariadic) throws Exception {
+    boolean enclosingCapturesFrame = capturesFrame;
+    capturesFrame = false;
+    try {
+      Type.CompoundProcedure.Code code = new Type.CompoundProcedure.Code(parameters,scope,analyzeBody(body,scope),isVariadic);
+      code.hasReusableFrames = !capturesFrame;
+      return code;
+    } finally {
+      capturesFrame = enclosingCapturesFrame;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing <begin>
+  private static class Begin extends Node {
+    private Node[] body;
+
+    public Begin(Node[] body) {
+      this.body = body;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      Datum result = Type.Void.VALUE;
+      for(Node expression : body)
+        result = expression.eval(env);
+      return result;
+    }
+
+    public void compile(Compiler.Method m) throws Exception {
+      if(body.length == 0) {
+        m.emitVoid();
+        return;
+      }
+      for(int i = 0; i < body.length; ++i) {
+        if(i > 0) m.op(Compiler.POP);
+        body[i].compile(m);
+      }
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      if(body.length == 0) a.emit(VirtualMachine.CONST,target,a.constant(Type.Void.VALUE));
+      for(Node expression : body)
+        expression.assemble(a,target);
+    }
+  }
+
+
+  // <isTail> denotes whether the LAST expression of the sequence is in tail position
+  private static Node[] analyzeSequence(Datum d, Scope scope, boolean isTail) throws Exception {
+    ArrayList<Node> sequence = new ArrayList<Node>();
+    Datum iterator = d;
+    while(iterator instanceof Type.Pair) {
+      Datum rest = Core.cdr(iterator);
+      sequence.add(analyzeSubexpression(Core.car(iterator),scope,isTail && !(rest instanceof Type.Pair)));
+      iterator = rest;
+    }
+    return sequence.toArray(new Node[sequence.size()]);
+  }
+
+
+  // Yields <sequence> as a single node, without the expressions whose values go unused
+  // & whose evaluation has no effect (constants, quotes, & <lambda>s)
+  private static Node newSequence(Node[] sequence) {
+    ArrayList<Node> used = new ArrayList<Node>();
+    int last = sequence.length-1;
+    for(int i = 0; i < sequence.length; ++i) {
+      Node expression = sequence[i];
+      if(i == last || !(expression instanceof Constant || expression instanceof Quote || expression instanceof Lambda))
+        used.add(expression);
+    }
+    if(used.size() == 1) return used.get(0);
+    return new Begin(used.toArray(new Node[used.size()]));
+  }
+
+
+  // => NOTE: a top-level <begin>'s procedure definitions are visible to all of its expressions'
+  //          analyses, despite being evaluated after them (see "appliesUnknownOperator")
+  private static Node analyzeBegin(Datum d, Scope scope, boolean isTail) throws Exception {
+    if(scope != null) return newSequence(analyzeSequence(Core.cdr(d),scope,isTail));
+    ArrayList<Type.Symbol> definitions = new ArrayList<Type.Symbol>();
+    try {
+      for(Datum iterator = Core.cdr(d); iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr) {
+        Datum expression = ((Type.Pair)iterator).car;
+        if(!(expression instanceof Type.Pair) || !isProcedureDefinition((Type.Pair)expression)) continue;
+        Datum target = Core.cadr(expression);
+        if(target instanceof Type.Pair) target = Core.car(target);
+        if(target instanceof Type.Symbol && globalProcedureDefinitions.add((Type.Symbol)target))
+          definitions.add((Type.Symbol)target);
+      }
+      return newSequence(analyzeSequence(Core.cdr(d),scope,isTail));
+    } finally {
+      globalProcedureDefinitions.removeAll(definitions);
+    }
+  }
+
+
+  // Analyzes a sequence of 0+ expressions as a single node
+  private static Node analyzeSequenceNode(Datum d, Scope scope, boolean isTail) throws Exception {
+    if(d instanceof Type.Pair && Core.cdr(d) instanceof Type.Nil)
+      return analyzeSubexpression(Core.car(d),scope,isTail);
+    return newSequence(analyzeSequence(d,scope,isTail));
+  }
+
+
+  // Analyzes the body of a procedure or macro (a sequence of 1+ expressions) in <scope>,
+  // the procedure's own scope (which gets populated with the body's definitions).
+  // => NOTE: the body's last expression is ALWAYS in tail position!
+  public static Node analyzeBody(Datum body, Scope scope) throws Exception {
+    return analyzeBody(body,scope,true);
+  }
+
+
+  // Analyzes a body (as above) that is in tail position iff <isTail> (e.g. a <let> body)
+  // => NOTE: if the body may apply an unknown operator (ie a macro, see "appliesUnknownOperator"),
+  //          every variable is shared via a cell since the macro's expansion may <set!> any of them
+  private static Node analyzeBody(Datum body, Scope scope, boolean isTail) throws Exception {
+    scanDefinitions(body,scope);
+    scanAssignments(body,scope);
+    if(appliesUnknownOperator(new Type.Pair(BEGIN,body),scope)) scope.markAllAssigned();
+    return analyzeSequenceNode(body,scope,isTail);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing <let>, <let*>, & <letrec>
+  // => NOTE: bindings are stored directly into the slots of a new frame, rather than
+  //          by applying an anonymous procedure (as a macro-based <let> would).
+  private static void validateBindings(Datum bindings, String formName, Datum d) throws Exception {
+    if(!Type.Pair.isList(bindings))
+      throw new Exceptionf("Invalid '%s Syntax (bindings aren't a list): %s", formName, d.write());
+    for(Datum iterator = bindings; iterator instanceof Type.Pair; iterator = Core.cdr(iterator)) {
+      Datum binding = Core.car(iterator);
+      if(!(binding instanceof Type.Pair) || !(Core.car(binding) instanceof Type.Symbol) || 
+         !(Core.cdr(binding) instanceof Type.Pair) || !(Core.cddr(binding) instanceof Type.Nil))
+        throw new Exceptionf("Invalid '%s Syntax (binding %s isn't a (<symbol> <value>) list): %s", formName, binding.write(), d.write());
+    }
+  }
+
+
+  private static void validateLet(Datum d, String formName) throws Exception {
+    if(!(Core.cdr(d) instanceof Type.Pair) || !(Core.cddr(d) instanceof Type.Pair))
+      throw new Exceptionf("Invalid '%s Syntax (missing bindings or body): %s", formName, d.write());
+    if(Core.cadr(d) instanceof Type.Symbol) {
+      if(!formName.equals("let"))
+        throw new Exceptionf("Invalid '%s Syntax (only 'let may be named): %s", formName, d.write());
+      if(!(Core.cdddr(d) instanceof Type.Pair))
+        throw new Exceptionf("Invalid 'let Syntax (missing named let body): %s", d.write());
+      validateBindings(Core.caddr(d),formName,d);
+    } else {
+      validateBindings(Core.cadr(d),formName,d);
+    }
+  }
+
+
+  private static ArrayList<String> getBindingNames(Datum bindings) throws Exception {
+    ArrayList<String> names = new ArrayList<String>();
+    for(Datum iterator = bindings; iterator instanceof Type.Pair; iterator = Core.cdr(iterator))
+      names.add(((Type.Symbol)Core.caar(iterator)).value);
+    return names;
+  }
+
+
+  private static Node[] analyzeBindingValues(Datum bindings, Scope scope) throws Exception {
+    ArrayList<Node> values = new ArrayList<Node>();
+    for(Datum iterator = bindings; iterator instanceof Type.Pair; iterator = Core.cdr(iterator))
+      values.add(analyzeSubexpression(Core.cadar(iterator),scope,false));
+    return values.toArray(new Node[values.size()]);
+  }
+
+
+  private static class Let extends Node {
+    private Scope letScope;
+    private Node[] values;
+    private Node body;
+    private boolean isRecursive; // <letrec> evaluates its values in the new frame
+
+    public Let(Scope letScope, Node[] values, Node body, boolean isRecursive) {
+      this.letScope = letScope;
+      this.values = values;
+      this.body = body;
+      this.isRecursive = isRecursive;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      Frame frame = new Frame(letScope,env);
+      if(isRecursive) {
+        Datum[] results = new Datum[values.length];
+        for(int i = 0; i < values.length; ++i)
+          results[i] = values[i].eval(frame);
+        for(int i = 0; i < values.length; ++i)
+          frame.setSlot(i,results[i]);
+      } else {
+        for(int i = 0; i < values.length; ++i)
+          frame.setSlot(i,values[i].eval(env));
+      }
+      return body.eval(frame);
+    }
+
+    // The body is compiled against the new frame, which temporarily replaces the frame local
+    public void compile(Compiler.Method m) throws Exception {
+      if(isRecursive) {
+        super.compile(m);
+        return;
+      }
+      int outerFrame = m.newLocal(), frame = m.newLocal();
+      m.load(Compiler.Method.FRAME);
+      m.store(outerFrame);
+      m.typeOp(Compiler.NEW,"Type/Frame");
+      m.op(Compiler.DUP);
+      m.pushConstant(letScope,"Type/Frame$Scope");
+      m.load(Compiler.Method.FRAME);
+      m.invoke(Compiler.INVOKESPECIAL,"Type/Frame","<init>","(LType/Frame$Scope;LType/Environment;)V");
+      m.store(frame);
+      for(int i = 0; i < values.length; ++i) {
+        m.load(frame);
+        m.pushInt(i);
+        values[i].compile(m);
+        m.invoke(Compiler.INVOKEVIRTUAL,"Type/Frame","setSlot","(ILType/Datum;)V");
+      }
+      m.load(frame);
+      m.store(Compiler.Method.FRAME);
+      ++m.letFrames;
+      body.compile(m);
+      --m.letFrames;
+      m.load(outerFrame);
+      m.store(Compiler.Method.FRAME);
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      int first = a.newRegisters(values.length);
+      if(isRecursive) a.emit(VirtualMachine.PUSH_FRAME,a.constant(letScope));
+      for(int i = 0; i < values.length; ++i)
+        values[i].assemble(a,first+i);
+      if(!isRecursive) a.emit(VirtualMachine.PUSH_FRAME,a.constant(letScope));
+      for(int i = 0; i < values.length; ++i)
+        a.emit(VirtualMachine.STORE_SLOT,i,first+i);
+      body.assemble(a,target);
+      a.emit(VirtualMachine.POP_FRAME);
+    }
+  }
+
+
+  // Binds the loop procedure's name in its own frame, then calls it with the initial values
+  private static class NamedLet extends Node {
+    private Scope nameScope;
+    private Type.CompoundProcedure.Code code;
+    private Node[] values;
+    private boolean isTail;
+
+    public NamedLet(Scope nameScope, Type.CompoundProcedure.Code code, Node[] values, boolean isTail) {
+      this.nameScope = nameScope;
+      this.code = code;
+      this.values = values;
+      this.isTail = isTail;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      Frame.markCaptured(env);
+      Frame frame = new Frame(nameScope,env);
+      Type.CompoundProcedure procedure = new Type.CompoundProcedure(code,frame);
+      frame.setSlot(0,procedure);
+      ArrayList<Datum> arguments = new ArrayList<Datum>(values.length);
+      for(Node value : values)
+        arguments.add(value.eval(env));
+      if(isTail) return new Type.CompoundProcedure.TailCall(procedure,arguments);
+      return procedure.callWith(env,arguments);
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      int procedure = a.newRegister(), first = a.newRegisters(values.length);
+      a.emit(VirtualMachine.PUSH_FRAME,a.constant(nameScope));
+      a.emit(VirtualMachine.CLOSURE,procedure,a.constant(code),-1);
+      a.emit(VirtualMachine.STORE_SLOT,0,procedure);
+      a.emit(VirtualMachine.POP_FRAME);
+      for(int i = 0; i < values.length; ++i)
+        values[i].assemble(a,first+i);
+      if(isTail) a.emit(VirtualMachine.TAIL_CALL,procedure,first,values.length,a.inlinedCalls);
+      else a.emit(VirtualMachine.CALL,target,procedure,first,values.length);
+    }
+  }
+
+
+  private static Node analyzeNamedLet(Datum d, Scope scope, boolean isTail) throws Exception {
+    ArrayList<String> name = new ArrayList<String>();
+    name.add(((Type.Symbol)Core.cadr(d)).value);
+    Scope nameScope = new Scope(new ArrayList<String>(),scope);
+    nameScope.add(Type.Symbol.intern(name.get(0)));
+    nameScope.markAssigned(Type.Symbol.intern(name.get(0))); // bound after the loop procedure's creation
+    nameScope.markProcedure(Type.Symbol.intern(name.get(0)));
+    Datum bindings = Core.caddr(d);
+    ArrayList<String> parameters = getBindingNames(bindings);
+    Scope procedureScope = new Scope(parameters,nameScope);
+    Type.CompoundProcedure.Code code = analyzeCode(parameters,procedureScope,Core.cdddr(d),false);
+    code.bodyExpression = Core.cdddr(d);
+    capturesFrame = true;
+    return new NamedLet(nameScope,code,analyzeBindingValues(bindings,scope),isTail);
+  }
+
+
+  private static Node analyzeLet(Datum d, Scope scope, boolean isTail) throws Exception {
+    validateLet(d,"let");
+    if(Core.cadr(d) instanceof Type.Symbol) return analyzeNamedLet(d,scope,isTail);
+    Datum bindings = Core.cadr(d);
+    Scope letScope = new Scope(getBindingNames(bindings),scope);
+    return new Let(letScope,analyzeBindingValues(bindings,scope),analyzeBody(Core.cddr(d),letScope,isTail),false);
+  }
+
+
+  // (let* (<b1> <b2> ...) <body> ...) = (let (<b1>) (let* (<b2> ...) <body> ...))
+  private static Node analyzeLetStar(Datum d, Scope scope, boolean isTail) throws Exception {
+    validateLet(d,"let*");
+    Datum bindings = Core.cadr(d);
+    if(!(bindings instanceof Type.Pair) || Core.cdr(bindings) instanceof Type.Nil)
+      return analyzeLet(new Type.Pair(LET,Core.cdr(d)),scope,isTail);
+    Datum nestedLetStar = new Type.Pair(LET_STAR,new Type.Pair(Core.cdr(bindings),Core.cddr(d)));
+    return analyzeLet(Type.Pair.List(LET,Type.Pair.List(Core.car(bindings)),nestedLetStar),scope,isTail);
+  }
+
+
+  private static Node analyzeLetrec(Datum d, Scope scope, boolean isTail) throws Exception {
+    validateLet(d,"letrec");
+    Datum bindings = Core.cadr(d);
+    Scope letScope = new Scope(getBindingNames(bindings),scope);
+    for(int i = 0; i < letScope.size(); ++i) // bound after evaluating every value
+      letScope.markAssigned(letScope.nameOf(i));
+    return new Let(letScope,analyzeBindingValues(bindings,letScope),analyzeBody(Core.cddr(d),letScope,isTail),true);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing <cond>
+  private static void validateCond(Datum d) throws Exception {
+    for(Datum iterator = Core.cdr(d); iterator instanceof Type.Pair; iterator = Core.cdr(iterator)) {
+      Datum clause = Core.car(iterator);
+      if(!(clause instanceof Type.Pair))
+        throw new Exceptionf("Invalid 'cond Syntax (clause %s isn't a non-empty list): %s", clause.write(), d.write());
+      if(Core.car(clause) == ELSE && !(Core.cdr(clause) instanceof Type.Pair))
+        throw new Exceptionf("Invalid 'cond Syntax (empty 'else clause): %s", d.write());
+    }
+  }
+
+
+  private static class Cond extends Node {
+    private Node[] conditions;   // <null> for <else> clauses
+    private Node[] consequences; // <null> for clauses without a body (yielding their condition)
+
+    public Cond(Node[] conditions, Node[] consequences) {
+      this.conditions = conditions;
+      this.consequences = consequences;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      for(int i = 0; i < conditions.length; ++i) {
+        if(conditions[i] == null) return consequences[i].eval(env);
+        if(consequences[i] == null) {
+          Datum condition = conditions[i].eval(env);
+          if(condition.isTruthy()) return condition;
+        } else if(conditions[i].evalTest(env)) {
+          return consequences[i].eval(env);
+        }
+      }
+      return Type.Void.VALUE;
+    }
+
+    public void compile(Compiler.Method m) throws Exception {
+      Compiler.Label endLabel = m.newLabel();
+      for(int i = 0; i < conditions.length; ++i) {
+        if(conditions[i] == null) { // any clauses after <else> are unreachable
+          consequences[i].compile(m);
+          m.mark(endLabel);
+          return;
+        }
+        if(consequences[i] == null) {
+          conditions[i].compile(m);
+          m.op(Compiler.DUP);
+          m.emitIsTruthy();
+          m.jump(Compiler.IFNE,endLabel);
+          m.op(Compiler.POP);
+        } else {
+          Compiler.Label nextLabel = m.newLabel();
+          conditions[i].compileTest(m,nextLabel);
+          consequences[i].compile(m);
+          m.jump(Compiler.GOTO,endLabel);
+          m.mark(nextLabel);
+        }
+      }
+      m.emitVoid();
+      m.mark(endLabel);
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      int endLabel = a.newLabel();
+      for(int i = 0; i < conditions.length; ++i) {
+        if(conditions[i] == null) { // any clauses after <else> are unreachable
+          consequences[i].assemble(a,target);
+          a.mark(endLabel);
+          return;
+        }
+        if(consequences[i] == null) {
+          conditions[i].assemble(a,target);
+          a.emitJump(endLabel,VirtualMachine.JUMP_IF_TRUE,target);
+        } else {
+          int nextLabel = a.newLabel();
+          conditions[i].assembleTest(a,nextLabel);
+          consequences[i].assemble(a,target);
+          a.emitJump(endLabel,VirtualMachine.JUMP);
+          a.mark(nextLabel);
+        }
+      }
+      a.emit(VirtualMachine.CONST,target,a.constant(Type.Void.VALUE));
+      a.mark(endLabel);
+    }
+  }
+
+
+  private static Node analyzeCond(Datum d, Scope scope, boolean isTail) throws Exception {
+    validateCond(d);
+    ArrayList<Node> conditions = new ArrayList<Node>();
+    ArrayList<Node> consequences = new ArrayList<Node>();
+    for(Datum iterator = Core.cdr(d); iterator instanceof Type.Pair; iterator = Core.cdr(iterator)) {
+      Datum clause = Core.car(iterator);
+      conditions.add(Core.car(clause) == ELSE ? null : analyzeSubexpression(Core.car(clause),scope,false));
+      consequences.add(Core.cdr(clause) instanceof Type.Pair ? analyzeSequenceNode(Core.cdr(clause),scope,isTail) : null);
+    }
+    int n = conditions.size();
+    return new Cond(conditions.toArray(new Node[n]),consequences.toArray(new Node[n]));
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing <and> & <or>
+  // => NOTE: the last operand is in tail position (if the form itself is)
+  private static class And extends Node {
+    private Node[] operands;
+
+    public And(Node[] operands) {
+      this.operands = operands;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      if(operands.length == 0) return Type.Boolean.TRUE;
+      int last = operands.length-1;
+      for(int i = 0; i < last; ++i) {
+        Datum result = operands[i].eval(env);
+        if(!result.isTruthy()) return result;
+      }
+      return operands[last].eval(env);
+    }
+
+    public boolean evalTest(Environment env) throws Exception {
+      for(Node operand : operands)
+        if(!operand.evalTest(env)) return false;
+      return true;
+    }
+
+    public void compile(Compiler.Method m) throws Exception {
+      compileShortCircuit(m,operands,Compiler.IFEQ,true);
+    }
+
+    public void compileTest(Compiler.Method m, Compiler.Label falseLabel) throws Exception {
+      for(Node operand : operands)
+        operand.compileTest(m,falseLabel);
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      assembleShortCircuit(a,target,operands,VirtualMachine.JUMP_IF_FALSE,true);
+    }
+
+    public void assembleTest(VirtualMachine.Assembler a, int falseLabel) throws Exception {
+      for(Node operand : operands)
+        operand.assembleTest(a,falseLabel);
+    }
+  }
+
+
+  private static class Or extends Node {
+    private Node[] operands;
+
+    public Or(Node[] operands) {
+      this.operands = operands;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      if(operands.length == 0) return Type.Boolean.FALSE;
+      int last = operands.length-1;
+      for(int i = 0; i < last; ++i) {
+        Datum result = operands[i].eval(env);
+        if(result.isTruthy()) return result;
+      }
+      return operands[last].eval(env);
+    }
+
+    public boolean evalTest(Environment env) throws Exception {
+      for(Node operand : operands)
+        if(operand.evalTest(env)) return true;
+      return false;
+    }
+
+    public void compile(Compiler.Method m) throws Exception {
+      compileShortCircuit(m,operands,Compiler.IFNE,false);
+    }
+
+    public void compileTest(Compiler.Method m, Compiler.Label falseLabel) throws Exception {
+      if(operands.length == 0) {
+        m.jump(Compiler.GOTO,falseLabel);
+        return;
+      }
+      Compiler.Label trueLabel = m.newLabel();
+      int last = operands.length-1;
+      for(int i = 0; i < last; ++i) {
+        Compiler.Label nextLabel = m.newLabel();
+        operands[i].compileTest(m,nextLabel);
+        m.jump(Compiler.GOTO,trueLabel);
+        m.mark(nextLabel);
+      }
+      operands[last].compileTest(m,falseLabel);
+      m.mark(trueLabel);
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      assembleShortCircuit(a,target,operands,VirtualMachine.JUMP_IF_TRUE,false);
+    }
+
+    public void assembleTest(VirtualMachine.Assembler a, int falseLabel) throws Exception {
+      if(operands.length == 0) {
+        a.emitJump(falseLabel,VirtualMachine.JUMP);
+        return;
+      }
+      int trueLabel = a.newLabel();
+      int last = operands.length-1;
+      for(int i = 0; i < last; ++i) {
+        int nextLabel = a.newLabel();
+        operands[i].assembleTest(a,nextLabel);
+        a.emitJump(trueLabel,VirtualMachine.JUMP);
+        a.mark(nextLabel);
+      }
+      operands[last].assembleTest(a,falseLabel);
+      a.mark(trueLabel);
+    }
+  }
+
+
+  // Yields the first operand whose truthiness makes <shortCircuitOpcode> branch (else the
+  // last operand, or <emptyValue> if there are none)
+  private static void compileShortCircuit(Compiler.Method m, Node[] operands, int shortCircuitOpcode, boolean emptyValue) throws Exception {
+    if(operands.length == 0) {
+      m.emitBoolean(emptyValue);
+      return;
+    }
+    Compiler.Label endLabel = m.newLabel();
+    int last = operands.length-1;
+    for(int i = 0; i < last; ++i) {
+      operands[i].compile(m);
+      m.op(Compiler.DUP);
+      m.emitIsTruthy();
+      m.jump(shortCircuitOpcode,endLabel);
+      m.op(Compiler.POP);
+    }
+    operands[last].compile(m);
+    m.mark(endLabel);
+  }
+
+
+  // VM counterpart of "compileShortCircuit", short-circuiting via <shortCircuitOpcode>
+  private static void assembleShortCircuit(VirtualMachine.Assembler a, int target, Node[] operands, int shortCircuitOpcode, boolean emptyValue) throws Exception {
+    if(operands.length == 0) {
+      a.emit(VirtualMachine.CONST,target,a.constant(Type.Boolean.valueOf(emptyValue)));
+      return;
+    }
+    int endLabel = a.newLabel();
+    int last = operands.length-1;
+    for(int i = 0; i < last; ++i) {
+      operands[i].assemble(a,target);
+      a.emitJump(endLabel,shortCircuitOpcode,target);
+    }
+    operands[last].assemble(a,target);
+    a.mark(endLabel);
+  }
+
+
+  private static Node analyzeAnd(Datum d, Scope scope, boolean isTail) throws Exception {
+    return new And(analyzeSequence(Core.cdr(d),scope,isTail));
+  }
+
+
+  private static Node analyzeOr(Datum d, Scope scope, boolean isTail) throws Exception {
+    return new Or(analyzeSequence(Core.cdr(d),scope,isTail));
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing <when> & <unless>
+  private static class When extends Node {
+    private Node condition;
+    private Node body;
+    private boolean isWhen; // <unless> runs its body iff <condition> is falsey
+
+    public When(Node condition, Node body, boolean isWhen) {
+      this.condition = condition;
+      this.body = body;
+      this.isWhen = isWhen;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      if(condition.evalTest(env) == isWhen)
+        return body.eval(env);
+      return Type.Void.VALUE;
+    }
+
+    public void compile(Compiler.Method m) throws Exception {
+      Compiler.Label skipLabel = m.newLabel(), endLabel = m.newLabel();
+      if(isWhen) {
+        condition.compileTest(m,skipLabel);
+      } else {
+        condition.compile(m);
+        m.emitIsTruthy();
+        m.jump(Compiler.IFNE,skipLabel);
+      }
+      body.compile(m);
+      m.jump(Compiler.GOTO,endLabel);
+      m.mark(skipLabel);
+      m.emitVoid();
+      m.mark(endLabel);
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      int skipLabel = a.newLabel(), endLabel = a.newLabel();
+      if(isWhen) {
+        condition.assembleTest(a,skipLabel);
+      } else {
+        int condition = a.newRegister();
+        this.condition.assemble(a,condition);
+        a.emitJump(skipLabel,VirtualMachine.JUMP_IF_TRUE,condition);
+      }
+      body.assemble(a,target);
+      a.emitJump(endLabel,VirtualMachine.JUMP);
+      a.mark(skipLabel);
+      a.emit(VirtualMachine.CONST,target,a.constant(Type.Void.VALUE));
+      a.mark(endLabel);
+    }
+  }
+
+
+  private static Node analyzeWhen(Datum d, Scope scope, boolean isTail, boolean isWhen) throws Exception {
+    if(!(Core.cdr(d) instanceof Type.Pair))
+      throw new Exceptionf("Invalid '%s Syntax (missing condition): %s", isWhen ? "when" : "unless", d.write());
+    Node condition = analyzeSubexpression(Core.cadr(d),scope,false);
+    return new When(condition,analyzeSequenceNode(Core.cddr(d),scope,isTail),isWhen);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing <quote>
+  private static void validateQuote(Datum d) throws Exception {
+    if(!(Core.cddr(d) instanceof Type.Nil))
+      throw new Exceptionf("Invalid 'quote Syntax (accepts exactly 1 argument): %s", d.write());
+  }
+
+
+  // Quoted data (& vector literals) is materialized ONCE, & then shared across evaluations
+  // => NOTE: if "Runtime.guardQuotedLiterals" is set, mutating a quoted list or vector makes
+  //          subsequent evaluations yield a pristine copy of the quoted data instead!
+  private static class Quote extends Node {
+    // <template> is the quoted datum (decoupled from the source code), which is only kept
+    // pristine when guarding quoted literals: <constant> is then a guarded copy of it, rather
+    // than <template> itself (hence mutated whenever the yielded literal is)
+    private Datum template;
+    private Datum constant;
+
+    private static class Guard extends Type.Pair.LiteralGuard {
+      private Quote quote;
+
+      public Guard(Quote quote) {
+        this.quote = quote;
+      }
+
+      protected void onFirstMutation() {
+        quote.constant = quote.materialize();
+      }
+    }
+
+    public Quote(Datum quoted) {
+      if(quoted instanceof Type.Pair || quoted instanceof Type.Vector || quoted instanceof Type.HomogeneousVector) {
+        template = quoted.copy(); // decouple the constant from the (mutable) source code
+        constant = Runtime.guardQuotedLiterals ? materialize() : template;
+      } else {
+        template = constant = quoted;
+      }
+    }
+
+    private Datum materialize() {
+      Datum literal = template.copy();
+      Type.Pair.guard(literal,new Guard(this));
+      return literal;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      return constant;
+    }
+
+    // => NOTE: guarded literals are rematerialized once mutated, hence aren't constants
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      if(constant != template) super.assemble(a,target);
+      else a.emit(VirtualMachine.CONST,target,a.constant(constant));
+    }
+  }
+
+
+  private static Node analyzeQuote(Datum d) throws Exception {
+    validateQuote(d);
+    return new Quote(Core.cadr(d));
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing self-evaluating data
+  private static class Constant extends Node {
+    private Datum value;
+
+    public Constant(Datum value) {
+      this.value = value;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      return value;
+    }
+
+    public void compile(Compiler.Method m) throws Exception {
+      m.pushConstant(value,Compiler.DATUM);
+    }
+
+    public void compileFixnum(Compiler.Method m, Compiler.Fallback fallback) throws Exception {
+      if(value instanceof Type.Fixnum) m.pushLong(((Type.Fixnum)value).value);
+      else super.compileFixnum(m,fallback);
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      a.emit(VirtualMachine.CONST,target,a.constant(value));
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing variables
+  private static class Variable extends Node {
+    private Address address;
+
+    public Variable(Address address) {
+      this.address = address;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      return address.get(env);
+    }
+
+    // Parameters cached in locals are read from them (see "Compiler.Method.cacheParameters"),
+    // & other variables of the frame being compiled are read straight from its slots
+    // => NOTE: such addresses are never shadowed (no scope lies between them & their frame)
+    public void compile(Compiler.Method m) throws Exception {
+      if(address instanceof LocalAddress) {
+        int cached = m.cachedParameter(((LocalAddress)address).depth,((LocalAddress)address).slot);
+        if(cached != -1) {
+          m.load(cached);
+          return;
+        }
+      }
+      if(!(address instanceof LocalAddress) || ((LocalAddress)address).depth != 0) {
+        m.emitEval(this);
+        return;
+      }
+      Compiler.Label endLabel = m.newLabel();
+      m.load(Compiler.Method.FRAME);
+      m.typeOp(Compiler.CHECKCAST,"Type/Frame");
+      m.pushInt(((LocalAddress)address).slot);
+      m.invoke(Compiler.INVOKEVIRTUAL,"Type/Frame","getSlot","(I)LType/Datum;");
+      m.op(Compiler.DUP);
+      m.jump(Compiler.IFNONNULL,endLabel);
+      m.op(Compiler.POP);
+      m.emitEval(this); // unbound slot
+      m.mark(endLabel);
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      if(address instanceof LocalAddress) {
+        LocalAddress local = (LocalAddress)address;
+        a.emit(VirtualMachine.LOCAL,target,local.depth,local.slot,a.constant(local));
+      } else {
+        a.emit(VirtualMachine.GLOBAL,target,a.constant(address));
+      }
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing procedural & macro application
+  private static class Application extends Node {
+    private Datum expression; // passed to macros & used in error messages
+    private Node operator;
+    private Node[] arguments;
+    private Scope scope; // used to analyze macro expansions
+    private boolean isTail;
+    private Type.Macro expandedMacro = null; // macro whose (analyzed) expansion is cached
+    private Node expansion = null;
+
+    public Application(Datum expression, Node operator, Node[] arguments, Scope scope, boolean isTail) {
+      this.expression = expression;
+      this.operator = operator;
+      this.arguments = arguments;
+      this.scope = scope;
+      this.isTail = isTail;
+    }
+
+    private ArrayList<Datum> evalArguments(Environment env) throws Exception {
+      ArrayList<Datum> values = new ArrayList<Datum>(arguments.length);
+      for(Node argument : arguments)
+        values.add(argument.eval(env));
+      return values;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      Datum callable = operator.eval(env);
+      // Apply a procedure (deferring compound procedures in tail position to the trampoline)
+      if(callable instanceof Type.Procedure) {
+        if(isTail && callable instanceof Type.CompoundProcedure)
+          return new Type.CompoundProcedure.TailCall((Type.CompoundProcedure)callable,evalArguments(env));
+        return ((Type.Procedure)callable).callWith(env,evalArguments(env));
+      }
+      return applyNonProcedure(callable,env);
+    }
+
+    private Datum applyNonProcedure(Datum callable, Environment env) throws Exception {
+      // Apply a macro (its expansion inherits our tail position)
+      // => NOTE: expansions are memoized per call site, & only redone if the operator
+      //          evaluates to a different macro (e.g. once the macro is redefined)!
+      if(callable instanceof Type.Macro) {
+        if(callable != expandedMacro) {
+          expansion = analyze(((Type.Macro)callable).expand(env,expression),scope,isTail);
+          expandedMacro = (Type.Macro)callable;
+        }
+        return expansion.eval(env);
+      }
+      throw new Exceptionf("Can't apply non-procedure & non-macro %s in %s!", callable.write(), Core.car(expression).write());
+    }
+
+    // Procedures are applied directly, with tail calls to the procedure being compiled
+    // jumping back to the start of its body. The memoized expansion of a macro is compiled
+    // inline, guarded by the operator still being bound to that macro. Other macros &
+    // non-procedures defer to <eval>.
+    // => NOTE: <eval> re-evaluates the operator, hence it must be a (side-effect free) variable
+    public void compile(Compiler.Method m) throws Exception {
+      if(!(operator instanceof Variable)) {
+        m.emitEval(this);
+        return;
+      }
+      Compiler.Label applyLabel = m.newLabel(), endLabel = m.newLabel();
+      int callable = m.newLocal(), values = m.newLocal();
+      operator.compile(m);
+      m.store(callable);
+      if(expandedMacro != null) {
+        Compiler.Label otherLabel = m.newLabel();
+        m.load(callable);
+        m.pushConstant(expandedMacro,"Type/Macro");
+        m.jump(Compiler.IF_ACMPNE,otherLabel);
+        expansion.compile(m);
+        m.jump(Compiler.GOTO,endLabel);
+        m.mark(otherLabel);
+      }
+      m.load(callable);
+      m.typeOp(Compiler.INSTANCEOF,"Type/Procedure");
+      m.jump(Compiler.IFNE,applyLabel);
+      m.emitEval(this);
+      m.jump(Compiler.GOTO,endLabel);
+      m.mark(applyLabel);
+      m.typeOp(Compiler.NEW,"java/util/ArrayList");
+      m.op(Compiler.DUP);
+      m.pushInt(arguments.length);
+      m.invoke(Compiler.INVOKESPECIAL,"java/util/ArrayList","<init>","(I)V");
+      m.store(values);
+      for(Node argument : arguments) {
+        m.load(values);
+        argument.compile(m);
+        m.invoke(Compiler.INVOKEVIRTUAL,"java/util/ArrayList","add","(Ljava/lang/Object;)Z");
+        m.op(Compiler.POP);
+      }
+      if(isTail) {
+        Compiler.Label otherLabel = m.newLabel();
+        m.load(callable);
+        m.load(Compiler.Method.SELF);
+        m.jump(Compiler.IF_ACMPNE,otherLabel);
+        m.emitSelfTailCall(values);
+        m.mark(otherLabel);
+      }
+      m.load(callable);
+      m.load(values);
+      m.load(Compiler.Method.FRAME);
+      m.pushInt(isTail ? 1 : 0);
+      m.invoke(Compiler.INVOKESTATIC,Compiler.COMPILED_BODY,"apply","(LType/Datum;Ljava/util/ArrayList;LType/Environment;Z)LType/Datum;");
+      m.mark(endLabel);
+    }
+
+    // Procedures are applied via <CALL> (or <TAIL_CALL>), & the memoized expansion of a
+    // macro is assembled inline (as with <compile>). Everything else is handed over to
+    // <APPLY_OTHER>, which doesn't re-evaluate the operator (hence it may be any expression).
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      int otherLabel = a.newLabel(), endLabel = a.newLabel();
+      int callable = a.newRegister(), first = a.newRegisters(arguments.length);
+      operator.assemble(a,callable);
+      a.emitJump(otherLabel,VirtualMachine.JUMP_IF_NOT_PROCEDURE,callable);
+      for(int i = 0; i < arguments.length; ++i)
+        arguments[i].assemble(a,first+i);
+      if(isTail) a.emit(VirtualMachine.TAIL_CALL,callable,first,arguments.length,a.inlinedCalls);
+      else a.emit(VirtualMachine.CALL,target,callable,first,arguments.length);
+      a.emitJump(endLabel,VirtualMachine.JUMP);
+      a.mark(otherLabel);
+      if(expandedMacro != null) {
+        int applyLabel = a.newLabel();
+        a.emitJump(applyLabel,VirtualMachine.JUMP_UNLESS_IDENTICAL,callable,a.constant(expandedMacro));
+        expansion.assemble(a,target);
+        a.emitJump(endLabel,VirtualMachine.JUMP);
+        a.mark(applyLabel);
+      }
+      a.emit(VirtualMachine.APPLY_OTHER,target,callable,a.constant(this));
+      a.mark(endLabel);
+    }
+  }
+
+
+  public static Datum applyNonProcedure(Node application, Datum callable, Environment env) throws Exception {
+    return ((Application)application).applyNonProcedure(callable,env);
+  }
+
+
+  private static Node analyzeApplication(Datum d, Scope scope, boolean isTail) throws Exception {
+    Node operator = analyzeSubexpression(Core.car(d),scope,false);
+    Node[] arguments = analyzeSequence(Core.cdr(d),scope,false);
+    Application application = new Application(d,operator,arguments,scope,isTail);
+    Node intrinsic = analyzeIntrinsic(Core.car(d),scope,arguments,application);
+    Node unfolded = intrinsic != null ? intrinsic : application;
+    Node folded = analyzeFolding(Core.car(d),scope,arguments,unfolded);
+    if(folded != null) return folded;
+    if(intrinsic != null) return intrinsic;
+    Node inlined = analyzeInlining(Core.car(d),scope,arguments,application,isTail);
+    if(inlined != null) return inlined;
+    return application;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing inlined procedure applications
+  // => Applications of small, non-recursive compound procedures (defined in & bound to a
+  //    global variable as of analysis) are replaced by their body: the application is
+  //    analyzed as a <let> binding the procedure's parameters to the arguments, sparing
+  //    the procedure call altogether (argument list, arity check, trampoline, etc.).
+  // => Bodies using <eval>/<expand>/<load>/<define-macro>, or applying operators that may be
+  //    macros (see "appliesUnknownOperator"), aren't inlined: the code they analyze at runtime
+  //    would otherwise see the caller's local variables instead of the global environment.
+  // => NOTE: inlined applications are guarded by a check that their operator is still
+  //          bound to the same procedure, & fall back on a generic application if it has
+  //          been redefined. They still push the procedure's name onto the call stack.
+  private static final int INLINING_LIMIT = 24; // max atoms in the body of an inlined procedure
+
+  private static ArrayList<Type.CompoundProcedure> inlining = new ArrayList<Type.CompoundProcedure>(); // procedures being inlined
+
+  private static boolean isBeingInlined(Type.CompoundProcedure procedure) {
+    for(Type.CompoundProcedure p : inlining)
+      if(p == procedure) return true;
+    return false;
+  }
+
+  private static class Inlined extends Node {
+    private Address operator;
+    private Type.CompoundProcedure procedure;
+    private Let body;
+    private Application application; // generic fallback
+
+    public Inlined(Address operator, Type.CompoundProcedure procedure, Let body, Application application) {
+      this.operator = operator;
+      this.procedure = procedure;
+      this.body = body;
+      this.application = application;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      if(operator.get(env) != procedure) return application.eval(env);
+      Runtime.CallStack.push(procedure.name);
+      Datum result = body.eval(env);
+      Runtime.CallStack.pop();
+      return result;
+    }
+
+    public void compile(Compiler.Method m) throws Exception {
+      Compiler.Label inlineLabel = m.newLabel(), endLabel = m.newLabel();
+      m.pushNode(this);
+      m.load(Compiler.Method.FRAME);
+      m.invoke(Compiler.INVOKESTATIC,"Util/Analyzer","isInlinedProcedureRedefined","(LUtil/Analyzer$Node;LType/Environment;)Z");
+      m.jump(Compiler.IFEQ,inlineLabel);
+      m.emitEval(application);
+      m.jump(Compiler.GOTO,endLabel);
+      m.mark(inlineLabel);
+      m.pushNode(this);
+      m.invoke(Compiler.INVOKESTATIC,"Util/Analyzer","enterInlinedProcedure","(LUtil/Analyzer$Node;)V");
+      ++m.inlinedCalls;
+      body.compile(m);
+      --m.inlinedCalls;
+      m.invoke(Compiler.INVOKESTATIC,"Util/Runtime$CallStack","pop","()V");
+      m.mark(endLabel);
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      int applyLabel = a.newLabel(), endLabel = a.newLabel();
+      a.emitJump(applyLabel,VirtualMachine.JUMP_IF_REBOUND,a.constant(operator),a.constant(procedure));
+      a.emit(VirtualMachine.ENTER,a.constant(procedure));
+      ++a.inlinedCalls;
+      body.assemble(a,target);
+      --a.inlinedCalls;
+      a.emit(VirtualMachine.LEAVE,1);
+      a.emitJump(endLabel,VirtualMachine.JUMP);
+      a.mark(applyLabel);
+      application.assemble(a,target);
+      a.mark(endLabel);
+    }
+  }
+
+
+  public static boolean isInlinedProcedureRedefined(Node inlined, Environment env) throws Exception {
+    return ((Inlined)inlined).operator.get(env) != ((Inlined)inlined).procedure;
+  }
+
+
+  public static void enterInlinedProcedure(Node inlined) {
+    Runtime.CallStack.push(((Inlined)inlined).procedure.name);
+  }
+
+
+  // Returns the total atoms in <d> (stopping once past <limit>), or -1 if any of them
+  // (other than <parameters>) would be captured by a local variable in <scope>, or is <name>
+  // => NOTE: quotations & vector literals also yield -1, since each analysis of a quoted list
+  //          or vector copies it, hence an inlined body wouldn't share (mutable) literals with
+  //          its procedure
+  private static int countAtoms(Datum d, Type.Symbol name, ArrayList<java.lang.String> parameters, Scope scope, int limit) {
+    int count = 0;
+    while(d instanceof Type.Pair && count <= limit) {
+      int carCount = countAtoms(((Type.Pair)d).car,name,parameters,scope,limit-count);
+      if(carCount == -1) return -1;
+      count += carCount;
+      d = ((Type.Pair)d).cdr;
+    }
+    if(d instanceof Type.Nil) return count;
+    if(d instanceof Type.Vector || d instanceof Type.HomogeneousVector) return -1;
+    if(d instanceof Type.Symbol) {
+      Type.Symbol symbol = (Type.Symbol)d;
+      if(symbol == name || symbol == QUOTE) return -1;
+      if(!parameters.contains(symbol.value) && isLocalVariable(symbol,scope)) return -1;
+    }
+    return count+1;
+  }
+
+
+  // Returns <null> if the application can't be inlined
+  private static Node analyzeInlining(Datum operator, Scope scope, Node[] arguments, Application application, boolean isTail) {
+    if(!(operator instanceof Type.Symbol)) return null;
+    Type.Symbol name = (Type.Symbol)operator;
+    Address address = resolve(name,scope);
+    if(!(address instanceof GlobalAddress)) return null; // shadowed by a local variable
+    Environment.Binding binding = Runtime.globalEnvironment.getBinding(name);
+    if(binding == null || !(binding.value instanceof Type.CompoundProcedure)) return null;
+    Type.CompoundProcedure procedure = (Type.CompoundProcedure)binding.value;
+    Type.CompoundProcedure.Code code = procedure.getCode();
+    if(procedure.getDefinitionEnvironment() != Runtime.globalEnvironment || code.isVariadic || 
+       code.bodyExpression == null || code.parameters.size() != arguments.length || isBeingInlined(procedure)) 
+      return null;
+    int size = countAtoms(code.bodyExpression,name,code.parameters,scope,INLINING_LIMIT);
+    if(size == -1 || size > INLINING_LIMIT) return null; // recursive, captured, or too large
+    if(isEnvironmentSensitive(code.bodyExpression) || 
+       appliesUnknownOperator(new Type.Pair(BEGIN,code.bodyExpression),new Scope(code.parameters,null)))
+      return null; // would analyze code at runtime in the caller's scope
+    inlining.add(procedure);
+    try {
+      Scope letScope = new Scope(code.parameters,scope);
+      Let body = new Let(letScope,arguments,analyzeBody(code.bodyExpression,letScope,isTail),false);
+      return new Inlined(address,procedure,body,application);
+    } catch(Exception e) {
+      return null;
+    } finally {
+      inlining.remove(inlining.size()-1);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Representing primitive intrinsics
+  // => Applications of certain built-in primitives (see "Runtime.registerPrimitives") are 
+  //    evaluated inline, without allocating an argument list nor pushing onto the call stack.
+  // => NOTE: intrinsics are guarded by a check that their operator is still bound to the
+  //          original built-in, & fall back on a generic application if it has been rebound.
+  //          Arguments the inline operation can't handle (e.g. <car> of a non-pair) are
+  //          passed to the built-in itself, hence yielding the exact same errors.
+  private static final int CAR = 0, CDR = 1, IS_NULL = 2, IS_PAIR = 3, NOT = 4, IS_ZERO = 5;
+  private static final int CONS = 0, IS_EQ = 1, ADD = 2, SUBTRACT = 3, MULTIPLY = 4;
+  private static final int NUMBER_EQUALS = 5, LESS_THAN = 6, GREATER_THAN = 7, LESS_THAN_OR_EQUAL = 8, GREATER_THAN_OR_EQUAL = 9;
+
+  private static HashMap<Type.Symbol,Integer> unaryIntrinsics = new HashMap<Type.Symbol,Integer>();
+  private static HashMap<Type.Symbol,Integer> binaryIntrinsics = new HashMap<Type.Symbol,Integer>();
+  private static HashMap<Type.Symbol,Datum> builtins = new HashMap<Type.Symbol,Datum>();
+
+  static {
+    unaryIntrinsics.put(Type.Symbol.intern("car"),CAR);
+    unaryIntrinsics.put(Type.Symbol.intern("cdr"),CDR);
+    unaryIntrinsics.put(Type.Symbol.intern("null?"),IS_NULL);
+    unaryIntrinsics.put(Type.Symbol.intern("pair?"),IS_PAIR);
+    unaryIntrinsics.put(Type.Symbol.intern("not"),NOT);
+    unaryIntrinsics.put(Type.Symbol.intern("zero?"),IS_ZERO);
+    binaryIntrinsics.put(Type.Symbol.intern("cons"),CONS);
+    binaryIntrinsics.put(Type.Symbol.intern("eq?"),IS_EQ);
+    binaryIntrinsics.put(Type.Symbol.intern("+"),ADD);
+    binaryIntrinsics.put(Type.Symbol.intern("-"),SUBTRACT);
+    binaryIntrinsics.put(Type.Symbol.intern("*"),MULTIPLY);
+    binaryIntrinsics.put(Type.Symbol.intern("="),NUMBER_EQUALS);
+    binaryIntrinsics.put(Type.Symbol.intern("<"),LESS_THAN);
+    binaryIntrinsics.put(Type.Symbol.intern(">"),GREATER_THAN);
+    binaryIntrinsics.put(Type.Symbol.intern("<="),LESS_THAN_OR_EQUAL);
+    binaryIntrinsics.put(Type.Symbol.intern(">="),GREATER_THAN_OR_EQUAL);
+  }
+
+
+  // Records the built-in value of each intrinsic & foldable primitive (see "analyzeFolding")
+  // => Invoked once primitives are registered
+  public static void registerIntrinsics(Environment globalEnv) throws Exception {
+    for(Type.Symbol name : unaryIntrinsics.keySet())
+      builtins.put(name,globalEnv.get(name));
+    for(Type.Symbol name : binaryIntrinsics.keySet())
+      builtins.put(name,globalEnv.get(name));
+    for(Type.Symbol name : foldablePrimitives)
+      builtins.put(name,globalEnv.get(name));
+  }
+
+
+  // => Intrinsics specialize themselves upon their first evaluation: once specialized on
+  //    fixnums, they evaluate their arguments unboxed (see "Node.evalFixnum") until one
+  //    isn't a fixnum (or their arithmetic overflows into a bignum), at which point they
+  //    permanently rewrite themselves into their generic version (which handles any
+  //    argument, dispatching numbers across the numeric tower of "Type.Number").
+  private static final int UNINITIALIZED = 0, NUMERIC = 1, GENERIC = 2;
+
+  private static abstract class Intrinsic extends Node {
+    private Address operator;
+    private Datum builtin;
+    private Application application; // generic fallback
+    protected int state = UNINITIALIZED;
+
+    public Intrinsic(Address operator, Datum builtin, Application application) {
+      this.operator = operator;
+      this.builtin = builtin;
+      this.application = application;
+    }
+
+    protected boolean isRebound(Environment env) throws Exception {
+      return operator.get(env) != builtin;
+    }
+
+    protected Datum applyGenerically(Environment env) throws Exception {
+      return application.eval(env);
+    }
+
+    protected Datum applyBuiltin(Environment env, Datum ... arguments) throws Exception {
+      ArrayList<Datum> args = new ArrayList<Datum>(arguments.length);
+      for(Datum argument : arguments) args.add(argument);
+      return ((Type.Procedure)builtin).callWith(env,args);
+    }
+
+    // Emits the rebound check: yields the generic application's value & jumps to <endLabel>
+    // if rebound, otherwise falls through to the inline operation
+    protected void compileGuard(Compiler.Method m, Compiler.Label endLabel) throws Exception {
+      Compiler.Label inlineLabel = m.newLabel();
+      compileReboundCheck(m,inlineLabel);
+      m.jump(Compiler.GOTO,endLabel);
+      m.mark(inlineLabel);
+    }
+
+    // Emits the rebound check in test position: jumps to <falseLabel> or <trueLabel> based
+    // on the generic application's value if rebound, otherwise falls through
+    protected void compileTestGuard(Compiler.Method m, Compiler.Label falseLabel, Compiler.Label trueLabel) throws Exception {
+      Compiler.Label inlineLabel = m.newLabel();
+      compileReboundCheck(m,inlineLabel);
+      m.emitIsTruthy();
+      m.jump(Compiler.IFEQ,falseLabel);
+      m.jump(Compiler.GOTO,trueLabel);
+      m.mark(inlineLabel);
+    }
+
+    private void compileReboundCheck(Compiler.Method m, Compiler.Label inlineLabel) throws Exception {
+      m.pushNode(this);
+      m.load(Compiler.Method.FRAME);
+      m.invoke(Compiler.INVOKESTATIC,"Util/Analyzer","isIntrinsicRebound","(LUtil/Analyzer$Node;LType/Environment;)Z");
+      m.jump(Compiler.IFEQ,inlineLabel);
+      m.emitEval(application);
+    }
+
+    // Emits the application of the built-in to the given locals
+    protected void compileBuiltin(Compiler.Method m, int ... locals) throws Exception {
+      m.pushNode(this);
+      m.load(Compiler.Method.FRAME);
+      String parameters = "";
+      for(int local : locals) {
+        m.load(local);
+        parameters += "LType/Datum;";
+      }
+      m.invoke(Compiler.INVOKESTATIC,"Util/Analyzer","applyIntrinsicBuiltin","(LUtil/Analyzer$Node;LType/Environment;"+parameters+")LType/Datum;");
+    }
+
+    // VM counterpart of <compileGuard>, evaluating the generic application into <target>
+    // => Returns the constant holding the intrinsic (which VM intrinsic instructions expect)
+    protected int assembleGuard(VirtualMachine.Assembler a, int target, int endLabel) throws Exception {
+      int inlineLabel = a.newLabel(), intrinsic = a.constant(this);
+      a.emitJump(inlineLabel,VirtualMachine.JUMP_IF_BUILTIN,intrinsic);
+      application.assemble(a,target);
+      a.emitJump(endLabel,VirtualMachine.JUMP);
+      a.mark(inlineLabel);
+      return intrinsic;
+    }
+
+    // VM counterpart of <compileTestGuard>
+    protected int assembleTestGuard(VirtualMachine.Assembler a, int falseLabel, int trueLabel) throws Exception {
+      int inlineLabel = a.newLabel(), intrinsic = a.constant(this);
+      a.emitJump(inlineLabel,VirtualMachine.JUMP_IF_BUILTIN,intrinsic);
+      application.assembleTest(a,falseLabel);
+      a.emitJump(trueLabel,VirtualMachine.JUMP);
+      a.mark(inlineLabel);
+      return intrinsic;
+    }
+  }
+
+
+  private static class UnaryIntrinsic extends Intrinsic {
+    private int operation;
+    private Node argument;
+
+    public UnaryIntrinsic(Address operator, Datum builtin, Application application, int operation, Node argument) {
+      super(operator,builtin,application);
+      this.operation = operation;
+      this.argument = argument;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      if(isRebound(env)) return applyGenerically(env);
+      return evalInline(env);
+    }
+
+    // Only <zero?> specializes on numbers
+    private Datum evalInline(Environment env) throws Exception {
+      if(state == NUMERIC) {
+        try {
+          return Type.Boolean.valueOf(argument.evalFixnum(env) == 0);
+        } catch(UnexpectedResult e) {
+          state = GENERIC;
+          return applyGeneric(env,e.value);
+        }
+      }
+      Datum x = argument.eval(env);
+      if(state == UNINITIALIZED) 
+        state = (operation == IS_ZERO && x instanceof Type.Fixnum) ? NUMERIC : GENERIC;
+      return applyGeneric(env,x);
+    }
+
+    public boolean evalTest(Environment env) throws Exception {
+      if(isRebound(env)) return applyGenerically(env).isTruthy();
+      switch(operation) {
+        case NOT: return !argument.evalTest(env);
+        case IS_NULL: return argument.eval(env) == Type.Nil.VALUE;
+        case IS_PAIR: return argument.eval(env) instanceof Type.Pair;
+        default: return evalInline(env).isTruthy();
+      }
+    }
+
+    private Datum applyGeneric(Environment env, Datum x) throws Exception {
+      Datum result = apply(x);
+      if(result != null) return result;
+      return applyBuiltin(env,x);
+    }
+
+    // Returns <null> if <x> must be handled by the built-in
+    private Datum apply(Datum x) {
+      switch(operation) {
+        case CAR: if(x instanceof Type.Pair) return ((Type.Pair)x).car; break;
+        case CDR: if(x instanceof Type.Pair) return ((Type.Pair)x).cdr; break;
+        case IS_NULL: return Type.Boolean.valueOf(x == Type.Nil.VALUE);
+        case IS_PAIR: return Type.Boolean.valueOf(x instanceof Type.Pair);
+        case NOT: return Type.Boolean.valueOf(!x.isTruthy());
+        case IS_ZERO: if(x instanceof Type.Number) return Type.Boolean.valueOf(Type.Number.isZero((Type.Number)x)); break;
+      }
+      return null;
+    }
+
+    private boolean isPredicate() {
+      return operation != CAR && operation != CDR;
+    }
+
+    // Emits a jump to <falseLabel> iff the predicate doesn't hold for local <x>, or to
+    // <builtinLabel> if <x> must be handled by the built-in
+    private void compilePredicate(Compiler.Method m, int x, Compiler.Label falseLabel, Compiler.Label builtinLabel) throws Exception {
+      switch(operation) {
+        case IS_NULL:
+          m.load(x);
+          m.getStatic("Type/Nil","VALUE","LType/Nil;");
+          m.jump(Compiler.IF_ACMPNE,falseLabel);
+          break;
+        case IS_PAIR:
+          m.load(x);
+          m.typeOp(Compiler.INSTANCEOF,"Type/Pair");
+          m.jump(Compiler.IFEQ,falseLabel);
+          break;
+        case NOT:
+          m.load(x);
+          m.emitIsTruthy();
+          m.jump(Compiler.IFNE,falseLabel);
+          break;
+        default: // IS_ZERO (comparing fixnums unboxed)
+          Compiler.Label numericLabel = m.newLabel(), holdsLabel = m.newLabel();
+          m.emitInstanceCheck(x,"Type/Fixnum",numericLabel);
+          m.emitLoadFixnum(x);
+          m.op(Compiler.LCONST_0);
+          m.op(Compiler.LCMP);
+          m.jump(Compiler.IFNE,falseLabel);
+          m.jump(Compiler.GOTO,holdsLabel);
+          m.mark(numericLabel);
+          m.emitInstanceCheck(x,"Type/Number",builtinLabel);
+          m.emitLoadNumber(x);
+          m.invoke(Compiler.INVOKESTATIC,"Type/Number","isZero","(LType/Number;)Z");
+          m.jump(Compiler.IFEQ,falseLabel);
+          m.mark(holdsLabel);
+      }
+    }
+
+    private int compileArgument(Compiler.Method m) throws Exception {
+      int x = m.newLocal();
+      argument.compile(m);
+      m.store(x);
+      return x;
+    }
+
+    public void compile(Compiler.Method m) throws Exception {
+      Compiler.Label builtinLabel = m.newLabel(), endLabel = m.newLabel();
+      compileGuard(m,endLabel);
+      int x = compileArgument(m);
+      if(isPredicate()) {
+        Compiler.Label falseLabel = m.newLabel();
+        compilePredicate(m,x,falseLabel,builtinLabel);
+        m.emitBoolean(true);
+        m.jump(Compiler.GOTO,endLabel);
+        m.mark(falseLabel);
+        m.emitBoolean(false);
+        m.jump(Compiler.GOTO,endLabel);
+      } else {
+        m.emitInstanceCheck(x,"Type/Pair",builtinLabel);
+        m.load(x);
+        m.typeOp(Compiler.CHECKCAST,"Type/Pair");
+        m.getField("Type/Pair",operation == CAR ? "car" : "cdr","LType/Datum;");
+        m.jump(Compiler.GOTO,endLabel);
+      }
+      if(operation == CAR || operation == CDR || operation == IS_ZERO) {
+        m.mark(builtinLabel);
+        compileBuiltin(m,x);
+      }
+      m.mark(endLabel);
+    }
+
+    public void compileTest(Compiler.Method m, Compiler.Label falseLabel) throws Exception {
+      if(!isPredicate()) {
+        super.compileTest(m,falseLabel);
+        return;
+      }
+      Compiler.Label builtinLabel = m.newLabel(), trueLabel = m.newLabel();
+      compileTestGuard(m,falseLabel,trueLabel);
+      int x = compileArgument(m);
+      compilePredicate(m,x,falseLabel,builtinLabel);
+      if(operation == IS_ZERO) {
+        m.jump(Compiler.GOTO,trueLabel);
+        m.mark(builtinLabel);
+        compileBuiltin(m,x);
+        m.emitIsTruthy();
+        m.jump(Compiler.IFEQ,falseLabel);
+      }
+      m.mark(trueLabel);
+    }
+
+    // NOTE: the VM's unary intrinsic opcodes follow the order of the operations
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      int endLabel = a.newLabel(), x = a.newRegister();
+      int intrinsic = assembleGuard(a,target,endLabel);
+      argument.assemble(a,x);
+      a.emit(VirtualMachine.CAR+operation,target,x,intrinsic);
+      a.mark(endLabel);
+    }
+  }
+
+
+  private static class BinaryIntrinsic extends Intrinsic {
+    private int operation;
+    private Node firstArgument;
+    private Node secondArgument;
+
+    public BinaryIntrinsic(Address operator, Datum builtin, Application application, int operation, Node firstArgument, Node secondArgument) {
+      super(operator,builtin,application);
+      this.operation = operation;
+      this.firstArgument = firstArgument;
+      this.secondArgument = secondArgument;
+    }
+
+    private boolean isArithmetic() {
+      return operation == ADD || operation == SUBTRACT || operation == MULTIPLY;
+    }
+
+    private boolean isNumericComparison() {
+      return operation >= NUMBER_EQUALS;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      if(isRebound(env)) return applyGenerically(env);
+      if(state == NUMERIC) {
+        try {
+          if(isArithmetic()) return Type.Number.valueOf(evalArithmetic(env));
+          return Type.Boolean.valueOf(evalNumericComparison(env));
+        } catch(UnexpectedResult e) {
+          return e.value;
+        }
+      }
+      Datum x = firstArgument.eval(env);
+      Datum y = secondArgument.eval(env);
+      if(state == UNINITIALIZED) 
+        state = (operation >= ADD && x instanceof Type.Fixnum && y instanceof Type.Fixnum) ? NUMERIC : GENERIC;
+      return applyGeneric(env,x,y);
+    }
+
+    public long evalFixnum(Environment env) throws Exception {
+      if(state != NUMERIC || !isArithmetic()) return super.evalFixnum(env);
+      if(isRebound(env)) return unboxFixnum(applyGenerically(env));
+      try {
+        return evalArithmetic(env);
+      } catch(UnexpectedResult e) {
+        return unboxFixnum(e.value);
+      }
+    }
+
+    public boolean evalTest(Environment env) throws Exception {
+      if(operation == IS_EQ) {
+        if(isRebound(env)) return applyGenerically(env).isTruthy();
+        Datum x = firstArgument.eval(env);
+        return x.eq(secondArgument.eval(env));
+      }
+      if(state != NUMERIC || !isNumericComparison()) return super.evalTest(env);
+      if(isRebound(env)) return applyGenerically(env).isTruthy();
+      try {
+        return evalNumericComparison(env);
+      } catch(UnexpectedResult e) {
+        return e.value.isTruthy();
+      }
+    }
+
+    // NUMERIC state: the arguments are evaluated unboxed. Once one isn't a fixnum, the node
+    // rewrites itself into its generic version & throws the generic result.
+    private long evalFirstFixnum(Environment env) throws Exception {
+      try {
+        return firstArgument.evalFixnum(env);
+      } catch(UnexpectedResult e) {
+        throw despecialize(env,e.value,secondArgument.eval(env));
+      }
+    }
+
+    private long evalSecondFixnum(Environment env, long first) throws Exception {
+      try {
+        return secondArgument.evalFixnum(env);
+      } catch(UnexpectedResult e) {
+        throw despecialize(env,Type.Number.valueOf(first),e.value);
+      }
+    }
+
+    private UnexpectedResult despecialize(Environment env, Datum x, Datum y) throws Exception {
+      state = GENERIC;
+      return new UnexpectedResult(applyGeneric(env,x,y));
+    }
+
+    // Overflowing into a bignum despecializes the node too
+    private long evalArithmetic(Environment env) throws Exception {
+      long a = evalFirstFixnum(env), b = evalSecondFixnum(env,a);
+      try {
+        switch(operation) {
+          case ADD: return Math.addExact(a,b);
+          case SUBTRACT: return Math.subtractExact(a,b);
+          default: return Math.multiplyExact(a,b); // MULTIPLY
+        }
+      } catch(ArithmeticException e) {
+        throw despecialize(env,Type.Number.valueOf(a),Type.Number.valueOf(b));
+      }
+    }
+
+    private boolean evalNumericComparison(Environment env) throws Exception {
+      long a = evalFirstFixnum(env), b = evalSecondFixnum(env,a);
+      switch(operation) {
+        case NUMBER_EQUALS: return a == b;
+        case LESS_THAN: return a < b;
+        case GREATER_THAN: return a > b;
+        case LESS_THAN_OR_EQUAL: return a <= b;
+        default: return a >= b; // GREATER_THAN_OR_EQUAL
+      }
+    }
+
+    private Datum applyGeneric(Environment env, Datum x, Datum y) throws Exception {
+      if(operation == CONS) return new Type.Pair(x,y);
+      if(operation == IS_EQ) return Type.Boolean.valueOf(x.eq(y));
+      if(!(x instanceof Type.Number) || !(y instanceof Type.Number)) return applyBuiltin(env,x,y);
+      return applyNumeric((Type.Number)x,(Type.Number)y);
+    }
+
+    private Datum applyNumeric(Type.Number a, Type.Number b) {
+      switch(operation) {
+        case ADD: return Type.Number.add(a,b);
+        case SUBTRACT: return Type.Number.subtract(a,b);
+        case MULTIPLY: return Type.Number.multiply(a,b);
+        case NUMBER_EQUALS: return Type.Boolean.valueOf(Type.Number.isEqual(a,b));
+        case LESS_THAN: return Type.Boolean.valueOf(Type.Number.isLessThan(a,b));
+        case GREATER_THAN: return Type.Boolean.valueOf(Type.Number.isGreaterThan(a,b));
+        case LESS_THAN_OR_EQUAL: return Type.Boolean.valueOf(Type.Number.isLessThanOrEqual(a,b));
+        default: return Type.Boolean.valueOf(Type.Number.isGreaterThanOrEqual(a,b)); // GREATER_THAN_OR_EQUAL
+      }
+    }
+
+    private boolean isComparison() {
+      return operation == IS_EQ || operation >= NUMBER_EQUALS;
+    }
+
+    // Yields the locals holding the first & second arguments
+    private int[] compileArguments(Compiler.Method m) throws Exception {
+      int x = m.newLocal(), y = m.newLocal();
+      firstArgument.compile(m);
+      m.store(x);
+      secondArgument.compile(m);
+      m.store(y);
+      return new int[]{x,y};
+    }
+
+    // Emits a jump to <builtinLabel> unless both locals hold numbers, then pushes them
+    // => Numbers are then operated upon via the numeric tower's static methods
+    private void compileNumericArguments(Compiler.Method m, int x, int y, Compiler.Label builtinLabel) throws Exception {
+      m.emitInstanceCheck(x,"Type/Number",builtinLabel);
+      m.emitInstanceCheck(y,"Type/Number",builtinLabel);
+      m.emitLoadNumber(x);
+      m.emitLoadNumber(y);
+    }
+
+    // Emits a jump to <numericLabel> unless both locals hold fixnums, then stores their
+    // values into the yielded <long> locals
+    private int[] compileFixnumArguments(Compiler.Method m, int x, int y, Compiler.Label numericLabel) throws Exception {
+      int a = m.newLongLocal(), b = m.newLongLocal();
+      m.emitInstanceCheck(x,"Type/Fixnum",numericLabel);
+      m.emitInstanceCheck(y,"Type/Fixnum",numericLabel);
+      m.emitLoadFixnum(x);
+      m.storeLong(a);
+      m.emitLoadFixnum(y);
+      m.storeLong(b);
+      return new int[]{a,b};
+    }
+
+    // Emits a jump to <numericLabel> unless both locals hold flonums
+    private void compileFlonumCheck(Compiler.Method m, int x, int y, Compiler.Label numericLabel) throws Exception {
+      m.emitInstanceCheck(x,"Type/Flonum",numericLabel);
+      m.emitInstanceCheck(y,"Type/Flonum",numericLabel);
+    }
+
+    // NUMERIC state: the arguments are compiled unboxed into the yielded <long> locals. Once
+    // one isn't a fixnum, control continues at <genericLabel> with both arguments boxed in
+    // locals <x> & <y> instead.
+    private int[] compileUnboxedArguments(Compiler.Method m, int x, int y, Compiler.Label genericLabel) throws Exception {
+      int a = m.newLongLocal(), b = m.newLongLocal();
+      Compiler.Fallback first = m.newFallback(x), second = m.newFallback(y);
+      Compiler.Label unboxedLabel = m.newLabel();
+      firstArgument.compileFixnum(m,first);
+      m.storeLong(a);
+      secondArgument.compileFixnum(m,second);
+      m.storeLong(b);
+      m.jump(Compiler.GOTO,unboxedLabel);
+      m.mark(first.label);
+      secondArgument.compile(m);
+      m.store(y);
+      m.jump(Compiler.GOTO,genericLabel);
+      m.mark(second.label);
+      m.loadLong(a);
+      m.emitBoxFixnum();
+      m.store(x);
+      m.jump(Compiler.GOTO,genericLabel);
+      m.mark(unboxedLabel);
+      return new int[]{a,b};
+    }
+
+    private int arithmeticOpcode() {
+      return operation == ADD ? Compiler.LADD : operation == SUBTRACT ? Compiler.LSUB : Compiler.LMUL;
+    }
+
+    // Fixnums & flonums are added, subtracted, & multiplied unboxed, & only overflows (into
+    // bignums) & other numbers go through the numeric tower
+    private void compileArithmetic(Compiler.Method m, int x, int y, Compiler.Label endLabel, Compiler.Label builtinLabel) throws Exception {
+      Compiler.Label flonumLabel = m.newLabel(), numericLabel = m.newLabel();
+      int[] ab = compileFixnumArguments(m,x,y,flonumLabel);
+      m.emitExactArithmetic(arithmeticOpcode(),ab[0],ab[1],numericLabel);
+      m.emitBoxFixnum();
+      m.jump(Compiler.GOTO,endLabel);
+      m.mark(flonumLabel);
+      compileFlonumCheck(m,x,y,numericLabel);
+      m.typeOp(Compiler.NEW,"Type/Flonum");
+      m.op(Compiler.DUP);
+      m.emitLoadFlonum(x);
+      m.emitLoadFlonum(y);
+      m.op(operation == ADD ? Compiler.DADD : operation == SUBTRACT ? Compiler.DSUB : Compiler.DMUL);
+      m.invoke(Compiler.INVOKESPECIAL,"Type/Flonum","<init>","(D)V");
+      m.jump(Compiler.GOTO,endLabel);
+      m.mark(numericLabel);
+      compileNumericArguments(m,x,y,builtinLabel);
+      String arithmetic = operation == ADD ? "add" : operation == SUBTRACT ? "subtract" : "multiply";
+      m.invoke(Compiler.INVOKESTATIC,"Type/Number",arithmetic,"(LType/Number;LType/Number;)LType/Number;");
+      m.jump(Compiler.GOTO,endLabel);
+    }
+
+    // Yields the branch taken after <LCMP> (or <flonumComparisonOpcode>) iff the numeric
+    // comparison doesn't hold
+    private int comparisonFailure() {
+      switch(operation) {
+        case NUMBER_EQUALS: return Compiler.IFNE;
+        case LESS_THAN: return Compiler.IFGE;
+        case GREATER_THAN: return Compiler.IFLE;
+        case LESS_THAN_OR_EQUAL: return Compiler.IFGT;
+        default: return Compiler.IFLT; // GREATER_THAN_OR_EQUAL
+      }
+    }
+
+    // NaNs compare so as to fail every comparison
+    private int flonumComparisonOpcode() {
+      return (operation == LESS_THAN || operation == LESS_THAN_OR_EQUAL) ? Compiler.DCMPG : Compiler.DCMPL;
+    }
+
+    // Emits a jump to <falseLabel> iff the comparison of locals <x> & <y> doesn't hold, or
+    // to <builtinLabel> if they must be handled by the built-in
+    // => NOTE: fixnums & flonums are compared unboxed, & other numbers via the numeric tower
+    private void compileComparison(Compiler.Method m, int x, int y, Compiler.Label falseLabel, Compiler.Label builtinLabel) throws Exception {
+      if(operation == IS_EQ) {
+        m.load(x);
+        m.load(y);
+        m.invoke(Compiler.INVOKEVIRTUAL,Compiler.DATUM,"eq","(Ljava/lang/Object;)Z");
+        m.jump(Compiler.IFEQ,falseLabel);
+        return;
+      }
+      Compiler.Label flonumLabel = m.newLabel(), numericLabel = m.newLabel(), holdsLabel = m.newLabel();
+      m.emitInstanceCheck(x,"Type/Fixnum",flonumLabel);
+      m.emitInstanceCheck(y,"Type/Fixnum",flonumLabel);
+      m.emitLoadFixnum(x);
+      m.emitLoadFixnum(y);
+      m.op(Compiler.LCMP);
+      m.jump(comparisonFailure(),falseLabel);
+      m.jump(Compiler.GOTO,holdsLabel);
+      m.mark(flonumLabel);
+      compileFlonumCheck(m,x,y,numericLabel);
+      m.emitLoadFlonum(x);
+      m.emitLoadFlonum(y);
+      m.op(flonumComparisonOpcode());
+      m.jump(comparisonFailure(),falseLabel);
+      m.jump(Compiler.GOTO,holdsLabel);
+      m.mark(numericLabel);
+      compileNumericArguments(m,x,y,builtinLabel);
+      String comparison;
+      switch(operation) {
+        case NUMBER_EQUALS: comparison = "isEqual"; break;
+        case LESS_THAN: comparison = "isLessThan"; break;
+        case GREATER_THAN: comparison = "isGreaterThan"; break;
+        case LESS_THAN_OR_EQUAL: comparison = "isLessThanOrEqual"; break;
+        default: comparison = "isGreaterThanOrEqual"; break; // GREATER_THAN_OR_EQUAL
+      }
+      m.invoke(Compiler.INVOKESTATIC,"Type/Number",comparison,"(LType/Number;LType/Number;)Z");
+      m.jump(Compiler.IFEQ,falseLabel);
+      m.mark(holdsLabel);
+    }
+
+    // NUMERIC state: nested arithmetic stays unboxed, falling back on the generic version
+    // (much like "evalArithmetic") once an argument isn't a fixnum or the result overflows
+    public void compileFixnum(Compiler.Method m, Compiler.Fallback fallback) throws Exception {
+      if(state != NUMERIC || !isArithmetic()) {
+        super.compileFixnum(m,fallback);
+        return;
+      }
+      Compiler.Label genericLabel = m.newLabel(), overflowLabel = m.newLabel(), builtinLabel = m.newLabel();
+      Compiler.Label boxedLabel = m.newLabel(), unboxedLabel = m.newLabel();
+      compileGuard(m,boxedLabel);
+      int x = m.newLocal(), y = m.newLocal();
+      int[] ab = compileUnboxedArguments(m,x,y,genericLabel);
+      m.emitExactArithmetic(arithmeticOpcode(),ab[0],ab[1],overflowLabel);
+      m.jump(Compiler.GOTO,unboxedLabel);
+      m.mark(overflowLabel);
+      m.loadLong(ab[0]);
+      m.emitBoxFixnum();
+      m.store(x);
+      m.loadLong(ab[1]);
+      m.emitBoxFixnum();
+      m.store(y);
+      m.mark(genericLabel);
+      compileArithmetic(m,x,y,boxedLabel,builtinLabel);
+      m.mark(builtinLabel);
+      compileBuiltin(m,x,y);
+      m.mark(boxedLabel);
+      m.store(fallback.value);
+      m.jump(Compiler.GOTO,fallback.label);
+      m.mark(unboxedLabel);
+    }
+
+    public void compile(Compiler.Method m) throws Exception {
+      if(state == NUMERIC && isArithmetic()) {
+        Compiler.Fallback fallback = m.newFallback(m.newLocal());
+        Compiler.Label endLabel = m.newLabel();
+        compileFixnum(m,fallback);
+        m.emitBoxFixnum();
+        m.jump(Compiler.GOTO,endLabel);
+        m.mark(fallback.label);
+        m.load(fallback.value);
+        m.mark(endLabel);
+        return;
+      }
+      Compiler.Label builtinLabel = m.newLabel(), endLabel = m.newLabel();
+      compileGuard(m,endLabel);
+      int[] xy = compileArguments(m);
+      int x = xy[0], y = xy[1];
+      if(operation == CONS) {
+        m.typeOp(Compiler.NEW,"Type/Pair");
+        m.op(Compiler.DUP);
+        m.load(x);
+        m.load(y);
+        m.invoke(Compiler.INVOKESPECIAL,"Type/Pair","<init>","(LType/Datum;LType/Datum;)V");
+        m.mark(endLabel);
+        return;
+      }
+      if(isComparison()) {
+        Compiler.Label falseLabel = m.newLabel();
+        compileComparison(m,x,y,falseLabel,builtinLabel);
+        m.emitBoolean(true);
+        m.jump(Compiler.GOTO,endLabel);
+        m.mark(falseLabel);
+        m.emitBoolean(false);
+        m.jump(Compiler.GOTO,endLabel);
+      } else {
+        compileArithmetic(m,x,y,endLabel,builtinLabel);
+      }
+      if(operation != IS_EQ) {
+        m.mark(builtinLabel);
+        compileBuiltin(m,x,y);
+      }
+      m.mark(endLabel);
+    }
+
+    public void compileTest(Compiler.Method m, Compiler.Label falseLabel) throws Exception {
+      if(!isComparison()) {
+        super.compileTest(m,falseLabel);
+        return;
+      }
+      Compiler.Label builtinLabel = m.newLabel(), trueLabel = m.newLabel();
+      compileTestGuard(m,falseLabel,trueLabel);
+      int[] xy;
+      if(state == NUMERIC) {
+        Compiler.Label genericLabel = m.newLabel();
+        xy = new int[]{m.newLocal(),m.newLocal()};
+        int[] ab = compileUnboxedArguments(m,xy[0],xy[1],genericLabel);
+        m.loadLong(ab[0]);
+        m.loadLong(ab[1]);
+        m.op(Compiler.LCMP);
+        m.jump(comparisonFailure(),falseLabel);
+        m.jump(Compiler.GOTO,trueLabel);
+        m.mark(genericLabel);
+      } else {
+        xy = compileArguments(m);
+      }
+      compileComparison(m,xy[0],xy[1],falseLabel,builtinLabel);
+      if(operation != IS_EQ) {
+        m.jump(Compiler.GOTO,trueLabel);
+        m.mark(builtinLabel);
+        compileBuiltin(m,xy[0],xy[1]);
+        m.emitIsTruthy();
+        m.jump(Compiler.IFEQ,falseLabel);
+      }
+      m.mark(trueLabel);
+    }
+
+    // NOTE: the VM's binary intrinsic opcodes follow the order of the operations
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      int endLabel = a.newLabel(), x = a.newRegister(), y = a.newRegister();
+      int intrinsic = assembleGuard(a,target,endLabel);
+      firstArgument.assemble(a,x);
+      secondArgument.assemble(a,y);
+      a.emit(VirtualMachine.CONS+operation,target,x,y,intrinsic);
+      a.mark(endLabel);
+    }
+
+    // Comparisons branch directly on their operands
+    public void assembleTest(VirtualMachine.Assembler a, int falseLabel) throws Exception {
+      if(!isComparison()) {
+        super.assembleTest(a,falseLabel);
+        return;
+      }
+      int trueLabel = a.newLabel(), x = a.newRegister(), y = a.newRegister();
+      int intrinsic = assembleTestGuard(a,falseLabel,trueLabel);
+      firstArgument.assemble(a,x);
+      secondArgument.assemble(a,y);
+      a.emitJump(falseLabel,VirtualMachine.BRANCH_UNLESS,VirtualMachine.CONS+operation,x,y,intrinsic);
+      a.mark(trueLabel);
+    }
+  }
+
+
+  // Returns <null> if the application can't be an intrinsic
+  private static Node analyzeIntrinsic(Datum operator, Scope scope, Node[] arguments, Application application) {
+    if(!(operator instanceof Type.Symbol)) return null;
+    Type.Symbol name = (Type.Symbol)operator;
+    Datum builtin = builtins.get(name);
+    if(builtin == null) return null;
+    Address address = resolve(name,scope);
+    if(!(address instanceof GlobalAddress)) return null; // shadowed by a local variable
+    if(arguments.length == 1 && unaryIntrinsics.containsKey(name))
+      return new UnaryIntrinsic(address,builtin,application,unaryIntrinsics.get(name),arguments[0]);
+    if(arguments.length == 2 && binaryIntrinsics.containsKey(name))
+      return new BinaryIntrinsic(address,builtin,application,binaryIntrinsics.get(name),arguments[0],arguments[1]);
+    return null;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constant folding
+  // => Applications of pure primitives to constant arguments are evaluated ONCE, at analysis
+  //    time. Much like intrinsics, the folded value is guarded by a check that every
+  //    primitive it was computed with is still bound to its built-in, falling back on the
+  //    unfolded node if any has been rebound.
+  // => NOTE: only immutable values (numbers, strings, symbols, etc.) are folded, hence
+  //          sharing a folded value is indistinguishable from recomputing it. Applications
+  //          raising an error aren't folded either, leaving the error to be raised at runtime.
+  private static HashSet<Type.Symbol> foldablePrimitives = new HashSet<Type.Symbol>();
+
+  static {
+    java.lang.String[] names = {
+      "+", "-", "*", "/", "=", "<", ">", "<=", ">=", "expt", "exp", "log", "sqrt", "abs", 
+      "min", "max", "quotient", "remainder", "round", "floor", "ceiling", "truncate", 
+      "number?", "integer?", "finite?", "infinite?", "nan?", "odd?", "even?", "positive?", 
+      "negative?", "zero?", "exact?", "inexact?", "exact->inexact", "inexact->exact", "sin", "cos", "tan", "asin", "acos", "atan", "sinh", "cosh", 
+      "tanh", "asinh", "acosh", "atanh", "eq?", "equal?", "not", "typeof", "void?", 
+      "boolean?", "string->number", "number->string", "write-to-string", "display-to-string", 
+      "string-length", "string-empty?", "string-reverse", "string-append", "string-ref", 
+      "substring", "string-upcase", "string-downcase", "string-replace", "string-trim", 
+      "string-contains", "string-contains-right", "string=?", "string<?", "string>?", 
+      "string<=?", "string>=?", "string-ci=?", "string-ci<?", "string-ci>?", "string-ci<=?", 
+      "string-ci>=?", "string?", "symbol-append", "symbol?", "null?", "pair?", "atom?"
+    };
+    for(java.lang.String name : names)
+      foldablePrimitives.add(Type.Symbol.intern(name));
+  }
+
+
+  private static boolean isImmutable(Datum value) {
+    return value instanceof Type.Number || value instanceof Type.String || value instanceof Type.Symbol ||
+           value instanceof Type.Boolean || value instanceof Type.Nil || value instanceof Type.Void;
+  }
+
+
+  // Returns the value of a literal (constant or quote) node, or <null> if it isn't one
+  private static Datum literalValue(Node node) {
+    if(node instanceof Constant) return ((Constant)node).value;
+    if(node instanceof Quote) return ((Quote)node).constant;
+    return null;
+  }
+
+
+  private static class Folded extends Node {
+    private Datum value;
+    private Address[] operators; // primitives the value was computed with
+    private Datum[] builtins;
+    private Node unfolded;
+
+    public Folded(Datum value, Address[] operators, Datum[] builtins, Node unfolded) {
+      this.value = value;
+      this.operators = operators;
+      this.builtins = builtins;
+      this.unfolded = unfolded;
+    }
+
+    public Datum eval(Environment env) throws Exception {
+      for(int i = 0; i < operators.length; ++i)
+        if(operators[i].get(env) != builtins[i]) return unfolded.eval(env);
+      return value;
+    }
+
+    public void assemble(VirtualMachine.Assembler a, int target) throws Exception {
+      int unfoldedLabel = a.newLabel(), endLabel = a.newLabel();
+      for(int i = 0; i < operators.length; ++i)
+        a.emitJump(unfoldedLabel,VirtualMachine.JUMP_IF_REBOUND,a.constant(operators[i]),a.constant(builtins[i]));
+      a.emit(VirtualMachine.CONST,target,a.constant(value));
+      a.emitJump(endLabel,VirtualMachine.JUMP);
+      a.mark(unfoldedLabel);
+      unfolded.assemble(a,target);
+      a.mark(endLabel);
+    }
+  }
+
+
+  // Returns <null> if the application can't be folded
+  private static Node analyzeFolding(Datum operator, Scope scope, Node[] arguments, Node unfolded) {
+    if(!(operator instanceof Type.Symbol) || !foldablePrimitives.contains(operator)) return null;
+    Datum builtin = builtins.get(operator);
+    Address address = resolve((Type.Symbol)operator,scope);
+    if(builtin == null || !(address instanceof GlobalAddress)) return null; // shadowed by a local variable
+    ArrayList<Address> operators = new ArrayList<Address>();
+    ArrayList<Datum> operatorBuiltins = new ArrayList<Datum>();
+    operators.add(address);
+    operatorBuiltins.add(builtin);
+    ArrayList<Datum> values = new ArrayList<Datum>(arguments.length);
+    for(Node argument : arguments) {
+      Datum value = literalValue(argument);
+      if(argument instanceof Folded) {
+        Folded folded = (Folded)argument;
+        value = folded.value;
+        for(int i = 0; i < folded.operators.length; ++i) {
+          operators.add(folded.operators[i]);
+          operatorBuiltins.add(folded.builtins[i]);
+        }
+      }
+      if(!isImmutable(value)) return null;
+      values.add(value);
+    }
+    try {
+      Datum value = ((Type.Procedure)builtin).callWith(Runtime.globalEnvironment,values);
+      if(!isImmutable(value)) return null;
+      int n = operators.size();
+      return new Folded(value,operators.toArray(new Address[n]),operatorBuiltins.toArray(new Datum[n]),unfolded);
+    } catch(Exception e) {
+      return null;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Intrinsic support for compiled code & VM programs (see "Intrinsic.compileGuard")
+  public static boolean isIntrinsicRebound(Node intrinsic, Environment env) throws Exception {
+    return ((Intrinsic)intrinsic).isRebound(env);
+  }
+
+
+  public static Datum applyIntrinsicBuiltin(Node intrinsic, Environment env, Datum x) throws Exception {
+    return ((Intrinsic)intrinsic).applyBuiltin(env,x);
+  }
+
+
+  public static Datum applyIntrinsicBuiltin(Node intrinsic, Environment env, Datum x, Datum y) throws Exception {
+    return ((Intrinsic)intrinsic).applyBuiltin(env,x,y);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Implementing the Analysis Dispatch
+  // => NOTE: SHOULD NEVER MUTATE <d>!
+  // => <scope> describes the environment the node will be evaluated in (see "Type.Frame.Scope.of")
+  public static Node analyze(Datum d, Scope scope) throws Exception {
+    return analyze(d,scope,false);
+  }
+
+
+  // <isTail> denotes whether <d> is in the tail position of a procedure body
+  private static Node analyze(Datum d, Scope scope, boolean isTail) throws Exception {
+    switch(d.tag) {
+      case Datum.SYMBOL: return new Variable(resolve((Type.Symbol)d,scope));
+      case Datum.PAIR: break;
+      case Datum.VECTOR: case Datum.F64VECTOR: case Datum.S64VECTOR: case Datum.U8VECTOR: return new Quote(d); // mutable
+      default: return new Constant(d);
+    }
+    Type.Pair expr = (Type.Pair)d;
+    if(isTaggedList(expr,DEFINE_MACRO)) return analyzeDefineMacro(d,scope);
+    if(isTaggedList(expr,DEFINE) || isTaggedList(expr,DEF)) return analyzeDefine(d,scope);
+    if(isTaggedList(expr,SET)) return analyzeSet(d,scope);
+    if(isTaggedList(expr,IF)) return analyzeIf(d,scope,isTail);
+    if(isTaggedList(expr,LAMBDA)) return analyzeLambda(d,scope);
+    if(isTaggedList(expr,BEGIN)) return analyzeBegin(d,scope,isTail);
+    if(isTaggedList(expr,QUOTE)) return analyzeQuote(d);
+    if(isTaggedList(expr,LET)) return analyzeLet(d,scope,isTail);
+    if(isTaggedList(expr,LET_STAR)) return analyzeLetStar(d,scope,isTail);
+    if(isTaggedList(expr,LETREC)) return analyzeLetrec(d,scope,isTail);
+    if(isTaggedList(expr,COND)) return analyzeCond(d,scope,isTail);
+    if(isTaggedList(expr,AND)) return analyzeAnd(d,scope,isTail);
+    if(isTaggedList(expr,OR)) return analyzeOr(d,scope,isTail);
+    if(isTaggedList(expr,WHEN)) return analyzeWhen(d,scope,isTail,true);
+    if(isTaggedList(expr,UNLESS)) return analyzeWhen(d,scope,isTail,false);
+    return analyzeApplication(d,scope,isTail);
+  }
+
+
+  // Analyzes a nested expression, deferring any syntax errors until evaluation
+  private static Node analyzeSubexpression(Datum d, Scope scope, boolean isTail) {
+    try {
+      return analyze(d,scope,isTail);
+    } catch(Exception e) {
+      return new Invalid(e);
+    }
+  }
+}
@@ -0,0 +1,701 @@
+// Author: Jordan Randleman - Util.Compiler
+// Purpose:
+//    JVM bytecode compiler -- the tier above "Util.Analyzer"'s tree-walking evaluator.
+//    Once a compound procedure's body is hot (see "Compiler.callThreshold" & 
+//    "Compiler.loopThreshold"), it is compiled into a real JVM class (extending
+//    "Compiler.CompiledBody"), which is loaded through its own "Compiler.Loader" & then
+//    invoked by "Type.CompoundProcedure" in place of the body's node tree. Classes are
+//    emitted using nothing but the JDK itself (see "ClassFile" & "Method").
+//
+//    Each node compiles itself (see "Analyzer.Node.compile"):
+//      0) Control flow (<if>, <cond>, <and>, <or>, <when>, <unless>, & <begin>) becomes
+//         JVM branches
+//      1) Intrinsics operate on fixnums & flonums unboxed (checking fixnums for overflows
+//         into bignums), call the numeric tower's static operations directly on other numbers
+//         (see "Type.Number"), & comparisons in test position branch directly on their
+//         operands (without ever allocating a boolean). Nested arithmetic that has only seen
+//         fixnums (see "Analyzer.Intrinsic") is computed on <long>s, boxing its result once.
+//      2) Parameters that are never reassigned are read from JVM locals rather than the frame
+//      3) Tail calls to the procedure itself become JVM loops, & other applications call
+//         "CompiledBody.apply" directly
+//      4) Every other node is embedded as-is & invoked via its <eval> method
+//    Hence compiled bodies behave EXACTLY like their node trees: they run in the very same
+//    "Type.Frame" (which closures, <define>, & <eval> may still capture).
+//
+//    Note that classes are emitted in the Java 5 (version 49) class file format, which
+//    the JVM verifies by type inference, hence no stack map frames need be computed.
+//
+//    Further note that bodies which fail to compile (e.g. too large for 16-bit branch
+//    offsets) simply keep being evaluated by their node tree.
+
+package Util;
+import Type.Datum;
+import Type.Environment;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class Compiler {
+  ////////////////////////////////////////////////////////////////////////////
+  // Tiering Thresholds (set via cmd-line flags, 0 disables compilation)
+  // => A procedure's body is compiled once it has been invoked <callThreshold> times,
+  //    or once it has looped (tail called itself) <loopThreshold> times.
+  public static int callThreshold = 1000;
+  public static int loopThreshold = 1000;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Debugging (set via the <--debug-compiler> cmd-line flag)
+  // => Compilation failures are rethrown rather than reported & left to the interpreter
+  public static boolean isDebugging = false;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // JVM Opcodes (only those emitted by node compilers)
+  public static final int ICONST_0 = 0x03, LCONST_0 = 0x09, BIPUSH = 0x10, SIPUSH = 0x11, LDC_W = 0x13;
+  public static final int LLOAD = 0x16, ALOAD = 0x19, LSTORE = 0x37, ASTORE = 0x3a, AALOAD = 0x32;
+  public static final int POP = 0x57, DUP = 0x59;
+  public static final int LADD = 0x61, LSUB = 0x65, LMUL = 0x69, LSHR = 0x7b, LAND = 0x7f, LXOR = 0x83, LCMP = 0x94;
+  public static final int DADD = 0x63, DSUB = 0x67, DMUL = 0x6b, I2L = 0x85, DCMPL = 0x97, DCMPG = 0x98;
+  public static final int IFEQ = 0x99, IFNE = 0x9a, IFLT = 0x9b, IFGE = 0x9c, IFGT = 0x9d, IFLE = 0x9e;
+  public static final int IF_ACMPNE = 0xa6, GOTO = 0xa7, IFNONNULL = 0xc7;
+  public static final int ARETURN = 0xb0, RETURN = 0xb1;
+  public static final int GETSTATIC = 0xb2, GETFIELD = 0xb4;
+  public static final int INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8;
+  public static final int NEW = 0xbb, CHECKCAST = 0xc0, INSTANCEOF = 0xc1, WIDE = 0xc4;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Frequently Referenced Class Names & Descriptors
+  public static final String DATUM = "Type/Datum";
+  public static final String NODE = "Util/Analyzer$Node";
+  public static final String COMPILED_BODY = "Util/Compiler$CompiledBody";
+  public static final String EVAL_DESCRIPTOR = "(LType/Environment;)LType/Datum;";
+  private static final String INVOKE_DESCRIPTOR = "(LType/CompoundProcedure;LType/Environment;)LType/Datum;";
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Signals that a body can't be compiled (it's interpreted instead)
+  public static class Unsupported extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public Unsupported(String reason) {
+      super(reason);
+    }
+
+    // No stack trace: only used to fall back on the interpreter
+    public Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Superclass of Compiled Bodies
+  // => <constants> holds the nodes & data referenced by the compiled code
+  // => The static methods are invoked by the compiled code
+  public static abstract class CompiledBody {
+    protected Object[] constants;
+
+    public CompiledBody(Object[] constants) {
+      this.constants = constants;
+    }
+
+    // Evaluates the body of <self> in <frame> (may return a <TailCall>, just like its node tree)
+    public abstract Datum invoke(Type.CompoundProcedure self, Environment frame) throws Exception;
+
+    public static Datum apply(Datum callable, ArrayList<Datum> arguments, Environment env, boolean isTail) throws Exception {
+      if(isTail && callable instanceof Type.CompoundProcedure)
+        return new Type.CompoundProcedure.TailCall((Type.CompoundProcedure)callable,arguments);
+      return ((Type.Procedure)callable).callWith(env,arguments);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Constant Pool
+  private static class ConstantPool {
+    private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private DataOutputStream out = new DataOutputStream(bytes);
+    private HashMap<String,Integer> indices = new HashMap<String,Integer>();
+    private int count = 1;
+
+    public int size() {
+      return count;
+    }
+
+    public byte[] toByteArray() {
+      return bytes.toByteArray();
+    }
+
+    private Integer lookup(String key) {
+      return indices.get(key);
+    }
+
+    private int add(String key) {
+      indices.put(key,count);
+      return count++;
+    }
+
+    public int utf8(String s) throws Exception {
+      Integer index = lookup("U"+s);
+      if(index != null) return index;
+      out.writeByte(1);
+      out.writeUTF(s);
+      return add("U"+s);
+    }
+
+    public int classRef(String name) throws Exception {
+      Integer index = lookup("C"+name);
+      if(index != null) return index;
+      int nameIndex = utf8(name);
+      out.writeByte(7);
+      out.writeShort(nameIndex);
+      return add("C"+name);
+    }
+
+    public int integer(int i) throws Exception {
+      Integer index = lookup("I"+i);
+      if(index != null) return index;
+      out.writeByte(3);
+      out.writeInt(i);
+      return add("I"+i);
+    }
+
+    private int nameAndType(String name, String descriptor) throws Exception {
+      String key = "N"+name+" "+descriptor;
+      Integer index = lookup(key);
+      if(index != null) return index;
+      int nameIndex = utf8(name), descriptorIndex = utf8(descriptor);
+      out.writeByte(12);
+      out.writeShort(nameIndex);
+      out.writeShort(descriptorIndex);
+      return add(key);
+    }
+
+    // <tag> is 9 for fields & 10 for methods
+    public int member(int tag, String owner, String name, String descriptor) throws Exception {
+      String key = tag+owner+"."+name+" "+descriptor;
+      Integer index = lookup(key);
+      if(index != null) return index;
+      int ownerIndex = classRef(owner), nameAndTypeIndex = nameAndType(name,descriptor);
+      out.writeByte(tag);
+      out.writeShort(ownerIndex);
+      out.writeShort(nameAndTypeIndex);
+      return add(key);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Branch Targets
+  public static class Label {
+    private int position = -1;
+    private int stackDepth = -1; // operand stack depth upon reaching the label
+    private ArrayList<Integer> branches = new ArrayList<Integer>(); // positions of branches to the label
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Unboxed Code Fallbacks
+  // => Where code yielding an unboxed fixnum (see "Analyzer.Node.compileFixnum") continues
+  //    if its value turns out not to be a fixnum, with the (boxed) value in local <value>
+  public static class Fallback {
+    public final Label label;
+    public final int value;
+
+    private Fallback(Label label, int value) {
+      this.label = label;
+      this.value = value;
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Method Bodies
+  // => Tracks the operand stack depth of emitted instructions to compute <max_stack>
+  public static class Method {
+    // Locals of the compiled <invoke> method
+    public static final int SELF = 1, FRAME = 2, CONSTANTS = 3;
+
+    private ConstantPool pool;
+    private ArrayList<Object> constants;
+    private byte[] code = new byte[256];
+    private int length = 0;
+    private int stackDepth = 0;
+    private int maxStack = 0;
+    private int totalLocals = CONSTANTS+1;
+    private ArrayList<Label> labels = new ArrayList<Label>();
+    private Label start;
+    private int[] parameterLocals = new int[0]; // locals caching the frame's parameters (-1 if uncached)
+    public int inlinedCalls = 0; // inlined applications enclosing the code being emitted
+    public int letFrames = 0; // <let> frames enclosing the code being emitted (see "Analyzer.Let.compile")
+
+    private Method(ConstantPool pool, ArrayList<Object> constants) {
+      this.pool = pool;
+      this.constants = constants;
+    }
+
+    // Byte Emission
+    private void u1(int b) {
+      if(length == code.length) {
+        byte[] grown = new byte[code.length*2];
+        System.arraycopy(code,0,grown,0,length);
+        code = grown;
+      }
+      code[length++] = (byte)b;
+    }
+
+    private void u2(int s) {
+      u1(s >> 8);
+      u1(s);
+    }
+
+    private void adjustStack(int delta) {
+      stackDepth += delta;
+      if(stackDepth > maxStack) maxStack = stackDepth;
+    }
+
+    // Returns the # of stack slots taken by a value of the given type descriptor character
+    private static int slotsOf(char type) {
+      if(type == 'V') return 0;
+      if(type == 'D' || type == 'J') return 2;
+      return 1;
+    }
+
+    // Returns the # of stack slots taken by a method's arguments
+    private static int argumentSlots(String descriptor) {
+      int slots = 0, i = 1;
+      while(descriptor.charAt(i) != ')') {
+        char type = descriptor.charAt(i);
+        if(type == '[' || type == 'L') {
+          while(descriptor.charAt(i) == '[') ++i;
+          if(descriptor.charAt(i) == 'L') i = descriptor.indexOf(';',i);
+          slots += 1;
+        } else {
+          slots += slotsOf(type);
+        }
+        ++i;
+      }
+      return slots;
+    }
+
+    // Instructions
+    public void op(int opcode) {
+      u1(opcode);
+      switch(opcode) {
+        case DUP: adjustStack(1); break;
+        case AALOAD: case POP: case ARETURN: case LSHR: adjustStack(-1); break;
+        case I2L: adjustStack(1); break;
+        case LCONST_0: adjustStack(2); break;
+        case LADD: case LSUB: case LMUL: case LAND: case LXOR: case DADD: case DSUB: case DMUL: adjustStack(-2); break;
+        case LCMP: case DCMPL: case DCMPG: adjustStack(-3); break;
+      }
+    }
+
+    public void pushInt(int i) throws Exception {
+      if(i >= -1 && i <= 5) {
+        u1(ICONST_0+i);
+      } else if(i >= Byte.MIN_VALUE && i <= Byte.MAX_VALUE) {
+        u1(BIPUSH);
+        u1(i);
+      } else if(i >= Short.MIN_VALUE && i <= Short.MAX_VALUE) {
+        u1(SIPUSH);
+        u2(i);
+      } else {
+        u1(LDC_W);
+        u2(pool.integer(i));
+      }
+      adjustStack(1);
+    }
+
+    private void local(int opcode, int index) {
+      if(index > 255) {
+        u1(WIDE);
+        u1(opcode);
+        u2(index);
+      } else {
+        u1(opcode);
+        u1(index);
+      }
+    }
+
+    public void load(int index) {
+      local(ALOAD,index);
+      adjustStack(1);
+    }
+
+    public void store(int index) {
+      local(ASTORE,index);
+      adjustStack(-1);
+    }
+
+    public void loadLong(int index) {
+      local(LLOAD,index);
+      adjustStack(2);
+    }
+
+    public void storeLong(int index) {
+      local(LSTORE,index);
+      adjustStack(-2);
+    }
+
+    // <NEW>, <CHECKCAST>, & <INSTANCEOF>
+    public void typeOp(int opcode, String className) throws Exception {
+      u1(opcode);
+      u2(pool.classRef(className));
+      if(opcode == NEW) adjustStack(1);
+    }
+
+    public void getField(String owner, String name, String descriptor) throws Exception {
+      u1(GETFIELD);
+      u2(pool.member(9,owner,name,descriptor));
+      adjustStack(slotsOf(descriptor.charAt(0))-1);
+    }
+
+    public void getStatic(String owner, String name, String descriptor) throws Exception {
+      u1(GETSTATIC);
+      u2(pool.member(9,owner,name,descriptor));
+      adjustStack(slotsOf(descriptor.charAt(0)));
+    }
+
+    public void invoke(int opcode, String owner, String name, String descriptor) throws Exception {
+      u1(opcode);
+      u2(pool.member(10,owner,name,descriptor));
+      int returned = slotsOf(descriptor.charAt(descriptor.indexOf(')')+1));
+      adjustStack(returned-argumentSlots(descriptor)-(opcode == INVOKESTATIC ? 0 : 1));
+    }
+
+    // Branching
+    public Label newLabel() {
+      Label label = new Label();
+      labels.add(label);
+      return label;
+    }
+
+    public void jump(int opcode, Label label) {
+      label.branches.add(length);
+      u1(opcode);
+      u2(0); // patched by <resolveLabels>
+      if(opcode == IF_ACMPNE) adjustStack(-2);
+      else if(opcode != GOTO) adjustStack(-1);
+      label.stackDepth = stackDepth;
+    }
+
+    // NOTE: code following a <GOTO> is only reachable via labels, hence takes their stack depth
+    public void mark(Label label) {
+      label.position = length;
+      if(label.stackDepth != -1) stackDepth = label.stackDepth;
+      else label.stackDepth = stackDepth;
+    }
+
+    private void resolveLabels() throws Exception {
+      for(Label label : labels) {
+        for(int branch : label.branches) {
+          int offset = label.position-branch;
+          if(offset < Short.MIN_VALUE || offset > Short.MAX_VALUE)
+            throw new Unsupported("branch offset exceeds 16 bits");
+          code[branch+1] = (byte)(offset >> 8);
+          code[branch+2] = (byte)offset;
+        }
+      }
+    }
+
+    // Locals
+    public int newLocal() {
+      return totalLocals++;
+    }
+
+    // Yields a fallback continuing at a new label, with the boxed value in local <value>
+    public Fallback newFallback(int value) {
+      return new Fallback(newLabel(),value);
+    }
+
+    // Loads the parameters of <code> that can't be reassigned (see "Analyzer.isCacheableParameter")
+    // from the frame into locals, sparing reads of its slots
+    // => NOTE: emitted at the start of the body, hence reloaded by self tail calls
+    private void cacheParameters(Type.CompoundProcedure.Code code) throws Exception {
+      parameterLocals = new int[code.parameters.size()];
+      for(int slot = 0; slot < parameterLocals.length; ++slot) {
+        parameterLocals[slot] = -1;
+        if(!Analyzer.isCacheableParameter(code,slot)) continue;
+        parameterLocals[slot] = newLocal();
+        load(FRAME);
+        typeOp(CHECKCAST,"Type/Frame");
+        pushInt(slot);
+        invoke(INVOKEVIRTUAL,"Type/Frame","getSlot","(I)LType/Datum;");
+        store(parameterLocals[slot]);
+      }
+    }
+
+    // Returns the local caching slot <slot> of the frame <depth> frames up, or -1 if it
+    // isn't a cached parameter of the procedure's own frame
+    public int cachedParameter(int depth, int slot) {
+      if(depth != letFrames || slot >= parameterLocals.length) return -1;
+      return parameterLocals[slot];
+    }
+
+    // Yields a local holding a <long> (which takes 2 slots)
+    public int newLongLocal() {
+      int index = totalLocals;
+      totalLocals += 2;
+      return index;
+    }
+
+    // Constants (yields the constant, cast to <className>, on the operand stack)
+    public void pushConstant(Object value, String className) throws Exception {
+      int index = constants.size();
+      constants.add(value);
+      load(CONSTANTS);
+      pushInt(index);
+      op(AALOAD);
+      typeOp(CHECKCAST,className);
+    }
+
+    // Common Idioms
+    public void pushNode(Analyzer.Node node) throws Exception {
+      pushConstant(node,NODE);
+    }
+
+    public void emitEval(Analyzer.Node node) throws Exception {
+      pushNode(node);
+      load(FRAME);
+      invoke(INVOKEVIRTUAL,NODE,"eval",EVAL_DESCRIPTOR);
+    }
+
+    public void emitIsTruthy() throws Exception {
+      invoke(INVOKEVIRTUAL,DATUM,"isTruthy","()Z");
+    }
+
+    public void emitVoid() throws Exception {
+      getStatic("Type/Void","VALUE","LType/Void;");
+    }
+
+    public void emitBoolean(boolean b) throws Exception {
+      getStatic("Type/Boolean",b ? "TRUE" : "FALSE","LType/Boolean;");
+    }
+
+    // Converts the result of a comparison into a boolean datum, where <falseOpcode>
+    // is the branch taken iff the comparison failed
+    public void emitBooleanOf(int falseOpcode) throws Exception {
+      Label falseLabel = newLabel(), endLabel = newLabel();
+      jump(falseOpcode,falseLabel);
+      emitBoolean(true);
+      jump(GOTO,endLabel);
+      mark(falseLabel);
+      emitBoolean(false);
+      mark(endLabel);
+    }
+
+    // Pushes the datum in local <index> (known to be a number) as a <Type.Number>
+    public void emitLoadNumber(int index) throws Exception {
+      load(index);
+      typeOp(CHECKCAST,"Type/Number");
+    }
+
+    // Pushes the value of the datum in local <index> (known to be a fixnum) as a <long>
+    public void emitLoadFixnum(int index) throws Exception {
+      load(index);
+      typeOp(CHECKCAST,"Type/Fixnum");
+      getField("Type/Fixnum","value","J");
+    }
+
+    // Pushes the fixnum <n> as a <long>
+    public void pushLong(long n) throws Exception {
+      if(n >= Integer.MIN_VALUE && n <= Integer.MAX_VALUE) {
+        pushInt((int)n);
+        op(I2L);
+      } else {
+        pushConstant(Type.Number.valueOf(n),"Type/Fixnum");
+        getField("Type/Fixnum","value","J");
+      }
+    }
+
+    // Pushes the value of the datum in local <index> (known to be a flonum) as a <double>
+    public void emitLoadFlonum(int index) throws Exception {
+      load(index);
+      typeOp(CHECKCAST,"Type/Flonum");
+      getField("Type/Flonum","value","D");
+    }
+
+    // Boxes the <long> atop the operand stack into a <Type.Number>
+    public void emitBoxFixnum() throws Exception {
+      invoke(INVOKESTATIC,"Type/Number","valueOf","(J)LType/Number;");
+    }
+
+    // Pushes the <long> result of <LADD>, <LSUB>, or <LMUL> on the <long> locals <a> & <b>,
+    // unless it overflows: jumps to <overflowLabel> instead (without pushing anything)
+    // => NOTE: the same overflow checks as "Math.addExact" & co, which can't be invoked
+    //          since their exception would clear the operand stack of the enclosing code
+    public void emitExactArithmetic(int opcode, int a, int b, Label overflowLabel) throws Exception {
+      int result = newLongLocal();
+      loadLong(a);
+      loadLong(b);
+      op(opcode);
+      storeLong(result);
+      if(opcode == LMUL) { // overflows iff the high 64 bits aren't the sign extension of the low 64 bits
+        loadLong(a);
+        loadLong(b);
+        invoke(INVOKESTATIC,"java/lang/Math","multiplyHigh","(JJ)J");
+        loadLong(result);
+        pushInt(63);
+        op(LSHR);
+        op(LCMP);
+        jump(IFNE,overflowLabel);
+      } else { // overflows iff the result's sign differs from both (add) or the first (subtract) operand's
+        loadLong(a);
+        loadLong(result);
+        op(LXOR);
+        loadLong(opcode == LADD ? b : a);
+        loadLong(opcode == LADD ? result : b);
+        op(LXOR);
+        op(LAND);
+        op(LCONST_0);
+        op(LCMP);
+        jump(IFLT,overflowLabel);
+      }
+      loadLong(result);
+    }
+
+    // Jumps to <label> unless the datum in local <index> is an instance of <className>
+    public void emitInstanceCheck(int index, String className, Label label) throws Exception {
+      load(index);
+      typeOp(INSTANCEOF,className);
+      jump(IFEQ,label);
+    }
+
+    // Re-runs the body in a frame extended with the argument list in local <argumentsLocal>
+    // => NOTE: the current frame is rebound in place if it can't have been captured, & the
+    //          names of the enclosing inlined applications are popped off the call stack
+    public void emitSelfTailCall(int argumentsLocal) throws Exception {
+      for(int i = 0; i < inlinedCalls; ++i)
+        invoke(INVOKESTATIC,"Util/Runtime$CallStack","pop","()V");
+      load(SELF);
+      load(FRAME);
+      load(argumentsLocal);
+      invoke(INVOKEVIRTUAL,"Type/CompoundProcedure","getReextendedEnvironment","(LType/Environment;Ljava/util/ArrayList;)LType/Environment;");
+      store(FRAME);
+      jump(GOTO,start);
+    }
+
+    // Writes the method to <out>
+    private void write(DataOutputStream out, int accessFlags, String name, String descriptor) throws Exception {
+      resolveLabels();
+      if(length > 65535) throw new Unsupported("method exceeds 64KB");
+      out.writeShort(accessFlags);
+      out.writeShort(pool.utf8(name));
+      out.writeShort(pool.utf8(descriptor));
+      out.writeShort(1); // attributes count
+      out.writeShort(pool.utf8("Code"));
+      out.writeInt(12+length);
+      out.writeShort(maxStack);
+      out.writeShort(totalLocals);
+      out.writeInt(length);
+      out.write(code,0,length);
+      out.writeShort(0); // exception table length
+      out.writeShort(0); // attributes count
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Class Files
+  // => public final class <name> extends CompiledBody {
+  //      public <name>(Object[] constants) { super(constants); }
+  //      public Datum invoke(CompoundProcedure self, Environment frame) { <cache parameters> <body> }
+  //    }
+  private static class ClassFile {
+    private static final int ACC_PUBLIC = 0x0001, ACC_FINAL = 0x0010, ACC_SUPER = 0x0020;
+    private static final int VERSION = 49; // Java 5: no stack map frames required
+
+    private ConstantPool pool = new ConstantPool();
+    private String name;
+    private Method constructor;
+    private Method invoke;
+
+    public ClassFile(String name, Type.CompoundProcedure.Code code, ArrayList<Object> constants) throws Exception {
+      this.name = name;
+      constructor = new Method(pool,constants);
+      constructor.totalLocals = 2;
+      constructor.load(0);
+      constructor.load(1);
+      constructor.invoke(INVOKESPECIAL,COMPILED_BODY,"<init>","([Ljava/lang/Object;)V");
+      constructor.op(RETURN);
+      invoke = new Method(pool,constants);
+      invoke.load(0);
+      invoke.getField(COMPILED_BODY,"constants","[Ljava/lang/Object;");
+      invoke.store(Method.CONSTANTS);
+      invoke.start = invoke.newLabel();
+      invoke.mark(invoke.start);
+      invoke.cacheParameters(code);
+      code.body.compile(invoke);
+      invoke.op(ARETURN);
+    }
+
+    public byte[] toByteArray() throws Exception {
+      int thisIndex = pool.classRef(name), superIndex = pool.classRef(COMPILED_BODY);
+      ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+      DataOutputStream methods = new DataOutputStream(methodBytes);
+      constructor.write(methods,ACC_PUBLIC,"<init>","([Ljava/lang/Object;)V");
+      invoke.write(methods,ACC_PUBLIC,"invoke",INVOKE_DESCRIPTOR);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(VERSION);
+      out.writeShort(pool.size());
+      out.write(pool.toByteArray());
+      out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+      out.writeShort(thisIndex);
+      out.writeShort(superIndex);
+      out.writeShort(0); // interfaces count
+      out.writeShort(0); // fields count
+      out.writeShort(2); // methods count
+      out.write(methodBytes.toByteArray());
+      out.writeShort(0); // attributes count
+      return bytes.toByteArray();
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Class Loading
+  // => Each compiled body gets its own loader, such that it may be garbage collected
+  //    along with the procedures that use it.
+  private static class Loader extends ClassLoader {
+    public Loader() {
+      super(Compiler.class.getClassLoader());
+    }
+
+    public Class<?> define(String name, byte[] bytes) {
+      return defineClass(name,bytes,0,bytes.length);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Compilation
+  private static int totalCompiledBodies = 0;
+
+
+  // Returns <null> if the body of <code> can't be compiled (hence is interpreted instead)
+  // => Bodies exceeding the JVM's limits are left to the interpreter silently, whereas any
+  //    other failure is an emitter bug (e.g. a <VerifyError>), hence reported (or rethrown
+  //    if debugging)
+  public static CompiledBody compile(Type.CompoundProcedure.Code code) throws Exception {
+    try {
+      String name = "Scheme160$CompiledBody" + (totalCompiledBodies++);
+      ArrayList<Object> constants = new ArrayList<Object>();
+      byte[] bytes = new ClassFile(name,code,constants).toByteArray();
+      Class<?> compiled = new Loader().define(name,bytes);
+      return (CompiledBody)compiled.getConstructor(Object[].class).newInstance((Object)constants.toArray());
+    } catch(Unsupported e) {
+      return null;
+    } catch(Exception | LinkageError e) {
+      if(isDebugging) throw e;
+      System.err.printf("SCM160 COMPILER WARNING: Failed to compile a procedure body (interpreting it instead): %s\n", e);
+      return null;
+    }
+  }
+}
@@ -3,8 +3,9 @@
 //    Core Scheme evaluator -- given an environment and an expression data structure,
 //    "Core.eval" will evaluate that expression using the given environment's bindings.
 //
-//    Note that "Core.eval" is effectively a dispatch mechanism serving to resolve symbols,
-//    reflect atomics, evaluate special forms, and apply procedures.
+//    Note that "Core.eval" first analyzes the expression into a tree of executable nodes
+//    via "Util.Analyzer" (which resolves symbols, reflects atomics, evaluates special forms,
+//    and applies procedures), and then executes that tree in the given environment.
 //
 //    Further note that this file also contains the logic to launch the Scheme REPL and 
 //    load a Scheme script.
@@ -12,17 +13,13 @@
 package Util;
 import Type.Datum;
 import Type.Environment;
-import java.util.ArrayList;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.util.Arrays;
 
 public class Core {
   ////////////////////////////////////////////////////////////////////////////
   // Helper(s)
-  private static boolean isTaggedList(Type.Pair p, String tag) throws Exception {
-    return p.car instanceof Type.Symbol && ((Type.Symbol)p.car).value.equals(tag);
-  }
-
   public static Datum car(Datum d) throws Exception {
     if(!(d instanceof Type.Pair))
       throw new Exceptionf("Invalid 'car in evaluator: %s isn't a pair!", d.write());
@@ -69,13 +66,13 @@ public class Core {
   public static void setCar(Datum d, Datum newVal) throws Exception {
     if(!(d instanceof Type.Pair))
       throw new Exceptionf("Invalid 'set-car! in evaluator: %s isn't a pair!", d.write());
-    ((Type.Pair)d).car = newVal;
+    ((Type.Pair)d).setCar(newVal);
   }
 
   public static void setCdr(Datum d, Datum newVal) throws Exception {
     if(!(d instanceof Type.Pair))
       throw new Exceptionf("Invalid 'set-cdr! in evaluator: %s isn't a pair!", d.write());
-    ((Type.Pair)d).cdr = newVal;
+    ((Type.Pair)d).setCdr(newVal);
   }
 
   public static void setCaar(Datum d, Datum newVal) throws Exception { setCar(car(d),newVal); }
@@ -111,267 +108,11 @@ public class Core {
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Representing <define-macro>
-  private static void validateDefineMacro(Datum d) throws Exception {
-    if(cadr(d) instanceof Type.Pair) {
-      if(!(caadr(d) instanceof Type.Symbol))
-        throw new Exceptionf("Invalid 'define-macro Syntax (non-symbol macro name): %s", d.write());
-      if(!(cadadr(d) instanceof Type.Symbol))
-        throw new Exceptionf("Invalid 'define-macro Syntax (non-symbol macro arg): %s", d.write());
-      if(!(cddadr(d) instanceof Type.Nil))
-        throw new Exceptionf("Invalid 'define-macro Syntax (too many args: only accepts 1): %s", d.write());
-      if(cddr(d) instanceof Type.Nil)
-        throw new Exceptionf("Invalid 'define-macro Syntax (missing macro body): %s", d.write());
-    } else {
-      throw new Exceptionf("Invalid 'define-macro Syntax (no macro-name & macro-argument list): %s", d.write());
-    }
-  }
-
-
-  private static Datum evalDefineMacro(Environment env, Datum d) throws Exception {
-    validateDefineMacro(d);
-    String macroName = ((Type.Symbol)caadr(d)).value;
-    String macroArg = ((Type.Symbol)cadadr(d)).value;
-    Datum body = cddr(d);
-    if(!(cdr(body) instanceof Type.Nil)) {
-      body = new Type.Pair(new Type.Symbol("begin"),body);
-    } else {
-      body = car(body);
-    }
-    env.define(macroName,new Type.Macro(macroArg,body,env));
-    return new Type.Void();
-  }
-
-
-  ////////////////////////////////////////////////////////////////////////////
-  // Representing <define>
-  private static void validateDefine(Datum d) throws Exception {
-    if(cadr(d) instanceof Type.Symbol) {
-      if(!(cdddr(d) instanceof Type.Nil))
-        throw new Exceptionf("Invalid 'define Syntax (too many variable values): %s", d.write());
-    } else if(cadr(d) instanceof Type.Pair) {
-      if(!(caadr(d) instanceof Type.Symbol))
-        throw new Exceptionf("Invalid 'define Syntax (non-symbol function name): %s", d.write());
-      if(cddr(d) instanceof Type.Nil)
-        throw new Exceptionf("Invalid 'define Syntax (missing function body): %s", d.write());
-    } else {
-      throw new Exceptionf("Invalid 'define Syntax (can't define a literal to a another value!): %s", d.write());
-    }
-  }
-
-
-  private static Datum evalDefine(Environment env, Datum d) throws Exception {
-    validateDefine(d);
-    // Expand (define (f a ...) b ...) to be (define f (lambda (a ...) b ...))
-    if(cadr(d) instanceof Type.Pair) {
-      Datum lambdaExpression = d.copy();
-      Datum variable = caadr(d);
-      setCar(lambdaExpression, new Type.Symbol("lambda"));
-      setCadr(lambdaExpression,cdadr(lambdaExpression));
-      Datum params = cadr(lambdaExpression);
-      if(params instanceof Type.Symbol) // account for unary-variadic procedure expansions
-        setCadr(lambdaExpression,Type.Pair.List(new Type.Symbol("."),params));
-      Datum newExpression = Type.Pair.List(new Type.Symbol("define"), variable, lambdaExpression);
-      return eval(env,newExpression);
-    }
-    String variable = ((Type.Symbol)cadr(d)).value;
-    Datum value = eval(env,caddr(d));
-    env.define(variable,value);
-    return new Type.Void();
-  }
-
-
-  ////////////////////////////////////////////////////////////////////////////
-  // Representing <set!>
-  private static void validateSet(Datum d) throws Exception {
-    if(!(cadr(d) instanceof Type.Symbol))
-      throw new Exceptionf("Invalid 'set! Syntax (can only set variables!): %s", d.write());
-    if(!(cdddr(d) instanceof Type.Nil))
-      throw new Exceptionf("Invalid 'set! Syntax (only accepts 2 arguments): %s", d.write());
-  }
-
-  
-  private static Datum evalSet(Environment env, Datum d) throws Exception {
-    validateSet(d);
-    String variable = ((Type.Symbol)cadr(d)).value;
-    Datum value = eval(env,caddr(d));
-    env.set(variable,value);
-    return new Type.Void();
-  }
-
-
-  ////////////////////////////////////////////////////////////////////////////
-  // Representing <if>
-  private static void validateIf(Datum d) throws Exception {
-    if(!(cdddr(d) instanceof Type.Nil) && !(cddddr(d) instanceof Type.Nil))
-      throw new Exceptionf("Invalid 'if Syntax (only accepts 2 or 3 arguments): %s", d.write());
-  }
-
-  
-  private static Datum evalIf(Environment env, Datum d) throws Exception {
-    validateIf(d);
-    if(eval(env,cadr(d)).isTruthy())
-      return eval(env,caddr(d));
-    Datum alternativeExpression = cdddr(d);
-    if(alternativeExpression instanceof Type.Nil)
-      return new Type.Void();
-    return eval(env,car(alternativeExpression));
-  }
-
-
-  ////////////////////////////////////////////////////////////////////////////
-  // Representing <lambda>
-  private static String validParameters(Datum d) throws Exception { // returns the reason for invalid params
-    Datum params = cadr(d);
-    if(params instanceof Type.Nil) return null;
-    if(!(params instanceof Type.Pair)) return "non-nil & non-pair parameters given!";
-    Datum iterator = params;
-    while(iterator instanceof Type.Pair) {
-      Datum param = car(iterator);
-      if(!(param instanceof Type.Symbol)) return String.format("non-symbol parameter %s found!", param.write());
-      iterator = cdr(iterator);
-    }
-    if(iterator instanceof Type.Nil || iterator instanceof Type.Symbol) return null;
-    return String.format("non-symbol parameter %s found!", iterator.write());
-  }
-
-
-  private static void validateLambda(Datum d) throws Exception {
-    String paramsErrMsg = validParameters(d);
-    if(paramsErrMsg != null)
-      throw new Exceptionf("Invalid 'lambda Syntax: invalid parameters: %s", paramsErrMsg);
-    if(cddr(d) instanceof Type.Nil)
-      throw new Exception("Invalid 'lambda Syntax: missing a function body!");
-  }
-
-  // Returns whether params are variadic & populates <parameters>
-  private static boolean extractParameters(Datum d, ArrayList<String> parameters) throws Exception {
-    Datum params = cadr(d);
-    if(params instanceof Type.Nil) return false;
-    if(isTaggedList((Type.Pair)params,".")) {
-      parameters.add(((Type.Symbol)cadr(params)).value);
-      return true;
-    }
-    while(params instanceof Type.Pair) {
-      parameters.add(((Type.Symbol)car(params)).value);
-      params = cdr(params);
-    }
-    if(params instanceof Type.Nil) return false;
-    parameters.add(((Type.Symbol)params).value);
-    return true;
-  }
-
-  
-  private static Datum evalLambda(Environment env, Datum d) throws Exception {
-    validateLambda(d);
-    ArrayList<String> parameters = new ArrayList<String>();
-    boolean isVariadic = extractParameters(d,parameters);
-    Datum body = cddr(d);
-    if(!(cdr(body) instanceof Type.Nil)) {
-      body = new Type.Pair(new Type.Symbol("begin"),body);
-    } else {
-      body = car(body);
-    }
-    return new Type.CompoundProcedure(parameters,body,env,isVariadic);
-  }
-
-
-  ////////////////////////////////////////////////////////////////////////////
-  // Representing <begin>
-  private static Datum evalBegin(Environment env, Datum d) throws Exception {
-    Datum iterator = cdr(d);
-    Datum result = new Type.Void();
-    while(iterator instanceof Type.Pair) {
-      result = eval(env,car(iterator));
-      iterator = cdr(iterator);
-    }
-    return result;
-  }
-
-
-  ////////////////////////////////////////////////////////////////////////////
-  // Representing <quote>
-  private static void validateQuote(Datum d) throws Exception {
-    if(!(cddr(d) instanceof Type.Nil)) 
-      throw new Exceptionf("Invalid 'quote Syntax (accepts exactly 1 argument): %s", d.write());
-  }
-
-
-  private static Datum quote(Datum d) {
-    return Type.Pair.List(new Type.Symbol("quote"),d);
-  }
-
-
-  private static Datum generateQuotedList(Environment env, Datum d) throws Exception {
-    if(!(d instanceof Type.Pair)) return eval(env,quote(d));
-    return new Type.Pair(eval(env,quote(car(d))),generateQuotedList(env,cdr(d)));
-  }
-
-
-  private static Datum evalQuote(Environment env, Datum d) throws Exception {
-    validateQuote(d);
-    Datum quoted = cadr(d);
-    if(!(quoted instanceof Type.Pair)) return quoted;
-    return generateQuotedList(env,quoted);
-  }
-
-
-  ////////////////////////////////////////////////////////////////////////////
-  // Representing variables
-  private static Datum evalSymbol(Environment env, Type.Symbol s) throws Exception {
-    return env.get(s.value);
-  }
-
-
-  ////////////////////////////////////////////////////////////////////////////
-  // Representing procedural & macro application
-  private static Datum extractCallable(Environment env, Datum d) throws Exception {
-    Datum callableExpression = car(d);
-    Datum callableValue = eval(env,callableExpression);
-    if(!(callableValue instanceof Type.Procedure) && !(callableValue instanceof Type.Macro))
-      throw new Exceptionf("Can't apply non-procedure & non-macro %s in %s!", callableValue.write(), callableExpression.write());
-    return callableValue;
-  }
-
-
-  private static ArrayList<Datum> extractArguments(Environment env, Datum d) throws Exception {
-    ArrayList<Datum> arguments = new ArrayList<Datum>();
-    Datum argIterator = cdr(d);
-    while(argIterator instanceof Type.Pair) {
-      arguments.add(eval(env,car(argIterator)));
-      argIterator = cdr(argIterator);
-    }
-    return arguments;
-  }
-
-
-  private static Datum evalApplication(Environment env, Datum d) throws Exception {
-    Datum callable = extractCallable(env,d);
-    // Apply a procedure
-    if(callable instanceof Type.Procedure) {
-      return ((Type.Procedure)callable).callWith(env,extractArguments(env,d));
-    // Apply a macro
-    } else {
-      return ((Type.Macro)callable).callWith(env,d);
-    }
-  }
-
-
-  ////////////////////////////////////////////////////////////////////////////
-  // Implementing the Core Evaluation Loop (tree-walking!)
+  // Implementing the Core Evaluation Loop
+  // => Analyzes <d> into an executable node tree (see Util.Analyzer), then runs it!
   // => NOTE: SHOULD NEVER MUTATE <d>!
   public static Datum eval(Environment env, Datum d) throws Exception {
-    if(d instanceof Type.Symbol) return evalSymbol(env,(Type.Symbol)d);
-    if(!(d instanceof Type.Pair)) return d;
-    Type.Pair expr = (Type.Pair)d;
-    if(isTaggedList(expr,"define-macro")) return evalDefineMacro(env,d);
-    if(isTaggedList(expr,"define") || isTaggedList(expr,"def")) return evalDefine(env,d);
-    if(isTaggedList(expr,"set!")) return evalSet(env,d);
-    if(isTaggedList(expr,"if")) return evalIf(env,d);
-    if(isTaggedList(expr,"lambda")) return evalLambda(env,d);
-    if(isTaggedList(expr,"begin")) return evalBegin(env,d);
-    if(isTaggedList(expr,"quote")) return evalQuote(env,d);
-    return evalApplication(env,d);
+    return Analyzer.analyze(d,Type.Frame.Scope.of(env)).eval(env);
   }
 
 
@@ -430,7 +171,7 @@ public class Core {
   private static Datum evalFullExpression(BufferedReader br) {
     while(true) {
       try {
-        return eval(Runtime.globalEnvironment,readFullExpression(br));
+        return eval(Runtime.globalEnvironment,Expander.expandTopLevel(readFullExpression(br),Runtime.globalEnvironment));
       } catch(Exception e) {
         System.err.printf("\nSCM160 ERROR: %s\n", e.getMessage());
         Runtime.CallStack.printTrace();
@@ -474,15 +215,67 @@ public class Core {
 
 
   ////////////////////////////////////////////////////////////////////////////
-  // Implementing our Interpreter
-  public static void launchScheme160Session(String[] args) {
+  // Parsing our Cmd-line Flags (returns the args after the flags)
+  private static int parseThresholdFlag(String flag) throws Exception {
     try {
+      int threshold = Integer.parseInt(flag.substring(flag.indexOf('=')+1));
+      if(threshold >= 0) return threshold;
+    } catch(NumberFormatException e) {}
+    throw new Exceptionf("Cmd-line flag \"%s\" expects a non-negative integer!", flag);
+  }
+
+
+  private static String[] parseFlags(String[] args) throws Exception {
+    int i = 0;
+    for(; i < args.length && args[i].startsWith("--"); ++i) {
+      if(args[i].equals("--guard-quoted-literals")) {
+        Runtime.guardQuotedLiterals = true;
+      } else if(args[i].startsWith("--call-threshold=")) {
+        Compiler.callThreshold = parseThresholdFlag(args[i]);
+      } else if(args[i].startsWith("--loop-threshold=")) {
+        Compiler.loopThreshold = parseThresholdFlag(args[i]);
+      } else if(args[i].startsWith("--max-recursion-depth=")) {
+        Runtime.ControlStack.setMaxDepth(parseThresholdFlag(args[i]));
+      } else if(args[i].equals("--debug-compiler")) {
+        Compiler.isDebugging = true;
+      } else if(args[i].equals("--engine=vm")) {
+        VirtualMachine.isEnabled = true;
+      } else if(args[i].equals("--engine=tree")) {
+        VirtualMachine.isEnabled = false;
+      } else {
+        throw new Exceptionf("Unknown cmd-line flag \"%s\"!", args[i]);
+      }
+    }
+    return Arrays.copyOfRange(args,i,args.length);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Implementing our Interpreter
+  // The session runs on a control stack segment too, rather than on the (small) main thread
+  private static class Session extends Runtime.ControlStack.Segment {
+    private String[] args;
+
+    public Session(String[] args) {
+      this.args = args;
+    }
+
+    protected Datum execute() throws Exception {
       if(args.length == 0) {
         Runtime.initialize();
         launchRepl();
       } else {
         launchScript(args);
       }
+      return null;
+    }
+  }
+
+
+  public static void launchScheme160Session(String[] args) {
+    try {
+      args = parseFlags(args);
+      Runtime.ControlStack.execute(new Session(args));
     } catch(Exception e) {
       System.err.printf("Driver Loop Caught Error %s\n", e);
       Runtime.CallStack.printTrace();
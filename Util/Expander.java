@@ -0,0 +1,193 @@
+// Author: Jordan Randleman - Util.Expander
+// Purpose:
+//    Macro expander -- given a top-level expression & the environment it will be evaluated
+//    in, "Expander.expand" returns an equivalent expression in which every macro use has
+//    been expanded, leaving only core forms (<define>, <set!>, <if>, <lambda>, <begin>,
+//    <quote>, the native derived forms of "Util.Analyzer" [<let>, <cond>, etc.], &
+//    applications). Separating expansion from execution keeps the cost of
+//    expanding derived forms (<cond>, <let>, etc.) out of the evaluator, & lets programs
+//    be expanded ahead of time (see the <expand> primitive).
+//
+//    Note that macros are runtime values in Scheme160, hence the expander only expands a
+//    form if its operator is CURRENTLY bound to a macro in the given environment, & is
+//    never (re)bound by the expression being expanded (e.g. as a parameter, a local
+//    definition, or a macro defined later in the same expression). Such forms are left
+//    as-is for the evaluator to expand at runtime (see "Util.Analyzer.Application").
+//
+//    Also note that macros raising an error are left unexpanded too, so that the error
+//    is only raised if (& when) the form is actually evaluated.
+//
+//    Top-level expressions being loaded or entered in the REPL are only expanded outside
+//    of procedure & macro bodies (see "expandTopLevel"): the macro uses in bodies are left
+//    for the evaluator, which expands each of them once & re-expands it if the macro gets
+//    redefined. An ahead-of-time expansion (see the <expand> primitive) instead reflects
+//    the macros bound at the time of expansion, even within bodies.
+//
+//    Further note that the expander NEVER mutates the given expression.
+
+package Util;
+import Type.Datum;
+import Type.Environment;
+import java.util.HashSet;
+
+public class Expander {
+  ////////////////////////////////////////////////////////////////////////////
+  // Core Form Tags (never bound to macros)
+  private static final Type.Symbol QUOTE = Type.Symbol.intern("quote");
+  private static final Type.Symbol LAMBDA = Type.Symbol.intern("lambda");
+  private static final Type.Symbol DEFINE = Type.Symbol.intern("define");
+  private static final Type.Symbol DEF = Type.Symbol.intern("def");
+  private static final Type.Symbol DEFINE_MACRO = Type.Symbol.intern("define-macro");
+  private static final Type.Symbol SET = Type.Symbol.intern("set!");
+  private static final Type.Symbol IF = Type.Symbol.intern("if");
+  private static final Type.Symbol BEGIN = Type.Symbol.intern("begin");
+  private static final Type.Symbol LET = Type.Symbol.intern("let");
+  private static final Type.Symbol LET_STAR = Type.Symbol.intern("let*");
+  private static final Type.Symbol LETREC = Type.Symbol.intern("letrec");
+  private static final Type.Symbol COND = Type.Symbol.intern("cond");
+  private static final Type.Symbol AND = Type.Symbol.intern("and");
+  private static final Type.Symbol OR = Type.Symbol.intern("or");
+  private static final Type.Symbol WHEN = Type.Symbol.intern("when");
+  private static final Type.Symbol UNLESS = Type.Symbol.intern("unless");
+
+
+  private static boolean isCoreForm(Type.Symbol tag) {
+    return tag == QUOTE || tag == LAMBDA || tag == DEFINE || tag == DEF ||
+           tag == DEFINE_MACRO || tag == SET || tag == IF || tag == BEGIN ||
+           tag == LET || tag == LET_STAR || tag == LETREC || tag == COND || 
+           tag == AND || tag == OR || tag == WHEN || tag == UNLESS;
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Collecting the names (re)bound by an expression
+  // => Conservatively includes every parameter, <let> variable, & <define>/<def>/
+  //    <define-macro>/<set!> target, regardless of the scope they're bound in.
+  private static class BoundNames {
+    public HashSet<Type.Symbol> names = new HashSet<Type.Symbol>();
+    public HashSet<Type.Symbol> macroNames = new HashSet<Type.Symbol>(); // names bound by <define-macro>
+
+    public BoundNames() {}
+    public BoundNames(BoundNames boundNames) {
+      names.addAll(boundNames.names);
+      macroNames.addAll(boundNames.macroNames);
+    }
+
+    private void addSymbols(Datum d) {
+      if(d instanceof Type.Symbol) {
+        names.add((Type.Symbol)d);
+      } else if(d instanceof Type.Pair) {
+        addSymbols(((Type.Pair)d).car);
+        addSymbols(((Type.Pair)d).cdr);
+      }
+    }
+
+    private void addLetBindings(Datum bindings) {
+      for(Datum iterator = bindings; iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr) {
+        Datum binding = ((Type.Pair)iterator).car;
+        if(binding instanceof Type.Pair) addSymbols(((Type.Pair)binding).car);
+      }
+    }
+
+    public void addAll(Datum d) {
+      if(!(d instanceof Type.Pair)) return;
+      Type.Pair p = (Type.Pair)d;
+      if(p.car == QUOTE) return;
+      if(p.cdr instanceof Type.Pair) {
+        Datum target = ((Type.Pair)p.cdr).car;
+        if(p.car == LAMBDA || p.car == DEFINE || p.car == DEF || p.car == DEFINE_MACRO || p.car == SET)
+          addSymbols(target);
+        if(p.car == DEFINE_MACRO && target instanceof Type.Pair && ((Type.Pair)target).car instanceof Type.Symbol)
+          macroNames.add((Type.Symbol)((Type.Pair)target).car);
+        if(p.car == LET || p.car == LET_STAR || p.car == LETREC) {
+          if(target instanceof Type.Symbol) { // named let
+            addSymbols(target);
+            Datum rest = ((Type.Pair)p.cdr).cdr;
+            if(rest instanceof Type.Pair) addLetBindings(((Type.Pair)rest).car);
+          } else {
+            addLetBindings(target);
+          }
+        }
+      }
+      for(Datum iterator = p; iterator instanceof Type.Pair; iterator = ((Type.Pair)iterator).cdr)
+        addAll(((Type.Pair)iterator).car);
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Macro Detection
+  private static Type.Macro getMacro(Datum operator, Environment env, BoundNames boundNames) {
+    if(!(operator instanceof Type.Symbol)) return null;
+    Type.Symbol name = (Type.Symbol)operator;
+    if(isCoreForm(name) || boundNames.names.contains(name)) return null;
+    try {
+      Datum value = env.get(name);
+      if(value instanceof Type.Macro) return (Type.Macro)value;
+      return null;
+    } catch(Exception e) {
+      return null; // unbound (as of yet)
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Expansion
+  private static Datum expandMacro(Type.Macro macro, Type.Pair d, Environment env, BoundNames boundNames, boolean isExpandingBodies) {
+    int callStackDepth = Runtime.CallStack.depth();
+    Datum expansion;
+    try {
+      expansion = macro.expand(env,d);
+    } catch(Exception e) {
+      Runtime.CallStack.restore(callStackDepth);
+      return d;
+    }
+    BoundNames expansionBoundNames = new BoundNames(boundNames);
+    expansionBoundNames.addAll(expansion);
+    return expand(expansion,env,expansionBoundNames,isExpandingBodies);
+  }
+
+
+  // Expands each element of the list <d>
+  private static Datum expandElements(Datum d, Environment env, BoundNames boundNames, boolean isExpandingBodies) {
+    if(!(d instanceof Type.Pair)) return d;
+    Type.Pair p = (Type.Pair)d;
+    return new Type.Pair(expand(p.car,env,boundNames,isExpandingBodies),expandElements(p.cdr,env,boundNames,isExpandingBodies));
+  }
+
+
+  // Returns whether <p> is a <lambda>, procedure <define>/<def>, or <define-macro>
+  private static boolean hasBody(Type.Pair p) {
+    if(p.car == LAMBDA || p.car == DEFINE_MACRO) return true;
+    return (p.car == DEFINE || p.car == DEF) && p.cdr instanceof Type.Pair && ((Type.Pair)p.cdr).car instanceof Type.Pair;
+  }
+
+
+  private static Datum expand(Datum d, Environment env, BoundNames boundNames, boolean isExpandingBodies) {
+    if(!(d instanceof Type.Pair)) return d;
+    Type.Pair p = (Type.Pair)d;
+    if(p.car == QUOTE || boundNames.macroNames.contains(p.car)) return d; // leave local macro arguments as-is
+    if(!isExpandingBodies && hasBody(p)) return d; // leave bodies to be expanded when evaluated
+    Type.Macro macro = getMacro(p.car,env,boundNames);
+    if(macro != null) return expandMacro(macro,p,env,boundNames,isExpandingBodies);
+    return expandElements(p,env,boundNames,isExpandingBodies);
+  }
+
+
+  // Expands every macro use in <d>, including those in procedure & macro bodies
+  public static Datum expand(Datum d, Environment env) {
+    BoundNames boundNames = new BoundNames();
+    boundNames.addAll(d);
+    return expand(d,env,boundNames,true);
+  }
+
+
+  // Expands the macro uses in <d> that are evaluated along with <d> itself
+  // => Uses in procedure & macro bodies are left to be expanded (& re-expanded if their
+  //    macro is redefined) upon evaluation, see "Util.Analyzer.Application"
+  public static Datum expandTopLevel(Datum d, Environment env) {
+    BoundNames boundNames = new BoundNames();
+    boundNames.addAll(d);
+    return expand(d,env,boundNames,false);
+  }
+}
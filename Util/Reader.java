@@ -31,8 +31,11 @@ public class Reader {
 
   ////////////////////////////////////////////////////////////////////////////
   // List Literal Parsing Helpers
+  private static final Type.Symbol PERIOD = Type.Symbol.intern(".");
+
+
   private static boolean isPeriodSymbol(Datum d) throws Exception {
-    return d instanceof Type.Symbol && ((Type.Symbol)d).value.equals(".");
+    return d == PERIOD;
   }
 
 
@@ -55,7 +58,7 @@ public class Reader {
     if(isDotted) {
       arr.remove(arr.size()-2); // remove the dot
     } else {
-      arr.add(new Type.Nil()); // add NIL at the end of the sequence
+      arr.add(Type.Nil.VALUE); // add NIL at the end of the sequence
     }
     Datum list = arr.get(arr.size()-1);
     for(int i = arr.size()-2; i >= 0; --i)
@@ -65,24 +68,76 @@ public class Reader {
 
 
   // @param: <i> is where to start parsing
-  // @return: pair of parsed list & position in <sourceCode> after the closing <)>
-  private static Pair<Datum,Integer> parseListLiteral(String sourceCode, int i, int n, int parenCount) throws Exception {
-    if(i == n)
-      throw new IncompleteException("SCM160 READ ERROR: Incomplete list literal!");
-    // parse NIL
-    if(sourceCode.charAt(i) == ')') return new Pair<Datum,Integer>(new Type.Nil(),i+1);
-    // parse PAIR
-    ArrayList<Datum> listItems = new ArrayList<Datum>();
+  // @return: pair of parsed sequence items & position in <sourceCode> of the closing <)>
+  private static Pair<ArrayList<Datum>,Integer> parseSequenceItems(String sourceCode, int i, int n, int parenCount) throws Exception {
+    ArrayList<Datum> items = new ArrayList<Datum>();
     Pair<Datum,Integer> parsedItem;
     while(i < n && sourceCode.charAt(i) != ')') {
       parsedItem = readLoop(sourceCode,i,parenCount);
       if(!(parsedItem.first instanceof Type.Void)) // if actually parsed something more than just whitespace & comments
-        listItems.add(parsedItem.first);
+        items.add(parsedItem.first);
       i = parsedItem.second;
     }
     if(i >= n)
       throw new IncompleteException(String.format("SCM160 READ ERROR: Invalid input \"%s\" terminated prior to being able to parse a datum!", writeString(sourceCode)));
-    return new Pair<Datum,Integer>(convertArrayListToSchemeList(listItems),i+1);
+    return new Pair<ArrayList<Datum>,Integer>(items,i);
+  }
+
+
+  // @param: <i> is where to start parsing
+  // @return: pair of parsed list & position in <sourceCode> after the closing <)>
+  private static Pair<Datum,Integer> parseListLiteral(String sourceCode, int i, int n, int parenCount) throws Exception {
+    if(i == n)
+      throw new IncompleteException("SCM160 READ ERROR: Incomplete list literal!");
+    // parse NIL
+    if(sourceCode.charAt(i) == ')') return new Pair<Datum,Integer>(Type.Nil.VALUE,i+1);
+    // parse PAIR
+    Pair<ArrayList<Datum>,Integer> listItems = parseSequenceItems(sourceCode,i,n,parenCount);
+    return new Pair<Datum,Integer>(convertArrayListToSchemeList(listItems.first),listItems.second+1);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Vector Literal Parsing Helper
+  // @param: <i> is where to start parsing (after the opening <#(>)
+  // @return: pair of parsed vector & position in <sourceCode> after the closing <)>
+  private static Pair<Datum,Integer> parseVectorLiteral(String sourceCode, int i, int n, int parenCount) throws Exception {
+    if(i == n)
+      throw new IncompleteException("SCM160 READ ERROR: Incomplete vector literal!");
+    Pair<ArrayList<Datum>,Integer> vectorItems = parseSequenceItems(sourceCode,i,n,parenCount);
+    for(Datum item : vectorItems.first)
+      if(isPeriodSymbol(item)) throw new Exception("SCM160 READ ERROR: Invalid vector literal: vectors can't be dotted!");
+    Datum[] items = vectorItems.first.toArray(new Datum[vectorItems.first.size()]);
+    return new Pair<Datum,Integer>(new Type.Vector(items),vectorItems.second+1);
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Homogeneous Vector Literal Parsing Helpers
+  // Returns the type tag of the homogeneous vector literal prefix (<f64>, <s64>, or <u8>)
+  // following the <#> at <i>, or <-1> if there isn't one
+  private static int getHomogeneousVectorTag(String sourceCode, int i) {
+    if(sourceCode.startsWith("f64(",i+1)) return Datum.F64VECTOR;
+    if(sourceCode.startsWith("s64(",i+1)) return Datum.S64VECTOR;
+    if(sourceCode.startsWith("u8(",i+1)) return Datum.U8VECTOR;
+    return -1;
+  }
+
+
+  // @param: <i> is where to start parsing (after the opening <#f64(>, <#s64(>, or <#u8(>)
+  // @return: pair of parsed vector & position in <sourceCode> after the closing <)>
+  private static Pair<Datum,Integer> parseHomogeneousVectorLiteral(String sourceCode, int i, int n, int parenCount, int tag) throws Exception {
+    if(i == n)
+      throw new IncompleteException("SCM160 READ ERROR: Incomplete homogeneous vector literal!");
+    Pair<ArrayList<Datum>,Integer> vectorItems = parseSequenceItems(sourceCode,i,n,parenCount);
+    Type.HomogeneousVector vector = Type.HomogeneousVector.allocate(tag,vectorItems.first.size());
+    for(int j = 0, total = vectorItems.first.size(); j < total; ++j) {
+      Datum item = vectorItems.first.get(j);
+      if(!vector.isValidElement(item))
+        throw new Exception(String.format("SCM160 READ ERROR: Invalid %s literal: %s isn't a valid element!", vector.type(), item.profile()));
+      vector.set(j,item);
+    }
+    return new Pair<Datum,Integer>(vector,vectorItems.second+1);
   }
 
 
@@ -92,8 +147,8 @@ public class Reader {
   // @return: pair of parsed boolean & position in <sourceCode> after the parsed boolean
   private static Pair<Datum,Integer> parseBooleanLiteral(String sourceCode, int i) {
     if(sourceCode.charAt(i+1) == 't')
-      return new Pair<Datum,Integer>(new Type.Boolean(true),i+2);
-    return new Pair<Datum,Integer>(new Type.Boolean(false),i+2);
+      return new Pair<Datum,Integer>(Type.Boolean.TRUE,i+2);
+    return new Pair<Datum,Integer>(Type.Boolean.FALSE,i+2);
   }
 
 
@@ -129,18 +184,17 @@ public class Reader {
   ////////////////////////////////////////////////////////////////////////////
   // Number Literal Parsing Helper
   // @param: <i> is where to start parsing
-  // @return: pair of parsed double & position in <sourceCode> after the parsed double
-  private static Pair<Double,Integer> parseNumberLiteral(String sourceCode, int i, int n) {
+  // @return: pair of parsed number & position in <sourceCode> after the parsed number
+  //          => NOTE: integer literals are exact, & all others inexact (see "Type.Number.parse")
+  private static Pair<Datum,Integer> parseNumberLiteral(String sourceCode, int i, int n) {
     StringBuilder sb = new StringBuilder();
     while(i < n && !isDelimiter(sourceCode.charAt(i))) {
       sb.append(sourceCode.charAt(i));
       ++i;
     }
-    try {
-      return new Pair<Double,Integer>(Double.parseDouble(sb.toString()),i);
-    } catch(Exception e) {
-      return null;
-    }
+    Type.Number number = Type.Number.parse(sb.toString());
+    if(number == null) return null;
+    return new Pair<Datum,Integer>(number,i);
   }
 
 
@@ -155,8 +209,8 @@ public class Reader {
       sb.append(sourceCode.charAt(i));
       ++i;
     }
-    if(sb.length() == 0) return new Pair<Datum,Integer>(new Type.Void(),i);
-    return new Pair<Datum,Integer>(new Type.Symbol(sb.toString()),i);
+    if(sb.length() == 0) return new Pair<Datum,Integer>(Type.Void.VALUE,i);
+    return new Pair<Datum,Integer>(Type.Symbol.intern(sb.toString()),i);
   }
 
 
@@ -177,7 +231,7 @@ public class Reader {
       // Skip comments
       if(sourceCode.charAt(i) == ';') {
         while(i < n && sourceCode.charAt(i) != '\n') ++i;
-        if(i == n) return new Pair<Datum,Integer>(new Type.Void(),i);
+        if(i == n) return new Pair<Datum,Integer>(Type.Void.VALUE,i);
         continue;
       }
 
@@ -185,6 +239,19 @@ public class Reader {
       if(sourceCode.charAt(i) == '(') 
         return parseListLiteral(sourceCode,i+1,n,parenCount);
 
+      // Parse Vector Literals
+      if(sourceCode.charAt(i) == '#' && i+1 < n && sourceCode.charAt(i+1) == '(')
+        return parseVectorLiteral(sourceCode,i+2,n,parenCount+1);
+
+      // Parse Homogeneous Vector Literals (prior booleans, given the <#f> in <#f64(>)
+      if(sourceCode.charAt(i) == '#') {
+        int tag = getHomogeneousVectorTag(sourceCode,i);
+        if(tag != -1) {
+          int openParen = sourceCode.indexOf('(',i);
+          return parseHomogeneousVectorLiteral(sourceCode,openParen+1,n,parenCount+1,tag);
+        }
+      }
+
       // Parse Boolean Literals
       if(sourceCode.charAt(i) == '#' && i+1 < n && (sourceCode.charAt(i+1) == 't' || sourceCode.charAt(i+1) == 'f')) 
         return parseBooleanLiteral(sourceCode,i);
@@ -194,9 +261,8 @@ public class Reader {
         return parseStringLiteral(sourceCode,i+1,n);
 
       // Parse Number Literals
-      Pair<Double,Integer> numberParseObject = parseNumberLiteral(sourceCode,i,n);
-      if(numberParseObject != null)
-        return new Pair<Datum,Integer>(new Type.Number(numberParseObject.first),numberParseObject.second);
+      Pair<Datum,Integer> numberParseObject = parseNumberLiteral(sourceCode,i,n);
+      if(numberParseObject != null) return numberParseObject;
 
       // Parse Symbol Literals
       return parseSymbolLiteral(sourceCode,i,n);
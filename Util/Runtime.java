@@ -2,19 +2,23 @@
 // Purpose:
 //    Scheme runtime support. Provides the functionality to initialize the global 
 //    environment with Java Primitives, maintain the callstack for easier debugging,
-//    keep track of the global environment pointer, whether we're in the REPL (i.e. 
-//    whether we should print an exit message), and the session's pseudo random number 
+//    segment the JVM control stack (so recursion depth isn't bounded by "-Xss"), keep
+//    track of the global environment pointer, whether we're in the REPL (i.e. whether
+//    we should print an exit message), and the session's pseudo random number 
 //    generator (PRNG).
 
 package Util;
+import Type.Datum;
 import Type.Environment;
 import java.util.ArrayList;
 import java.util.Random;
+import java.util.concurrent.Semaphore;
 
 public class Runtime {
   ////////////////////////////////////////////////////////////////////////////
   // Representing a Call Stack (used exclusively for tracing)
   public static class CallStack {
+    private static final int TRACE_HEAD = 10, TRACE_TAIL = 20; // calls printed by "printTrace"
     private static ArrayList<String> callStack = new ArrayList<String>();
 
     public static void push(String prcocedureName) {
@@ -25,17 +29,150 @@ public class Runtime {
       callStack.remove(callStack.size()-1);
     }
 
+    // Prints the outermost & innermost calls (eliding the middle of deep call stacks)
     public static void printTrace() {
       int n = callStack.size();
       if(n == 0) return;
       System.err.printf("SCM160 CALL STACK: %s\n", callStack.get(0));
-      for(int i = 1; i < n; ++i)
+      for(int i = 1; i < n; ++i) {
+        if(i == TRACE_HEAD && n > TRACE_HEAD+TRACE_TAIL) {
+          System.err.printf("                   ... (%d calls omitted)\n", n-TRACE_HEAD-TRACE_TAIL);
+          i = n-TRACE_TAIL;
+        }
         System.err.printf("                   %s\n", callStack.get(i));
+      }
     }
 
     public static void reset() {
       callStack = new ArrayList<String>();
     }
+
+    public static int depth() {
+      return callStack.size();
+    }
+
+    // Pops any calls beyond <depth> (left behind by a caught exception)
+    public static void restore(int depth) {
+      while(callStack.size() > depth) pop();
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Segmenting the Control Stack
+  // => Deep non-tail recursion would overflow any single thread's stack, hence once a
+  //    segment holds <SEGMENT_CALLS> nested procedure calls (see "Type.CompoundProcedure"),
+  //    the next call is executed on another thread (whose stack becomes the next segment)
+  //    while the current thread waits on it.
+  // => Each segment below the running one keeps a thread blocked, & the stack memory its
+  //    calls committed (a few hundred bytes per call). Recursion depth is thus bounded by
+  //    the memory available to thread stacks (outside of the JVM's heap, hence regardless
+  //    of "-Xmx") & by the OS's thread limit, rather than by the JVM's "-Xss" flag. Failing
+  //    to start another segment raises an error, as does exceeding the (optional) depth
+  //    set via the "--max-recursion-depth" cmd-line flag.
+  // => The threads of the first <POOLED_SEGMENTS> segments are reused (recursion oscillating
+  //    around a segment boundary would otherwise spawn a thread per call), whereas deeper
+  //    ones exit once their segment returns, releasing their stacks.
+  // => NOTE: only one segment ever runs at a time, hence the session's (static) state
+  //          needn't be synchronized (handing segments to & from workers orders their effects).
+  public static class ControlStack {
+    private static final int SEGMENT_CALLS = 8000;
+    private static final long SEGMENT_BYTES = 64L*1024*1024;
+    private static final int POOLED_SEGMENTS = 8;
+    private static int maxSegments = Integer.MAX_VALUE; // unbounded by default
+    private static int segments = 0; // segments started (& not yet returned)
+    private static int calls = 0; // nested calls in the current segment
+    private static ArrayList<Worker> workers = new ArrayList<Worker>(); // pooled, by segment index
+
+    // Work to be executed on a new segment
+    public static abstract class Segment implements Runnable {
+      private Datum result = null;
+      private Throwable error = null;
+
+      protected abstract Datum execute() throws Exception;
+
+      public void run() {
+        try {
+          result = execute();
+        } catch(Throwable e) {
+          error = e;
+        }
+      }
+    }
+
+    // Thread running segments (parking between them if pooled)
+    private static class Worker extends Thread {
+      private Semaphore started = new Semaphore(0);
+      private Semaphore finished = new Semaphore(0);
+      private Segment segment = null;
+      private boolean isPooled;
+
+      public Worker(boolean isPooled) {
+        super(null,null,"scheme160",SEGMENT_BYTES);
+        this.isPooled = isPooled;
+        setDaemon(true);
+        start();
+      }
+
+      public void run() {
+        do {
+          started.acquireUninterruptibly();
+          segment.run();
+          segment = null;
+          finished.release();
+        } while(isPooled);
+      }
+
+      // Runs <segment> on this worker's thread, blocking until it returns
+      public void execute(Segment segment) {
+        this.segment = segment;
+        started.release();
+        finished.acquireUninterruptibly();
+      }
+    }
+
+    public static boolean isSegmentFull() {
+      return calls >= SEGMENT_CALLS;
+    }
+
+    public static void enter() {
+      ++calls;
+    }
+
+    public static void exit() {
+      --calls;
+    }
+
+    // Bounds the number of nested calls (rounded up to a whole number of segments)
+    public static void setMaxDepth(int depth) {
+      maxSegments = Math.max(1,(int)((depth+(long)SEGMENT_CALLS-1)/SEGMENT_CALLS));
+    }
+
+    private static Worker getWorker(int segment) throws Exception {
+      try {
+        if(segment >= POOLED_SEGMENTS) return new Worker(false);
+        if(segment == workers.size()) workers.add(new Worker(true));
+        return workers.get(segment);
+      } catch(OutOfMemoryError e) { // the OS refused another thread (or its stack)
+        throw new Exceptionf("Maximum recursion depth of %d nested calls exceeded (out of thread stack memory)!", (long)segment*SEGMENT_CALLS);
+      }
+    }
+
+    // Executes <segment> on a new stack segment, rethrowing anything it throws
+    public static Datum execute(Segment segment) throws Exception {
+      if(segments == maxSegments)
+        throw new Exceptionf("Maximum recursion depth of %d nested calls exceeded!", (long)maxSegments*SEGMENT_CALLS);
+      Worker worker = getWorker(segments);
+      int callerCalls = calls;
+      calls = 0;
+      ++segments;
+      worker.execute(segment);
+      --segments;
+      calls = callerCalls;
+      if(segment.error instanceof Exception) throw (Exception)segment.error;
+      if(segment.error instanceof Error) throw (Error)segment.error;
+      return segment.result;
+    }
   }
 
 
@@ -44,6 +181,12 @@ public class Runtime {
   public static boolean inREPL = false;
 
 
+  ////////////////////////////////////////////////////////////////////////////
+  // Track if quoted literals are guarded against mutation (see "Util.Analyzer")
+  // => Set via the "--guard-quoted-literals" cmd-line flag
+  public static boolean guardQuotedLiterals = false;
+
+
   ////////////////////////////////////////////////////////////////////////////
   // Global Random Number Generator
   public static Random prng = new Random();
@@ -93,6 +236,11 @@ public class Runtime {
     globalEnvironment.define("infinite?",new Primitive.Number.IsInfinite());
     globalEnvironment.define("nan?",new Primitive.Number.IsNaN());
 
+    globalEnvironment.define("exact?",new Primitive.Number.IsExact());
+    globalEnvironment.define("inexact?",new Primitive.Number.IsInexact());
+    globalEnvironment.define("exact->inexact",new Primitive.Number.ExactToInexact());
+    globalEnvironment.define("inexact->exact",new Primitive.Number.InexactToExact());
+
     globalEnvironment.define("odd?",new Primitive.Number.IsOdd());
     globalEnvironment.define("even?",new Primitive.Number.IsEven());
 
@@ -195,6 +343,29 @@ public class Runtime {
     globalEnvironment.define("alist?",new Primitive.List.IsAlist());
     globalEnvironment.define("null?",new Primitive.List.IsNull());
 
+    // Register Vector Primitives
+    globalEnvironment.define("vector",new Primitive.Vector.ConstructVector());
+    globalEnvironment.define("make-vector",new Primitive.Vector.MakeVector());
+    globalEnvironment.define("vector-length",new Primitive.Vector.VectorLength());
+
+    globalEnvironment.define("vector-ref",new Primitive.Vector.VectorRef());
+    globalEnvironment.define("vector-set!",new Primitive.Vector.VectorSetBang());
+    globalEnvironment.define("vector-fill!",new Primitive.Vector.VectorFillBang());
+    globalEnvironment.define("vector-copy",new Primitive.Vector.VectorCopy());
+
+    globalEnvironment.define("vector->list",new Primitive.Vector.VectorToList());
+    globalEnvironment.define("list->vector",new Primitive.Vector.ListToVector());
+
+    globalEnvironment.define("vector-map",new Primitive.Vector.VectorMap());
+    globalEnvironment.define("vector-for-each",new Primitive.Vector.VectorForEach());
+
+    globalEnvironment.define("vector?",new Primitive.Vector.IsVector());
+
+    // Register Homogeneous Vector Primitives
+    registerHomogeneousVectorPrimitives(Datum.F64VECTOR);
+    registerHomogeneousVectorPrimitives(Datum.S64VECTOR);
+    registerHomogeneousVectorPrimitives(Datum.U8VECTOR);
+
     // Register Equality Primitives
     globalEnvironment.define("eq?",new Primitive.Equality.IsEq());
     globalEnvironment.define("equal?",new Primitive.Equality.IsEqual());
@@ -256,6 +427,7 @@ public class Runtime {
     globalEnvironment.define("force",new Primitive.Utility.Force());
     globalEnvironment.define("apply",new Primitive.Utility.Apply());
     globalEnvironment.define("eval",new Primitive.Utility.Eval());
+    globalEnvironment.define("expand",new Primitive.Utility.Expand());
     globalEnvironment.define("copy",new Primitive.Utility.Copy());
 
     // Register Functional Primitives
@@ -272,6 +444,31 @@ public class Runtime {
   }
 
 
+  // Registers the <f64vector>, <s64vector>, or <u8vector> primitives (per <tag>)
+  private static void registerHomogeneousVectorPrimitives(int tag) throws Exception {
+    String name = Type.HomogeneousVector.prefix(tag)+"vector";
+    globalEnvironment.define(name,new Primitive.HomogeneousVector.ConstructVector(tag));
+    globalEnvironment.define("make-"+name,new Primitive.HomogeneousVector.MakeVector(tag));
+    globalEnvironment.define(name+"-length",new Primitive.HomogeneousVector.VectorLength(tag));
+
+    globalEnvironment.define(name+"-ref",new Primitive.HomogeneousVector.VectorRef(tag));
+    globalEnvironment.define(name+"-set!",new Primitive.HomogeneousVector.VectorSetBang(tag));
+    globalEnvironment.define(name+"-fill!",new Primitive.HomogeneousVector.VectorFillBang(tag));
+    globalEnvironment.define(name+"-copy",new Primitive.HomogeneousVector.VectorCopy(tag));
+    globalEnvironment.define(name+"-slice",new Primitive.HomogeneousVector.VectorSlice(tag));
+
+    globalEnvironment.define(name+"->list",new Primitive.HomogeneousVector.VectorToList(tag));
+    globalEnvironment.define("list->"+name,new Primitive.HomogeneousVector.ListToVector(tag));
+
+    globalEnvironment.define(name+"-sum",new Primitive.HomogeneousVector.VectorSum(tag));
+    globalEnvironment.define(name+"-dot",new Primitive.HomogeneousVector.VectorDot(tag));
+    globalEnvironment.define(name+"-scale",new Primitive.HomogeneousVector.VectorScale(tag));
+    globalEnvironment.define(name+"-map",new Primitive.HomogeneousVector.VectorMap(tag));
+
+    globalEnvironment.define(name+"?",new Primitive.HomogeneousVector.IsVector(tag));
+  }
+
+
   ////////////////////////////////////////////////////////////////////////////
   // Registering Scheme160 macros implemented in Scheme160
   private static void registerMacros() throws Exception {
@@ -280,61 +477,11 @@ public class Runtime {
           .append(";;   => Hardcoded in ../Util/Runtime as a series of \".append\" statements\n")
           .append("")
           .append(";;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;\n")
-          .append(";; Implementing Boolean AND:  (and <obj> ...)\n")
-          .append("(define-macro (and expr)\n")
-          .append("  (fold (lambda (acc item) (list (quote if) acc item #f))\n")
-          .append("        #t\n")
-          .append("        (cdr expr)))\n")
-          .append("")
-          .append(";;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;\n")
-          .append(";; Implementing Boolean OR: (or <obj> ...)\n")
-          .append("(define-macro (or expr)\n")
-          .append("  (fold-right (lambda (item acc)\n")
-          .append("                (list (list (quote lambda) (list (quote scm160:or-value))\n")
-          .append("                            (list (quote if) (quote scm160:or-value) (quote scm160:or-value) acc))\n")
-          .append("                      item))\n")
-          .append("              #f\n")
-          .append("              (cdr expr)))\n")
-          .append("")
-          .append(";;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;\n")
           .append(";; Implementing DELAY: (delay <obj>)\n")
           .append("(define-macro (delay expr)\n")
           .append("  (list (quote lambda) (quote ()) (cadr expr)))\n")
           .append("")
           .append(";;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;\n")
-          .append(";; Implementing COND: (cond (<condition> <expr> ...) ...) (cond (<condition> <expr> ...) ... (else <expr> ...))\n")
-          .append("(define-macro (cond expr)\n")
-          .append("  (define (make-condition c) (if (eq? c (quote else)) #t c))\n")
-          .append("  (define (make-consequence c) (cons (quote begin) c))\n")
-          .append("  (fold-right (lambda (clause acc)\n")
-          .append("                (list (quote if) (make-condition (car clause))\n")
-          .append("                      (make-consequence (cdr clause))\n")
-          .append("                      acc))\n")
-          .append("              (quote (if #f #f)) ; innermost expr yields a <void> value\n")
-          .append("              (cdr expr)))\n")
-          .append("")
-          .append(";;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;\n")
-          .append(";; Implementing LET: (let ((<variable> <value>) ...) <body> ...) (let <procedure-name> ((<argument> <initial-value>) ...) <body> ...)\n")
-          .append("(define-macro (let expr)\n")
-          .append("  (define (get-params let-bindings) (map car let-bindings))\n")
-          .append("  (define (get-args let-bindings) (map cadr let-bindings))\n")
-          .append("  (define (get-body let-body) (cons (quote begin) let-body))\n")
-          .append("  (define (generate-anon-let)\n")
-          .append("    (cons (list (quote lambda) (get-params (cadr expr))\n")
-          .append("                (get-body (cddr expr)))\n")
-          .append("          (get-args (cadr expr))))\n")
-          .append("  (define (generate-named-let)\n")
-          .append("    (list (list (quote lambda) (quote ())\n")
-          .append("            (list (quote begin)\n")
-          .append("              (list (quote define) (cadr expr)\n")
-          .append("                    (list (quote lambda) (get-params (car (cddr expr)))\n")
-          .append("                          (get-body (cdr (cddr expr)))))\n")
-          .append("              (cons (cadr expr) (get-args (car (cddr expr))))))))\n")
-          .append("  (if (symbol? (cadr expr))\n")
-          .append("      (generate-named-let)\n")
-          .append("      (generate-anon-let)))\n")
-          .append("")
-          .append(";;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;\n")
           .append(";; Implementing QUASIQUOTE: (quasiquote <obj>) (unquote <obj>) (unquote-splicing <obj>)\n")
           .append("(define (scm160:quasiquote:tagged-list? obj tag)\n")
           .append("  (and (eq? (car obj) tag) (not (null? (cdr obj)))))\n")
@@ -390,6 +537,7 @@ public class Runtime {
   // Initialize the global environment
   public static void initialize() throws Exception {
     registerPrimitives();
+    Analyzer.registerIntrinsics(globalEnvironment);
     registerMacros();
   }
 }
\ No newline at end of file
@@ -0,0 +1,416 @@
+// Author: Jordan Randleman - Util.VirtualMachine
+// Purpose:
+//    Register-based bytecode VM -- an alternative to evaluating procedure bodies by walking
+//    their "Util.Analyzer" node trees, selected via the "--engine=vm" cmd-line flag.
+//    Procedure bodies are assembled (upon their first invocation) into a "Program": a flat
+//    array of <int> instructions operating on an array of registers, along with a constant
+//    pool holding the data (quoted & self-evaluating) & nodes referenced by instructions.
+//
+//    Instructions are an opcode followed by its <int> operands (see the opcode table):
+//    registers, frame slots, constant pool entries, & jump targets (instruction indices)
+//    are all plain <int>s, hence the VM's dispatch loop never chases a pointer to decode.
+//
+//    Each node assembles itself (see "Analyzer.Node.assemble"): variable references (at
+//    any depth), <define>, <set!>, <lambda>, <let> frames, applications, & intrinsics all
+//    have dedicated instructions. Only the few nodes lacking them (e.g. <define-macro>, or
+//    quotations while guarding quoted literals) are placed in the constant pool & evaluated
+//    via <EVAL>. Hence programs behave EXACTLY like their node trees: they run in the very
+//    same "Type.Frame"s (which closures, <define>, & <eval> may still capture).
+//
+//    Note that the constant pool still refers to analysis-time objects: variable addresses
+//    & intrinsic nodes (whose guards & fallbacks handle rebound or shadowed variables),
+//    procedure code, & scopes. Programs are thus tied to the process that assembled them.
+//
+//    Note that tail calls yield a "TailCall" to be trampolined by "Type.CompoundProcedure",
+//    just like the node trees do (which also lets hot programs be promoted to JVM bytecode,
+//    see "Util.Compiler").
+
+package Util;
+import Type.Datum;
+import Type.Environment;
+import java.util.ArrayList;
+
+public class VirtualMachine {
+  ////////////////////////////////////////////////////////////////////////////
+  // Engine Selection (set via the "--engine=vm" cmd-line flag)
+  public static boolean isEnabled = false;
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Opcodes
+  // => <dst>, <src>, <x>, <y>, & <f> are registers, <k>, <v>, & <s> constants, & <L> a jump target
+  public static final int CONST = 0;                 // CONST dst k            : dst = k
+  public static final int LOCAL = 1;                 // LOCAL dst depth slot k : dst = slot of the frame <depth> frames up (or address k if unbound/shadowed)
+  public static final int EVAL = 2;                  // EVAL dst k             : dst = node k evaluated in the frame
+  public static final int JUMP = 3;                  // JUMP L
+  public static final int JUMP_IF_FALSE = 4;         // JUMP_IF_FALSE src L
+  public static final int JUMP_IF_TRUE = 5;          // JUMP_IF_TRUE src L
+  public static final int JUMP_IF_BUILTIN = 6;       // JUMP_IF_BUILTIN k L    : jump unless intrinsic node k's primitive was rebound
+  public static final int JUMP_IF_NOT_PROCEDURE = 7; // JUMP_IF_NOT_PROCEDURE src L
+  public static final int CALL = 8;                  // CALL dst f first count : dst = f applied to registers [first, first+count)
+  public static final int TAIL_CALL = 9;             // TAIL_CALL f first count n: returns f applied to registers [first, first+count), leaving n inlined calls
+  public static final int RETURN = 10;               // RETURN src
+
+  // Intrinsics (laid out in the same order as "Analyzer"'s intrinsic operations)
+  // => <k> is the intrinsic node, whose built-in handles any unexpected arguments
+  public static final int CAR = 11, CDR = 12, IS_NULL = 13, IS_PAIR = 14, NOT = 15, IS_ZERO = 16; // op dst x k
+  public static final int CONS = 17, IS_EQ = 18, ADD = 19, SUBTRACT = 20, MULTIPLY = 21;          // op dst x y k
+  public static final int NUMBER_EQUALS = 22, LESS_THAN = 23, GREATER_THAN = 24;
+  public static final int LESS_THAN_OR_EQUAL = 25, GREATER_THAN_OR_EQUAL = 26;
+  public static final int BRANCH_UNLESS = 27;        // BRANCH_UNLESS op x y k L : jump unless <IS_EQ> or numeric comparison <op> holds
+
+  // Variables, closures, & frames
+  public static final int GLOBAL = 28;               // GLOBAL dst k           : dst = global variable at address k (via its cached binding)
+  public static final int SET = 29;                  // SET src k              : variable at address k = src
+  public static final int DEFINE = 30;               // DEFINE src slot k      : defines symbol k (in frame slot <slot>, unless -1) as src
+  public static final int CLOSURE = 31;              // CLOSURE dst k s        : dst = procedure of code k, closing over closure scope s (or the frame if -1)
+  public static final int PUSH_FRAME = 32;           // PUSH_FRAME k           : frame = new frame of scope k, extending frame
+  public static final int STORE_SLOT = 33;           // STORE_SLOT slot src    : frame slot = src
+  public static final int POP_FRAME = 34;            // POP_FRAME              : frame = frame's enclosing environment
+
+  // Guards & fallbacks
+  public static final int JUMP_IF_REBOUND = 35;      // JUMP_IF_REBOUND k v L  : jump unless the variable at address k is bound to v
+  public static final int JUMP_UNLESS_IDENTICAL = 36; // JUMP_UNLESS_IDENTICAL src v L
+  public static final int APPLY_OTHER = 37;          // APPLY_OTHER dst f k    : dst = non-procedure f applied by application node k (expanding macros)
+  public static final int ENTER = 38;                // ENTER v                : pushes the name of inlined procedure v onto the call stack
+  public static final int LEAVE = 39;                // LEAVE n                : pops n inlined procedures off of the call stack
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Programs
+  public static class Program {
+    private int[] code;
+    private Object[] constants;
+    private int totalRegisters;
+
+    private Program(int[] code, Object[] constants, int totalRegisters) {
+      this.code = code;
+      this.constants = constants;
+      this.totalRegisters = totalRegisters;
+    }
+
+    private static ArrayList<Datum> arguments(Datum[] r, int first, int count) {
+      ArrayList<Datum> arguments = new ArrayList<Datum>(count);
+      for(int i = first, n = first+count; i < n; ++i) arguments.add(r[i]);
+      return arguments;
+    }
+
+    private Datum builtin(int k, Environment frame, Datum x) throws Exception {
+      return Analyzer.applyIntrinsicBuiltin((Analyzer.Node)constants[k],frame,x);
+    }
+
+    private Datum builtin(int k, Environment frame, Datum x, Datum y) throws Exception {
+      return Analyzer.applyIntrinsicBuiltin((Analyzer.Node)constants[k],frame,x,y);
+    }
+
+    // Returns <null> if <x> & <y> aren't both numbers
+    // => NOTE: fixnums are compared unboxed, sparing the numeric tower's dispatch
+    private static Datum compare(int op, Datum x, Datum y) {
+      if(x instanceof Type.Fixnum && y instanceof Type.Fixnum) {
+        long a = ((Type.Fixnum)x).value, b = ((Type.Fixnum)y).value;
+        switch(op) {
+          case NUMBER_EQUALS: return Type.Boolean.valueOf(a == b);
+          case LESS_THAN: return Type.Boolean.valueOf(a < b);
+          case GREATER_THAN: return Type.Boolean.valueOf(a > b);
+          case LESS_THAN_OR_EQUAL: return Type.Boolean.valueOf(a <= b);
+          default: return Type.Boolean.valueOf(a >= b); // GREATER_THAN_OR_EQUAL
+        }
+      }
+      if(!(x instanceof Type.Number) || !(y instanceof Type.Number)) return null;
+      Type.Number a = (Type.Number)x, b = (Type.Number)y;
+      switch(op) {
+        case NUMBER_EQUALS: return Type.Boolean.valueOf(Type.Number.isEqual(a,b));
+        case LESS_THAN: return Type.Boolean.valueOf(Type.Number.isLessThan(a,b));
+        case GREATER_THAN: return Type.Boolean.valueOf(Type.Number.isGreaterThan(a,b));
+        case LESS_THAN_OR_EQUAL: return Type.Boolean.valueOf(Type.Number.isLessThanOrEqual(a,b));
+        default: return Type.Boolean.valueOf(Type.Number.isGreaterThanOrEqual(a,b)); // GREATER_THAN_OR_EQUAL
+      }
+    }
+
+    // Returns <null> if <x> & <y> aren't both fixnums, or if their result overflows into a bignum
+    private static Datum arithmetic(int op, Datum x, Datum y) {
+      if(!(x instanceof Type.Fixnum) || !(y instanceof Type.Fixnum)) return null;
+      long a = ((Type.Fixnum)x).value, b = ((Type.Fixnum)y).value;
+      try {
+        switch(op) {
+          case ADD: return Type.Number.valueOf(Math.addExact(a,b));
+          case SUBTRACT: return Type.Number.valueOf(Math.subtractExact(a,b));
+          default: return Type.Number.valueOf(Math.multiplyExact(a,b)); // MULTIPLY
+        }
+      } catch(ArithmeticException e) {
+        return null;
+      }
+    }
+
+    // Runs the program in <frame> (may return a <TailCall>, just like its node tree)
+    public Datum run(Environment frame) throws Exception {
+      int[] code = this.code;
+      Object[] constants = this.constants;
+      Datum[] r = new Datum[totalRegisters];
+      int pc = 0;
+      while(true) {
+        switch(code[pc]) {
+          case CONST:
+            r[code[pc+1]] = (Datum)constants[code[pc+2]];
+            pc += 3;
+            break;
+          case LOCAL: { // depth-0 addresses are never shadowed
+            int depth = code[pc+2];
+            Datum value = null;
+            if(depth == 0) {
+              value = ((Type.Frame)frame).getSlot(code[pc+3]);
+            } else if(!((Analyzer.Address)constants[code[pc+4]]).isShadowed()) {
+              Environment env = frame;
+              for(int i = 0; i < depth; ++i) env = env.getSuperEnvironment();
+              value = ((Type.Frame)env).getSlot(code[pc+3]);
+            }
+            r[code[pc+1]] = value != null ? value : ((Analyzer.Address)constants[code[pc+4]]).get(frame);
+            pc += 5;
+            break;
+          }
+          case EVAL:
+            r[code[pc+1]] = ((Analyzer.Node)constants[code[pc+2]]).eval(frame);
+            pc += 3;
+            break;
+          case JUMP:
+            pc = code[pc+1];
+            break;
+          case JUMP_IF_FALSE:
+            pc = r[code[pc+1]].isTruthy() ? pc+3 : code[pc+2];
+            break;
+          case JUMP_IF_TRUE:
+            pc = r[code[pc+1]].isTruthy() ? code[pc+2] : pc+3;
+            break;
+          case JUMP_IF_BUILTIN:
+            pc = Analyzer.isIntrinsicRebound((Analyzer.Node)constants[code[pc+1]],frame) ? pc+3 : code[pc+2];
+            break;
+          case JUMP_IF_NOT_PROCEDURE:
+            pc = r[code[pc+1]] instanceof Type.Procedure ? pc+3 : code[pc+2];
+            break;
+          case CALL:
+            r[code[pc+1]] = ((Type.Procedure)r[code[pc+2]]).callWith(frame,arguments(r,code[pc+3],code[pc+4]));
+            pc += 5;
+            break;
+          case TAIL_CALL: {
+            Datum callable = r[code[pc+1]];
+            ArrayList<Datum> arguments = arguments(r,code[pc+2],code[pc+3]);
+            Datum result;
+            if(callable instanceof Type.CompoundProcedure) {
+              result = new Type.CompoundProcedure.TailCall((Type.CompoundProcedure)callable,arguments);
+            } else {
+              result = ((Type.Procedure)callable).callWith(frame,arguments);
+            }
+            for(int i = code[pc+4]; i > 0; --i) Runtime.CallStack.pop();
+            return result;
+          }
+          case RETURN:
+            return r[code[pc+1]];
+          case CAR: case CDR: {
+            Datum x = r[code[pc+2]];
+            if(x instanceof Type.Pair) r[code[pc+1]] = code[pc] == CAR ? ((Type.Pair)x).car : ((Type.Pair)x).cdr;
+            else r[code[pc+1]] = builtin(code[pc+3],frame,x);
+            pc += 4;
+            break;
+          }
+          case IS_NULL:
+            r[code[pc+1]] = Type.Boolean.valueOf(r[code[pc+2]] == Type.Nil.VALUE);
+            pc += 4;
+            break;
+          case IS_PAIR:
+            r[code[pc+1]] = Type.Boolean.valueOf(r[code[pc+2]] instanceof Type.Pair);
+            pc += 4;
+            break;
+          case NOT:
+            r[code[pc+1]] = Type.Boolean.valueOf(!r[code[pc+2]].isTruthy());
+            pc += 4;
+            break;
+          case IS_ZERO: {
+            Datum x = r[code[pc+2]];
+            if(x instanceof Type.Number) r[code[pc+1]] = Type.Boolean.valueOf(Type.Number.isZero((Type.Number)x));
+            else r[code[pc+1]] = builtin(code[pc+3],frame,x);
+            pc += 4;
+            break;
+          }
+          case CONS:
+            r[code[pc+1]] = new Type.Pair(r[code[pc+2]],r[code[pc+3]]);
+            pc += 5;
+            break;
+          case IS_EQ:
+            r[code[pc+1]] = Type.Boolean.valueOf(r[code[pc+2]].eq(r[code[pc+3]]));
+            pc += 5;
+            break;
+          case ADD: case SUBTRACT: case MULTIPLY: {
+            Datum x = r[code[pc+2]], y = r[code[pc+3]];
+            Datum result = arithmetic(code[pc],x,y);
+            if(result != null) {
+              r[code[pc+1]] = result;
+            } else if(x instanceof Type.Number && y instanceof Type.Number) {
+              Type.Number a = (Type.Number)x, b = (Type.Number)y;
+              r[code[pc+1]] = code[pc] == ADD ? Type.Number.add(a,b) : code[pc] == SUBTRACT ? Type.Number.subtract(a,b) : Type.Number.multiply(a,b);
+            } else {
+              r[code[pc+1]] = builtin(code[pc+4],frame,x,y);
+            }
+            pc += 5;
+            break;
+          }
+          case NUMBER_EQUALS: case LESS_THAN: case GREATER_THAN: case LESS_THAN_OR_EQUAL: case GREATER_THAN_OR_EQUAL: {
+            Datum x = r[code[pc+2]], y = r[code[pc+3]];
+            Datum result = compare(code[pc],x,y);
+            r[code[pc+1]] = result != null ? result : builtin(code[pc+4],frame,x,y);
+            pc += 5;
+            break;
+          }
+          case BRANCH_UNLESS: {
+            Datum x = r[code[pc+2]], y = r[code[pc+3]];
+            boolean holds;
+            if(code[pc+1] == IS_EQ) {
+              holds = x.eq(y);
+            } else {
+              Datum result = compare(code[pc+1],x,y);
+              holds = (result != null ? result : builtin(code[pc+4],frame,x,y)).isTruthy();
+            }
+            pc = holds ? pc+6 : code[pc+5];
+            break;
+          }
+          case GLOBAL:
+            r[code[pc+1]] = ((Analyzer.Address)constants[code[pc+2]]).get(frame);
+            pc += 3;
+            break;
+          case SET:
+            ((Analyzer.Address)constants[code[pc+2]]).set(frame,r[code[pc+1]]);
+            pc += 3;
+            break;
+          case DEFINE:
+            if(code[pc+2] == -1) {
+              frame.define((Type.Symbol)constants[code[pc+3]],r[code[pc+1]]);
+            } else {
+              ((Type.Frame)frame).setSlot(code[pc+2],r[code[pc+1]]);
+            }
+            pc += 4;
+            break;
+          case CLOSURE: {
+            Type.CompoundProcedure.Code procedureCode = (Type.CompoundProcedure.Code)constants[code[pc+2]];
+            if(code[pc+3] == -1) {
+              Type.Frame.markCaptured(frame);
+              r[code[pc+1]] = new Type.CompoundProcedure(procedureCode,frame);
+            } else {
+              r[code[pc+1]] = new Type.CompoundProcedure(procedureCode,((Analyzer.ClosureScope)constants[code[pc+3]]).createFrame(frame));
+            }
+            pc += 4;
+            break;
+          }
+          case PUSH_FRAME:
+            frame = new Type.Frame((Type.Frame.Scope)constants[code[pc+1]],frame);
+            pc += 2;
+            break;
+          case STORE_SLOT:
+            ((Type.Frame)frame).setSlot(code[pc+1],r[code[pc+2]]);
+            pc += 3;
+            break;
+          case POP_FRAME:
+            frame = frame.getSuperEnvironment();
+            pc += 1;
+            break;
+          case JUMP_IF_REBOUND:
+            pc = ((Analyzer.Address)constants[code[pc+1]]).get(frame) == constants[code[pc+2]] ? pc+4 : code[pc+3];
+            break;
+          case JUMP_UNLESS_IDENTICAL:
+            pc = r[code[pc+1]] == constants[code[pc+2]] ? pc+4 : code[pc+3];
+            break;
+          case APPLY_OTHER:
+            r[code[pc+1]] = Analyzer.applyNonProcedure((Analyzer.Node)constants[code[pc+3]],r[code[pc+2]],frame);
+            pc += 4;
+            break;
+          case ENTER:
+            Runtime.CallStack.push(((Type.Procedure)constants[code[pc+1]]).name);
+            pc += 2;
+            break;
+          case LEAVE:
+            for(int i = code[pc+1]; i > 0; --i) Runtime.CallStack.pop();
+            pc += 2;
+            break;
+          default:
+            throw new Exceptionf("VM: invalid opcode %d!", code[pc]);
+        }
+      }
+    }
+  }
+
+
+  ////////////////////////////////////////////////////////////////////////////
+  // Assembling Programs
+  // => NOTE: registers are never reused, hence a node's operands may be evaluated into
+  //          consecutive registers without being clobbered by one another
+  public static class Assembler {
+    private int[] code = new int[64];
+    private int length = 0;
+    private ArrayList<Object> constants = new ArrayList<Object>();
+    private int totalRegisters = 0;
+    private ArrayList<Integer> labelPositions = new ArrayList<Integer>();
+    private ArrayList<Integer> jumps = new ArrayList<Integer>(); // positions of jump targets (holding labels)
+    public int inlinedCalls = 0; // inlined procedures (see "ENTER") enclosing the node being assembled
+
+    public int newRegister() {
+      return totalRegisters++;
+    }
+
+    // Returns the first of <count> consecutive registers
+    public int newRegisters(int count) {
+      int first = totalRegisters;
+      totalRegisters += count;
+      return first;
+    }
+
+    public int constant(Object value) {
+      constants.add(value);
+      return constants.size()-1;
+    }
+
+    public int newLabel() {
+      labelPositions.add(-1);
+      return labelPositions.size()-1;
+    }
+
+    public void mark(int label) {
+      labelPositions.set(label,length);
+    }
+
+    public void emit(int ... words) {
+      if(length+words.length > code.length) {
+        int[] grown = new int[Math.max(code.length*2,length+words.length)];
+        System.arraycopy(code,0,grown,0,length);
+        code = grown;
+      }
+      for(int word : words) code[length++] = word;
+    }
+
+    // Emits an instruction whose last operand is a jump to <label>
+    public void emitJump(int label, int ... words) {
+      emit(words);
+      jumps.add(length);
+      emit(label);
+    }
+
+    private Program toProgram() {
+      for(int jump : jumps) code[jump] = labelPositions.get(code[jump]);
+      int[] program = new int[length];
+      System.arraycopy(code,0,program,0,length);
+      return new Program(program,constants.toArray(),totalRegisters);
+    }
+  }
+
+
+  public static Program assemble(Analyzer.Node body) {
+    Assembler a = new Assembler();
+    int result = a.newRegister();
+    try {
+      body.assemble(a,result);
+    } catch(Exception e) { // fall back on evaluating the node tree
+      a = new Assembler();
+      result = a.newRegister();
+      a.emit(EVAL,result,a.constant(body));
+    }
+    a.emit(RETURN,result);
+    return a.toProgram();
+  }
+}
@@ -0,0 +1,59 @@
+; closure-sharing-test.scm
+; => Regression tests for closures sharing the variables they capture, even when the
+;    variables are assigned by macros that were unknown when the closures were analyzed
+; => Prints a PASS/FAIL line per test
+; => This file does not need any cmd-line arguments when being executed
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Test reporting
+(define (check name actual expected)
+  (display (if (equal? actual expected) "PASS: " "FAIL: "))
+  (display name)
+  (if (not (equal? actual expected))
+      (begin (display " => expected ") (write expected) (display ", got ") (write actual)))
+  (newline))
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Closures analyzed before the macros assigning their variables are defined
+(define (make-counters n)
+  (list (lambda () (my-inc n) n) (lambda () n)))
+
+(define (make-counters-reversed n)
+  (list (lambda () n) (lambda () (my-inc n) n)))
+
+(define (make-appliers m n) ; <m> may be bound to a macro
+  (list (lambda () (m n) n) (lambda () n)))
+
+(define (make-bumpers)
+  (let ((count 0))
+    (list (lambda () (bump!) count) (lambda () count))))
+
+(define-macro (my-inc x)
+  (list (quote set!) (cadr x) (list (quote +) (cadr x) 1)))
+
+(define-macro (bump! x) ; assigns a variable the closure never mentions
+  (quote (set! count (+ count 10))))
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Tests
+(define counters (make-counters 0))
+((car counters))
+((car counters))
+(check "macro assignment is shared" (list ((car counters)) ((cadr counters))) (list 3 3))
+
+(define reversed-counters (make-counters-reversed 0))
+((cadr reversed-counters))
+(check "macro assignment is shared (reversed)" (list ((cadr reversed-counters)) ((car reversed-counters))) (list 2 2))
+
+(define appliers (make-appliers my-inc 0))
+((car appliers))
+(check "macro argument assignment is shared" (list ((car appliers)) ((cadr appliers))) (list 2 2))
+
+(define bumpers (make-bumpers))
+((car bumpers))
+(check "macro assignment of an unmentioned variable" (list ((car bumpers)) ((cadr bumpers))) (list 20 20))
+
+(define (make-adder k) (lambda (x) (+ x k)))
+(check "flattened closure" ((make-adder 2) 3) 5)
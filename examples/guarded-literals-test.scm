@@ -0,0 +1,49 @@
+; guarded-literals-test.scm
+; => Regression tests for mutating quoted lists & vector literals
+; => Prints a PASS/FAIL line per test
+; => This file must be executed with the "--guard-quoted-literals" cmd-line flag:
+;    java Main --guard-quoted-literals guarded-literals-test.scm
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Test reporting
+(define (check name actual expected)
+  (display (if (equal? actual expected) "PASS: " "FAIL: "))
+  (display name)
+  (if (not (equal? actual expected))
+      (begin (display " => expected ") (write expected) (display ", got ") (write actual)))
+  (newline))
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Procedures yielding literals
+(define (quoted-list) (quote (1 2 3)))
+(define (vector-literal) #(1 2 3))
+(define (nested-vector) (quote (1 #(2 3))))
+(define (filled-vector) #(1 2))
+(define (f64-literal) #f64(1 2 3))
+(define (u8-literal) #u8(1 2 3 4))
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Tests
+(set-car! (quoted-list) 99)
+(check "mutated quoted list" (quoted-list) (quote (1 2 3)))
+
+(vector-set! (vector-literal) 0 99)
+(check "mutated vector literal" (vector-literal) #(1 2 3))
+
+(vector-set! (cadr (nested-vector)) 0 99)
+(check "mutated vector in a quoted list" (nested-vector) (quote (1 #(2 3))))
+
+(vector-fill! (filled-vector) 0)
+(check "filled vector literal" (filled-vector) #(1 2))
+
+(f64vector-set! (f64-literal) 0 99)
+(check "mutated f64vector literal" (f64-literal) #f64(1 2 3))
+
+(u8vector-fill! (u8vector-slice (u8-literal) 1 3) 7)
+(check "mutated slice of a u8vector literal" (u8-literal) #u8(1 2 3 4))
+
+(define v (vector-literal))
+(vector-set! v 1 42)
+(check "mutations persist in the yielded vector" v #(1 42 3))
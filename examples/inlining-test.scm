@@ -0,0 +1,56 @@
+; inlining-test.scm
+; => Regression tests for inlined applications of small global procedures
+; => Prints a PASS/FAIL line per test
+; => This file does not need any cmd-line arguments when being executed
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Test reporting
+(define (check name actual expected)
+  (display (if (equal? actual expected) "PASS: " "FAIL: "))
+  (display name)
+  (if (not (equal? actual expected))
+      (begin (display " => expected ") (write expected) (display ", got ") (write actual)))
+  (newline))
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Procedures whose bodies analyze code at runtime (in the global environment)
+(define x 100)
+(define x-name (car (list (quote x)))) ; quotations aren't inlined, hence the indirection
+
+(define (global-x) (eval x-name))
+
+(define (local-x)
+  (define x 5)
+  (global-x))
+
+(define (shadowed-x x)
+  (global-x))
+
+(define y 50)
+
+(define (global-y) (y-later)) ; <y-later> is a macro defined below
+
+(define (local-y)
+  (define y 4)
+  (global-y))
+
+(define-macro (y-later form)
+  (car (list (quote y))))
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Small procedures that are inlined
+(define (square n) (* n n))
+
+(define (sum-squares a b) (+ (square a) (square b)))
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Tests
+(check "eval in an inlinable body sees globals" (local-x) 100)
+(check "eval in an inlinable body ignores parameters" (shadowed-x 5) 100)
+(check "late macro in an inlinable body sees globals" (local-y) 50)
+(check "inlined body" (sum-squares 3 4) 25)
+(define (square n) (+ n n))
+(check "redefined inlined procedure" (sum-squares 3 4) 14)
@@ -0,0 +1,36 @@
+; macro-redefinition-test.scm
+; => Regression tests for procedures using macros that are redefined after the procedures
+; => Prints a PASS/FAIL line per test
+; => This file does not need any cmd-line arguments when being executed
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Test reporting
+(define (check name actual expected)
+  (display (if (equal? actual expected) "PASS: " "FAIL: "))
+  (display name)
+  (if (not (equal? actual expected))
+      (begin (display " => expected ") (write expected) (display ", got ") (write actual)))
+  (newline))
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Procedures using a macro defined before them
+(define-macro (m form) 2)
+
+(define (h) (m))
+
+(define (sum-h n) ; hot enough to be compiled
+  (let loop ((i 0) (total 0))
+    (if (= i n) total (loop (+ i 1) (+ total (m))))))
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Tests
+(check "original macro" (h) 2)
+(check "original macro (compiled)" (sum-h 5000) 10000)
+(define saved-expansion (expand (quote (define (saved) (m)))))
+
+(define-macro (m form) 10)
+(check "redefined macro" (h) 10)
+(check "redefined macro (compiled)" (sum-h 5000) 50000)
+(check "ahead-of-time expansion is a snapshot" saved-expansion (quote (define (saved) 2)))
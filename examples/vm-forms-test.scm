@@ -0,0 +1,71 @@
+; vm-forms-test.scm
+; => Regression tests for the core forms assembled into VM instructions (run with "--engine=vm")
+; => Prints a PASS/FAIL line per test
+; => This file does not need any cmd-line arguments when being executed
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Test reporting
+(define (check name actual expected)
+  (display (if (equal? actual expected) "PASS: " "FAIL: "))
+  (display name)
+  (if (not (equal? actual expected))
+      (begin (display " => expected ") (write expected) (display ", got ") (write actual)))
+  (newline))
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; <lambda> & <set!> on captured variables
+(define (make-counter)
+  (let ((n 0))
+    (lambda () (set! n (+ n 1)) n)))
+
+(define counter (make-counter))
+(counter)
+(counter)
+(check "closures share their assigned variables" (counter) 3)
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Local variables at any depth, <define>, <letrec>, & named <let>
+(define (nested x)
+  (define y 10)
+  (let ((z 5))
+    (letrec ((even? (lambda (n) (if (= n 0) #t (odd? (- n 1)))))
+             (odd? (lambda (n) (if (= n 0) #f (even? (- n 1))))))
+      (let loop ((i 0) (acc (list)))
+        (if (< i 3) (loop (+ i 1) (cons (list x y z (even? i)) acc)) acc)))))
+
+(check "locals of enclosing frames" (nested 1) (list (list 1 10 5 #t) (list 1 10 5 #f) (list 1 10 5 #t)))
+
+(define (redefine)
+  (define h 3)
+  (set! h (* h 2))
+  h)
+
+(check "internal definitions & assignments" (redefine) 6)
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Applications of arbitrary operators & of macros
+(define (apply-lambda) ((lambda (a b) (+ a b)) 1 2))
+
+(check "applying a <lambda> expression" (apply-lambda) 3)
+
+(define (make-adder k) (lambda (x) (+ x k)))
+(define (apply-adders n total) (if (= n 0) total (apply-adders (- n 1) ((make-adder n) total))))
+
+(check "applying an application's value" (apply-adders 100 0) 5050)
+
+(define-macro (twice expr) (list (quote begin) (cadr expr) (cadr expr)))
+(define (use-macro) (define n 0) (twice (set! n (+ n 1))) n)
+(use-macro)
+
+(check "applying a macro" (use-macro) 2)
+
+
+;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;;
+;; Fixnum arithmetic overflowing into bignums
+(define (square x) (* x x))
+(define (overflow) (+ (square 4294967296) (square 4294967296)))
+
+(check "overflowing fixnum arithmetic" (overflow) 36893488147419103232)